@@ -3,27 +3,103 @@ package phoenix.configuration; // 패키지명
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 
-import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 
 @Configuration
 public class ThreadPoolConfig { // class start
 
     /**
-     * 쓰레드풀 설정값 (교환신청)
+     * 쓰레드풀 설정값 (푸시 알림 발송)
+     * - 대기열이 차면 거절 → NotificationDispatcher 가 Redis 알림함으로 보냄 (요청 스레드를 막지 않음)
      *
      * @return executor
      */
     @Bean
-    public Executor changeExecutor(){
+    public ThreadPoolTaskExecutor notifyExecutor(){
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);                // 기본 쓰레드수 2
-        executor.setMaxPoolSize(5);                 // 최대 쓰레드수 5
-        executor.setQueueCapacity(5);               // 큐 용량(대기열)
-        executor.setThreadNamePrefix("change-");    // 스레드 이름 앞부분
+        executor.setCorePoolSize(4);                // 기본 쓰레드수 4
+        executor.setMaxPoolSize(4);                 // 최대 쓰레드수 4 (대기열이 찬 뒤에야 늘어나므로 core 와 동일)
+        executor.setQueueCapacity(1000);            // 큐 용량(대기열)
+        executor.setThreadNamePrefix("notify-");    // 스레드 이름 앞부분
         executor.initialize();                      // 생성
         return executor;
     }// func end
+
+    /**
+     * 쓰레드풀 설정값 (티켓 발급 워커)
+     * - 발급 펌프는 쉬는 워커 수만큼만 선점 → 선점한 배치가 대기열에서 기다리지 않음 (재선점 방지)
+     *
+     * @return executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ticketIssueExecutor(){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);                // 기본 쓰레드수 4 (선점 수 = 쉬는 워커 수이므로 max 와 동일)
+        executor.setMaxPoolSize(4);                 // 최대 쓰레드수 4
+        executor.setQueueCapacity(8);               // 큐 용량(대기열)
+        executor.setThreadNamePrefix("ticket-");    // 스레드 이름 앞부분
+        executor.initialize();                      // 생성
+        return executor;
+    }// func end
+
+    /**
+     * 쓰레드풀 설정값 (QR 이미지 일괄 렌더링)
+     * - CPU 작업이므로 코어 수만큼, 대기열이 차면 호출 스레드가 직접 렌더링
+     *
+     * @return executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor qrRenderExecutor(){
+        int cpu = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cpu);              // 기본 쓰레드수 = 코어 수
+        executor.setMaxPoolSize(cpu);               // 최대 쓰레드수 = 코어 수
+        executor.setQueueCapacity(cpu * 4);         // 큐 용량(대기열)
+        executor.setThreadNamePrefix("qr-render-"); // 스레드 이름 앞부분
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();                      // 생성
+        return executor;
+    }// func end
+
+    /**
+     * 쓰레드풀 설정값 (QR 이미지 파일 정리)
+     * - 대기열이 차면 호출 스레드(정리 배치)가 직접 삭제 → 배치 속도가 디스크 속도에 맞춰짐
+     *
+     * @return executor
+     */
+    @Bean
+    public ThreadPoolTaskExecutor fileCleanupExecutor(){
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);                // 기본 쓰레드수 4
+        executor.setMaxPoolSize(4);                 // 최대 쓰레드수 4
+        executor.setQueueCapacity(16);              // 큐 용량(대기열)
+        executor.setThreadNamePrefix("qr-clean-");  // 스레드 이름 앞부분
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();                      // 생성
+        return executor;
+    }// func end
+
+    /**
+     * @Scheduled 작업 스케줄러 (기본값은 스레드 1개)
+     * - 좌석 델타 전송(150ms), 웹소켓 보류 프레임 전송(100ms) 같은 짧은 주기 작업이
+     *   만료 배치/write-back/CSV 감시 등 10여 개 작업 뒤에서 밀리지 않도록 여러 스레드로 실행
+     * - 같은 작업은 fixedDelay 이므로 스레드가 늘어도 겹쳐 실행되지 않음
+     *
+     * @return scheduler
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(){
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(8);                               // 스레드수 8
+        scheduler.setThreadNamePrefix("sched-");                // 스레드 이름 앞부분
+        scheduler.setErrorHandler(t -> System.out.println("[Scheduler] 작업 오류: " + t.getMessage()));
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);    // 종료 시 실행 중인 작업 마무리
+        scheduler.setAwaitTerminationSeconds(10);               // 최대 대기 10초
+        scheduler.initialize();                                 // 생성
+        return scheduler;
+    }// func end
 }// class end
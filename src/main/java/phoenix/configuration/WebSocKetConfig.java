@@ -1,6 +1,7 @@
 package phoenix.configuration; // 패키지명
 
 import phoenix.handler.BaseballSocketHandler;
+import phoenix.security.LoginHandshakeInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
@@ -13,10 +14,14 @@ import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry
 public class WebSocKetConfig implements WebSocketConfigurer { // class start
     // [*] 핸들러 불러오기
     private final BaseballSocketHandler baseballSocketHandler;
+    // [*] handshake 때 세션 로그인 회원 확인
+    private final LoginHandshakeInterceptor loginHandshakeInterceptor;
 
     // [1] 내가만든 소켓핸들러 등록
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
-        registry.addHandler( baseballSocketHandler , "/socket" ).setAllowedOrigins("*");
+        registry.addHandler( baseballSocketHandler , "/socket" )
+                .addInterceptors( loginHandshakeInterceptor )
+                .setAllowedOrigins("*");
     }// func end
 }// class end
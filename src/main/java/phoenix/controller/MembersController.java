@@ -207,9 +207,9 @@ public class MembersController {
             // 로그인 시 MembersDto를 세션에 저장했을 경우
             member = dto;
         } else {
-            // 안전장치 — 혹시 문자열만 저장된 경우 DB 재조회
+            // JWT 인증(MemberPrincipal) 또는 문자열만 저장된 경우 → 회원 캐시 조회
             String mid = auth.getName();
-            member = membersService.findByMid(mid);
+            member = membersService.findCachedByMid(mid);
         }
 
         return ResponseEntity.ok(new ApiResponseUtil<>(true, "로그인 회원 정보 반환 성공", member));
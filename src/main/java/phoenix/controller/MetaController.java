@@ -0,0 +1,72 @@
+package phoenix.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import phoenix.model.dto.MembersDto;
+import phoenix.service.MembersService;
+import phoenix.service.PlayerCsvService;
+import phoenix.service.SeatCsvService;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 좌석/존/로스터 메타 관리 (관리자 전용)
+ *
+ *  1) GET  /meta/version : 현재 공개 중인 스냅샷 버전
+ *  2) POST /meta/reload  : CSV 재로드 → 검증 통과 시 스냅샷 교체 (실패 시 기존 유지)
+ */
+@RestController
+@RequestMapping("/meta")
+@RequiredArgsConstructor
+public class MetaController {
+
+    private final SeatCsvService seatCsvService;
+    private final PlayerCsvService playerCsvService;
+    private final MembersService membersService;
+
+    @GetMapping("/version")
+    public ResponseEntity<?> version() {
+        ResponseEntity<?> denied = checkAdmin();
+        if (denied != null) return denied;
+
+        SeatCsvService.Snapshot seats = seatCsvService.snapshot();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("seatVersion", seats.getVersion());
+        body.put("seatLoadedAt", seats.getLoadedAt());
+        body.put("seatCount", seats.seatCount());
+        body.put("playerVersion", playerCsvService.snapshot().getVersion());
+        return ResponseEntity.ok(body);
+    }// func end
+
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload() {
+        ResponseEntity<?> denied = checkAdmin();
+        if (denied != null) return denied;
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        try {
+            body.put("seatVersion", seatCsvService.reload());
+            body.put("playerVersion", playerCsvService.reload());
+            body.put("ok", true);
+            return ResponseEntity.ok(body);
+        } catch (Exception e) {
+            body.put("ok", false);
+            body.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(body);
+        }// catch end
+    }// func end
+
+    private ResponseEntity<?> checkAdmin() {
+        MembersDto loginMember = membersService.getLoginMember();
+        if (loginMember == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+        if (!"admin".equalsIgnoreCase(loginMember.getMid())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("관리자만 접근 가능합니다.");
+        }
+        return null;
+    }// func end
+}// class end
@@ -0,0 +1,53 @@
+package phoenix.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import phoenix.model.dto.MembersDto;
+import phoenix.service.MembersService;
+import phoenix.service.NotificationInboxService;
+
+import java.util.Map;
+
+/**
+ * 회원 알림함 (로그인 회원 본인)
+ *
+ *  1) GET  /alarm/unread?size=N              : 읽지 않은 알림 (오래된 순)
+ *  2) GET  /alarm/history?before=id&size=N   : 알림 이력 (최신 순, 응답 마지막 id 를 다음 before 로)
+ *  3) POST /alarm/read?id=id                 : id 까지 읽음 처리
+ */
+@RestController
+@RequestMapping("/alarm")
+@RequiredArgsConstructor
+public class NotificationController {
+
+    private final NotificationInboxService notificationInboxService;
+    private final MembersService membersService;
+
+    @GetMapping("/unread")
+    public ResponseEntity<?> unread(@RequestParam(name = "size", defaultValue = "100") int size) {
+        MembersDto loginMember = membersService.getLoginMember();
+        if (loginMember == null) return unauthorized();
+        return ResponseEntity.ok(notificationInboxService.unread(loginMember.getMno(), size));
+    }// func end
+
+    @GetMapping("/history")
+    public ResponseEntity<?> history(@RequestParam(name = "before", required = false) String before,
+                                     @RequestParam(name = "size", defaultValue = "20") int size) {
+        MembersDto loginMember = membersService.getLoginMember();
+        if (loginMember == null) return unauthorized();
+        return ResponseEntity.ok(notificationInboxService.history(loginMember.getMno(), before, size));
+    }// func end
+
+    @PostMapping("/read")
+    public ResponseEntity<?> read(@RequestParam(name = "id") String id) {
+        MembersDto loginMember = membersService.getLoginMember();
+        if (loginMember == null) return unauthorized();
+        return ResponseEntity.ok(notificationInboxService.ack(loginMember.getMno(), id));
+    }// func end
+
+    private ResponseEntity<?> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "로그인 정보가 없습니다."));
+    }
+}// class end
@@ -77,24 +77,19 @@ public class ReservationExchangesController {
      * 교환요청 수락
      *
      * @param rno 요청자 예매번호
+     * @param key 요청 멱등키 (요청목록의 idem_key, 재시도 시 이미 처리됐으면 true)
      * @return boolean 성공 : true , 실패 : false0
      */
     @PostMapping("/accept")
-    public ResponseEntity<?> acceptChange(@RequestParam int rno ){
+    public ResponseEntity<?> acceptChange(@RequestParam int rno , @RequestParam(required = false) String key ){
         MembersDto loginMember = membersService.getLoginMember();
-        int mno = loginMember.getMno();
         if (loginMember == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "로그인 정보가 없습니다."));
         }
-        ReservationExchangesDto dto = redisService.getRequest(rno);
-        boolean result = reservationexchangesService.acceptChange(mno, rno);
-        if (result){
-            if (dto != null){
-                String msg = "좌석 교환 요청이 수락되었습니다.";
-                reservationexchangesService.responseMessage(dto.getFrom_mno(), msg );
-            }// if end
-        }// if end
+        int mno = loginMember.getMno();
+        // 요청자 알림은 커밋 후 서비스에서 발송
+        boolean result = reservationexchangesService.acceptChange(mno, rno, key);
         return ResponseEntity.ok(result);
     }// func end
 
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import phoenix.model.dto.MembersDto;
 import phoenix.model.dto.ReservationsDto;
+import phoenix.model.dto.WalletDto;
 import phoenix.service.MembersService;
 import phoenix.service.ReservationsService;
 
@@ -24,7 +25,7 @@ public class ReservationsController {
     /**
      * 예매내역조회
      *
-     * @return List<Map<String,Object>>
+     * @return List<WalletDto.Entry>
      */
     @GetMapping("/print")
     public ResponseEntity<?> reservePrint(HttpSession session){
@@ -34,7 +35,7 @@ public class ReservationsController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "로그인 정보가 없습니다."));
         }
-        List<Map<String,Object>> list = reservationsService.reservePrint(mno);
+        List<WalletDto.Entry> list = reservationsService.reservePrint(mno);
         return ResponseEntity.ok().body(list);
     }// func end
 
@@ -0,0 +1,79 @@
+package phoenix.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import phoenix.model.dto.MembersDto;
+import phoenix.model.dto.ScannerSyncDto.*;
+import phoenix.service.MembersService;
+import phoenix.service.ScannerSyncService;
+
+import java.util.List;
+
+/**
+ * 오프라인 게이트 스캐너 동기화 (관리자 전용)
+ *
+ *  1) GET  /scanner/{gno}/snapshot              : 유효 티켓 스냅샷 (binary, X-Snapshot-Epoch / X-Snapshot-Version 헤더)
+ *  2) GET  /scanner/{gno}/delta?epoch=E&since=N : 같은 적재 회차 E 에서 N 이후 변경분 (회차가 다르면 resync)
+ *  3) POST /scanner/{gno}/scans         : 오프라인 스캔 배치 업로드 (멱등)
+ */
+@RestController
+@RequestMapping("/scanner")
+@RequiredArgsConstructor
+public class ScannerController {
+
+    private final ScannerSyncService scannerSyncService;
+    private final MembersService membersService;
+
+    @GetMapping("/{gno}/snapshot")
+    public ResponseEntity<?> snapshot(@PathVariable("gno") int gno) {
+        ResponseEntity<?> denied = checkAdmin();
+        if (denied != null) return denied;
+
+        byte[] body = scannerSyncService.snapshot(gno);
+        if (body == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("아직 입장 티켓이 적재되지 않은 경기입니다.");
+        }
+        java.nio.ByteBuffer head = java.nio.ByteBuffer.wrap(body);
+        long epoch = head.getLong(4);
+        long version = head.getLong(12);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Snapshot-Epoch", String.valueOf(epoch))
+                .header("X-Snapshot-Version", String.valueOf(version))
+                .body(body);
+    }// func end
+
+    @GetMapping("/{gno}/delta")
+    public ResponseEntity<?> delta(@PathVariable("gno") int gno,
+                                   @RequestParam(name = "epoch", defaultValue = "0") long epoch,
+                                   @RequestParam(name = "since", defaultValue = "0") long since) {
+        ResponseEntity<?> denied = checkAdmin();
+        if (denied != null) return denied;
+        return ResponseEntity.ok(scannerSyncService.delta(gno, epoch, since));
+    }// func end
+
+    @PostMapping("/{gno}/scans")
+    public ResponseEntity<?> upload(@PathVariable("gno") int gno, @RequestBody ScanUploadReq req) {
+        ResponseEntity<?> denied = checkAdmin();
+        if (denied != null) return denied;
+        if (req == null || req.getDeviceId() == null || req.getDeviceId().isBlank()) {
+            return ResponseEntity.badRequest().body("deviceId가 필요합니다.");
+        }
+        List<ScanResult> results = scannerSyncService.upload(gno, req);
+        return ResponseEntity.ok(results);
+    }// func end
+
+    private ResponseEntity<?> checkAdmin() {
+        MembersDto loginMember = membersService.getLoginMember();
+        if (loginMember == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+        if (!"admin".equalsIgnoreCase(loginMember.getMid())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("관리자만 접근 가능합니다.");
+        }
+        return null;
+    }// func end
+}// class end
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.*;
 import phoenix.model.dto.AutoSelectDto;
 import phoenix.model.dto.GameDto;
 import phoenix.model.dto.MembersDto;
+import phoenix.security.MemberPrincipal;
 import phoenix.service.GameService;
 import phoenix.service.MembersService;
 import phoenix.util.ApiResponseUtil;
@@ -36,7 +37,7 @@ public class SeniorController {
     @GetMapping("/reserve")
     public ResponseEntity<?> seniorReserve() {
 
-        MembersDto member = membersService.getLoginMember();
+        MembersDto member = membersService.getLoginMemberDetail(); // 생년월일 필요 → 전체 정보
         if (member == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiResponseUtil<>(false, "로그인이 필요합니다.", null));
@@ -58,7 +59,7 @@ public class SeniorController {
         }
 
         int age = Period.between(birthDate , LocalDate.now()).getYears();
-        if (age < 65) {
+        if (age < MemberPrincipal.SENIOR_AGE) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(new ApiResponseUtil<>(false, "시니어 전용 서비스입니다.", null));
         }
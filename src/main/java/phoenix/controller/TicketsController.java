@@ -3,20 +3,31 @@ package phoenix.controller;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.neo4j.Neo4jProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import phoenix.model.dto.MembersDto;
+import phoenix.model.dto.WalletDto;
+import phoenix.service.EntryStatsService;
 import phoenix.service.MembersService;
+import phoenix.service.QrImageService;
+import phoenix.service.TicketScanService;
 import phoenix.service.TicketsService;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 
 @RequestMapping("/tickets")
@@ -25,6 +36,9 @@ import java.util.Map;
 public class TicketsController {
     private final TicketsService ticketsService;
     private final MembersService membersService;
+    private final QrImageService qrImageService;
+    private final TicketScanService ticketScanService;
+    private final EntryStatsService entryStatsService;
 
     /**
      * 티켓 발급
@@ -74,11 +88,45 @@ public class TicketsController {
         }
 
         int mno = loginMno.getMno();
-        List<Map<String, Object>> result = ticketsService.findPayloads(mno, rno);
+        List<WalletDto.Ticket> result = ticketsService.findPayloads(mno, rno);
 
         return ResponseEntity.ok(result);
     }//func end
 
+    /**
+     * 티켓 QR 이미지 (요청 시 렌더링, 메모리 캐시)
+     * - 이미지는 UUID로만 결정되므로 ETag + 1년 immutable 캐시
+     * - 본인 티켓만 반환, 존재하지 않는 UUID 와 다른 회원의 티켓은 같은 404 (존재 여부 노출 방지)
+     * - If-None-Match(약한 비교, 여러 태그) 일치 시 본문 없이 304
+     *
+     * @param uuid 티켓 UUID
+     * @return image/png
+     *
+     * GET /tickets/qr-image/abc123
+     */
+    @GetMapping("/qr-image/{uuid}")
+    public ResponseEntity<byte[]> qrImage(@PathVariable("uuid") String uuid,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        MembersDto loginMember = membersService.getLoginMember();
+        if (loginMember == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+
+        // 소유 확인 (캐시 적중 시 DB 조회 없음) → 없는 티켓/남의 티켓 모두 404
+        byte[] png = qrImageService.getPng(uuid, loginMember.getMno());
+        if (png == null) return ResponseEntity.notFound().build();
+
+        String etag = QrImageService.etag(uuid);
+        CacheControl cache = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+        if (QrImageService.etagMatches(ifNoneMatch, uuid)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cache).build();
+        }//if end
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_PNG)
+                .eTag(etag)
+                .cacheControl(cache)
+                .body(png);
+    }//func end
+
     /**
      * QR UUID 기반 티켓 상세 조회
      * <p>
@@ -107,6 +155,7 @@ public class TicketsController {
      * <p>
      * - QR 코드(UUID)를 스캔하여 유효 여부를 검증하고, 사용 처리(valid=1→0)
      * - 이미 사용된 티켓일 경우 실패 메시지를 반환
+     * - 경기 당일에는 Redis 선적재 세트로 처리, DB 반영은 배치 (TicketScanService)
      *
      * @param uuid 티켓 UUID
      * @return ResponseEntity<Map<String,Object>>
@@ -125,31 +174,78 @@ public class TicketsController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("관리자만 접근 가능합니다.");
         }//func end
 
-        Map<String, Object> result = ticketsService.qrScan(uuid);
+        Map<String, Object> result = ticketScanService.scan(uuid);
         return ResponseEntity.ok(result);
     }//func end
 
     /**
-     * 관리자용 QR 사용 로그 조회
+     * 관리자용 QR 사용 로그 조회 (keyset 페이지)
      * - 전체 티켓의 사용 이력(회원명, 연락처, 구역, 좌석, 유효상태 등)을 조회합니다.
      * - 관리자 권한이 필요한 엔드포인트입니다.
+     * - tno 내림차순, 응답의 nextCursor 를 다음 요청 cursor 로 전달 (null 이면 마지막 페이지)
      *
-     * @return ResponseEntity<List<Map<String,Object>>>
-     *         전체 QR 사용 로그 목록
+     * @return ResponseEntity<Map<String,Object>>
+     *         { items: [...], nextCursor: tno | null }
      *
-     * GET /tickets/ticketLog
+     * GET /tickets/ticketLog?gno=1&valid=true&from=2025-10-01&to=2025-10-31&cursor=50123&size=100
      */
     @GetMapping("/ticketLog")
-    public ResponseEntity<?>adminScanLog(){
+    public ResponseEntity<?>adminScanLog(@RequestParam(name = "gno", required = false) Integer gno,
+                                         @RequestParam(name = "valid", required = false) Boolean valid,
+                                         @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(name = "cursor", required = false) Integer cursor,
+                                         @RequestParam(name = "size", defaultValue = "100") int size){
+        ResponseEntity<?> denied = checkAdmin();
+        if (denied != null) return denied;
+        Map<String,Object> result = ticketsService.adminScanLogPage(gno, valid, from, to, cursor, size);
+        return ResponseEntity.ok(result);
+    }//func end
+
+    /**
+     * 관리자용 QR 사용 로그 CSV 내보내기 (스트리밍)
+     * - 필터는 /ticketLog 와 동일, 전체 건을 한 번에 메모리에 올리지 않고 행 단위로 전송
+     *
+     * GET /tickets/ticketLog/export?gno=1&valid=false
+     */
+    @GetMapping("/ticketLog/export")
+    public ResponseEntity<?> exportScanLog(@RequestParam(name = "gno", required = false) Integer gno,
+                                           @RequestParam(name = "valid", required = false) Boolean valid,
+                                           @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        ResponseEntity<?> denied = checkAdmin();
+        if (denied != null) return denied;
+
+        StreamingResponseBody body = out -> ticketsService.exportScanLogCsv(gno, valid, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ticket_log.csv\"")
+                .body(body);
+    }//func end
+
+    /**
+     * 관리자용 경기 입장 통계 (게이트 대시보드, Redis 카운터만 조회)
+     * - 누적/구역별 입장 수, 남은 유효 티켓 수, 최근 N분 분당 입장 수
+     *
+     * GET /tickets/stats?gno=1&minutes=30
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> entryStats(@RequestParam("gno") int gno,
+                                        @RequestParam(name = "minutes", defaultValue = "30") int minutes){
+        ResponseEntity<?> denied = checkAdmin();
+        if (denied != null) return denied;
+        return ResponseEntity.ok(entryStatsService.stats(gno, minutes));
+    }//func end
+
+    private ResponseEntity<?> checkAdmin() {
         MembersDto loginAdmin = membersService.getLoginMember();
         if(loginAdmin ==null){
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
         }//if end
         if(!"admin".equalsIgnoreCase(loginAdmin.getMid())){ // equalsIgnoreCase = 대소문자 구분없음,ex)Admin,admin
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("관리자만 접근 가능합니다.");
-        }//func end
-        List<Map<String,Object>> result = ticketsService.adminScanLog();
-        return ResponseEntity.ok(result);
+        }//if end
+        return null;
     }//func end
 }//class end
 
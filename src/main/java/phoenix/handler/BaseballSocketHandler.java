@@ -1,79 +1,302 @@
 package phoenix.handler; // 패키지명
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
-import phoenix.service.RedisService;
+import phoenix.model.dto.SocketFrameDto;
+import phoenix.model.dto.SocketFrameDto.*;
+import phoenix.security.JwtUtil;
+import phoenix.security.LoginHandshakeInterceptor;
+import phoenix.service.NotificationInboxService;
+import phoenix.service.SeatDeltaService;
+import phoenix.util.RedisKeys;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 알림 웹소켓
+ * <p>
+ * - 세션은 접속한 노드에만 있으므로 회원별 Redis 토픽(ws:member:{mno})으로 노드 간 중계
+ *   · 로그인 시 이 노드가 회원 토픽을 구독, 연결 종료 시 해제
+ *   · 세션 등록/해제와 구독/해제는 회원별 락(memberLock) 안에서 함께 처리
+ *     → 재접속 로그인과 이전 연결 종료가 겹쳐도 구독이 빠지거나, 닫힌 세션 때문에 구독이 남지 않음
+ *   · 발송 측은 로컬 세션 → 토픽 발행(받은 노드 수 > 0) → 알림함 순서로 시도 (NotificationDispatcher)
+ * - 로그인: {"type":"login"} → handshake 때 HTTP 세션으로 확인한 회원(LoginHandshakeInterceptor)으로 등록
+ *   · {"type":"login","token":JWT} 처럼 토큰을 보내면 토큰의 mno 우선 (클라이언트가 보낸 mno 는 믿지 않음)
+ *   · 결과를 {"type":"login","ok":...} 로 응답, 읽지 않은 알림(inbox:{mno})을 {"type":"inbox"} 프레임으로 끝까지 전달
+ *     (MAX_PAGE 건씩, 마지막 프레임은 more=false — 클라이언트는 그 전까지 실시간 알림을 읽음 처리하지 않음)
+ *   · {"type":"inbox:ack","id"} 로 읽음 처리, {"type":"inbox:history","before","size"} 로 이력 페이지 조회
+ * - 프레임 형식은 SocketFrameDto, 파싱/직렬화는 공용 ObjectMapper 의 reader/writer 재사용
+ * - 좌석 상태 구독: {"type":"seat:subscribe","gno":N} / {"type":"seat:unsubscribe"}
+ *   · 세션당 경기 1개, 로그인 없이도 구독 가능 (좌석 배치도 화면)
+ *   · SeatDeltaService 가 모은 델타를 binary 프레임으로 전달
+ * - 송신은 모두 세션별 버퍼(OutboundSession)를 거침
+ *   · 여러 스레드 동시 전송 안전, 느린 클라이언트가 보내는 스레드를 막지 않음
+ *   · 버퍼 phoenix.ws.buffer-size-limit(기본 512KB) / 전송 phoenix.ws.send-time-limit-ms(기본 5초) 초과 시 연결 종료
+ *   · 좌석 델타는 밀려 있는 동안 경기별로 합쳐 최신 상태 1건만 전송
+ * - 지표: phoenix.ws.sessions / phoenix.ws.buffered.bytes (게이지),
+ *         phoenix.ws.slow.consumers / phoenix.ws.coalesced (카운터)
+ */
 @Component // 빈 등록
 @RequiredArgsConstructor
 public class BaseballSocketHandler extends TextWebSocketHandler { // class start
-    private final RedisService redisService;
+    private final NotificationInboxService notificationInboxService;
+    private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final JwtUtil jwtUtil;
 
+    // 프레임 타입별 reader/writer 재사용 (스레드 안전)
+    private ObjectReader inReader;
+    private ObjectWriter writer;
+
+    private static final int HISTORY_PAGE = 20;   // 이력 조회 기본 건수
+
+    @Value("${phoenix.ws.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+    @Value("${phoenix.ws.buffer-size-limit:524288}")
+    private int bufferSizeLimit;
+
+    private Counter slowConsumers;
+    private Counter coalesced;
+
+    // [*] 송신 버퍼 ( key : 세션 id , value : 세션별 송신 버퍼 )
+    private final ConcurrentHashMap<String, OutboundSession> outbound = new ConcurrentHashMap<>();
     // [*] 접속자 목록 ( key : 회원번호 , value : 접속자 정보 )
-    private final ConcurrentHashMap<Integer, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, OutboundSession> sessions = new ConcurrentHashMap<>();
+    // [*] 회원 토픽 구독 ( key : 회원번호 , value : 리스너 id )
+    private final ConcurrentHashMap<Integer, Integer> listeners = new ConcurrentHashMap<>();
+    // [*] 좌석 상태 구독자 ( key : 경기번호 , value : 구독 세션 )
+    private final ConcurrentHashMap<Integer, Set<OutboundSession>> seatViewers = new ConcurrentHashMap<>();
+    // [*] 회원별 세션/구독 변경 락 (회원번호로 나눈 고정 개수, 전송 경로는 락 없음)
+    private final Object[] memberLocks = new Object[64];
+
+    @PostConstruct
+    public void init() {
+        inReader = objectMapper.readerFor(In.class).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        writer = objectMapper.writer();
+        for (int i = 0; i < memberLocks.length; i++) memberLocks[i] = new Object();
+        Gauge.builder("phoenix.ws.sessions", outbound, Map::size).register(meterRegistry);
+        Gauge.builder("phoenix.ws.buffered.bytes", outbound,
+                m -> m.values().stream().mapToLong(OutboundSession::getBufferSize).sum()).register(meterRegistry);
+        slowConsumers = Counter.builder("phoenix.ws.slow.consumers").register(meterRegistry);
+        coalesced = Counter.builder("phoenix.ws.coalesced").register(meterRegistry);
+    }// func end
 
     // [1] 클라이언트와 서버의 연결이 시작되었을때
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         System.out.println("클라이언트와 연결 시작");
+        outbound.put(session.getId(), new OutboundSession(session, sendTimeLimitMs, bufferSizeLimit, slowConsumers::increment));
     }// func end
 
     // [2] 클라이언트와 서버의 연결이 종료되었을때
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         System.out.println("클라이언트와 연결 종료");
+        OutboundSession out = outbound.remove(session.getId());
+        unsubscribeSeat(session, out);
         // 세션 목록에서 제거 (userId가 세션 속성에 있어야 가능)
         Object userId = session.getAttributes().get("userId");
-        if (userId != null) {
-            int mno = (int) userId;
-            sessions.remove(userId);
-        }// if end
+        if (userId != null && out != null) release((int) userId, out);
     }// func end
 
     // [3] 클라이언트가 서버에게 메시지를 보냈을때
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
-        System.out.println("클라이언트로부터 메시지 수신");
+        OutboundSession out = outbound.get(session.getId());
+        if (out == null) return;
         // 메시지 json 으로 파싱
-        ObjectMapper objectMapper = new ObjectMapper();
-        Map<String , Object> msg = objectMapper.readValue(message.getPayload(),Map.class);
+        In msg;
+        try {
+            msg = inReader.readValue(message.getPayload());
+        } catch (Exception e) {
+            System.out.println("[Socket] 잘못된 프레임 id=" + session.getId() + " | " + e.getMessage());
+            return;
+        }// try end
         // 메시지 타입 확인
-        String type = (String) msg.get("type");
-        if ("login".equals(type)){
-            // 클라이언트가 보낸 userId 가져오기(회원번호)
-            int userId = (int) msg.get("mno");
-            // 세션에 저장
-            session.getAttributes().put("userId" , userId);
-            sessions.put(userId, session);
-            List<String> waitMessage = redisService.getMessage(userId);
-            if (waitMessage != null && !waitMessage.isEmpty()){
-                for (String alamMsg : waitMessage) {
-                    //String jsonMsg = objectMapper.writeValueAsString(Map.of("message",alamMsg));
-                    String alarm = objectMapper.writeValueAsString(Map.of("message",alamMsg));
-                    session.sendMessage(new TextMessage(alarm));
-                    redisService.deleteMessage(userId);
-                }// for end
-            }// if end
+        String type = msg.type();
+        if (SocketFrameDto.LOGIN.equals(type)){
+            login(session, out, msg.token());
+        } else if (SocketFrameDto.SEAT_SUBSCRIBE.equals(type)) {
+            if (msg.gno() != null) subscribeSeat(session, out, msg.gno());
+        } else if (SocketFrameDto.SEAT_UNSUBSCRIBE.equals(type)) {
+            unsubscribeSeat(session, out);
+        } else if (SocketFrameDto.INBOX_ACK.equals(type)) {
+            Object mno = session.getAttributes().get("userId");
+            if (mno != null) notificationInboxService.ack((int) mno, msg.id());
+        } else if (SocketFrameDto.INBOX_HISTORY.equals(type)) {
+            Object mno = session.getAttributes().get("userId");
+            if (mno == null) return;
+            List<Alarm> items = notificationInboxService.history((int) mno, msg.before(), msg.size() == null ? HISTORY_PAGE : msg.size());
+            out.send(new TextMessage(writer.writeValueAsString(new Inbox(SocketFrameDto.INBOX_HISTORY, items))));
         }// if end
     }// func end
 
+    // 로그인: JWT(있으면) 또는 handshake 세션으로 회원 확인 → 세션 등록/토픽 구독 → 알림함을 한 프레임으로 전달
+    private void login(WebSocketSession session, OutboundSession out, String token) throws Exception {
+        Integer mno = null;
+        if (token != null && !token.isBlank()) {
+            if (jwtUtil.validateToken(token)) {
+                Object claim = jwtUtil.getClaim(token, "mno");
+                if (claim instanceof Number n) mno = n.intValue();
+            }
+            if (mno == null) {
+                out.send(new TextMessage(writer.writeValueAsString(LoginAck.fail("invalid token"))));
+                return;
+            }
+        } else if (session.getAttributes().get(LoginHandshakeInterceptor.LOGIN_MNO) instanceof Integer loginMno) {
+            mno = loginMno;
+        }
+        if (mno == null) {
+            out.send(new TextMessage(writer.writeValueAsString(LoginAck.fail("not logged in"))));
+            return;
+        }
+        // 같은 세션이 다른 회원으로 다시 로그인하면 이전 등록 해제
+        Object prev = session.getAttributes().put("userId", mno);
+        if (prev != null && !prev.equals(mno)) release((int) prev, out);
+
+        synchronized (memberLock(mno)) {
+            // 락을 기다리는 사이 연결이 닫혔으면 등록하지 않음 (종료 처리가 이미 끝났으므로 구독이 남게 됨)
+            if (outbound.get(session.getId()) != out) return;
+            sessions.put(mno, out);
+            subscribe(mno);
+        }
+        out.send(new TextMessage(writer.writeValueAsString(LoginAck.ok())));
+
+        // 읽지 않은 알림을 페이지 단위로 끝까지 전달 (읽음 처리는 클라이언트 inbox:ack, 못 받으면 다음 접속 때 다시 전달)
+        // 보관 상한(capacity)을 넘는 반복은 하지 않음 → 그 사이 계속 쌓여도 로그인 처리가 끝남
+        int maxPages = NotificationInboxService.capacity() / NotificationInboxService.MAX_PAGE + 1;
+        String after = null;
+        for (int page = 1; ; page++) {
+            List<Alarm> unread = notificationInboxService.unread(mno, after, NotificationInboxService.MAX_PAGE);
+            boolean more = unread.size() == NotificationInboxService.MAX_PAGE && page < maxPages;
+            if (!out.send(new TextMessage(writer.writeValueAsString(new Inbox(SocketFrameDto.INBOX, unread, more))))) return;
+            if (!more) return;
+            after = unread.get(unread.size() - 1).id();
+        }// for end
+    }// func end
+
+    /**
+     * 이 노드에 접속한 세션으로 전송
+     *
+     * @param mno 회원번호
+     * @param json 전송할 JSON
+     * @return 전송했으면 true (미접속/전송 실패 false)
+     */
+    public boolean sendLocal(int mno, String json){
+        OutboundSession out = sessions.get(mno);
+        return out != null && out.send(new TextMessage(json));
+    }// func end
+
+    /**
+     * 회원 토픽 발행 (다른 노드에 접속한 경우)
+     *
+     * @param mno 회원번호
+     * @param json 전송할 JSON
+     * @return 메시지를 받은 구독자(노드) 수, 0 이면 어디에도 접속하지 않음
+     */
+    public long publish(int mno, String json){
+        return topic(mno).publish(json);
+    }// func end
+
     /**
-     * 접속자 명단 상세 조회
+     * 경기 좌석 구독 세션 전체에 델타 프레임 전송 (이 노드에 접속한 세션만)
      *
-     * @param mno
-     * @return WebSocketSession
+     * @param gno 경기번호
+     * @param frame SeatDeltaService 프레임
      */
-    public WebSocketSession getSession(int mno){
-        return sessions.get(mno);
+    public void broadcastSeat(int gno, byte[] frame){
+        Set<OutboundSession> viewers = seatViewers.get(gno);
+        if (viewers == null || viewers.isEmpty()) return;
+        BinaryMessage message = new BinaryMessage(frame);
+        String key = "seat:" + gno;
+        for (OutboundSession out : viewers) {
+            if (!out.isOpen()) { viewers.remove(out); continue; }
+            if (out.sendCoalesced(key, message, BaseballSocketHandler::mergeSeatFrames)) coalesced.increment();
+        }// for end
+    }// func end
+
+    // 밀려서 보류된 좌석 델타를 앞선 전송이 끝나는 대로 내보냄
+    @Scheduled(fixedDelay = 100)
+    public void drainPending() {
+        for (Set<OutboundSession> viewers : seatViewers.values()) {
+            for (OutboundSession out : viewers) {
+                if (out.hasPending()) out.drain();
+            }
+        }// for end
+    }// func end
+
+    private static WebSocketMessage<?> mergeSeatFrames(WebSocketMessage<?> older, WebSocketMessage<?> newer) {
+        return new BinaryMessage(SeatDeltaService.mergeFrames(
+                ((BinaryMessage) older).getPayload().array(), ((BinaryMessage) newer).getPayload().array()));
+    }
+
+    // 세션당 경기 1개: 이전 구독은 해제 후 등록
+    private void subscribeSeat(WebSocketSession session, OutboundSession out, int gno){
+        unsubscribeSeat(session, out);
+        session.getAttributes().put("seatGno", gno);
+        seatViewers.compute(gno, (k, set) -> {
+            if (set == null) set = ConcurrentHashMap.newKeySet();
+            set.add(out);
+            return set;
+        });
+    }// func end
+
+    private void unsubscribeSeat(WebSocketSession session, OutboundSession out){
+        Object gno = session.getAttributes().remove("seatGno");
+        if (gno == null || out == null) return;
+        seatViewers.computeIfPresent((int) gno, (k, set) -> {
+            set.remove(out);
+            return set.isEmpty() ? null : set;
+        });
+    }// func end
+
+    private Object memberLock(int mno){
+        return memberLocks[Math.floorMod(mno, memberLocks.length)];
+    }
+
+    // 세션 등록 해제: 아직 이 세션이 회원의 현재 세션일 때만 (새 세션으로 재접속했으면 구독 유지)
+    private void release(int mno, OutboundSession out){
+        synchronized (memberLock(mno)) {
+            if (sessions.remove(mno, out)) unsubscribe(mno);
+        }
+    }// func end
+
+    private RTopic topic(int mno){
+        return redissonClient.getTopic(RedisKeys.topicMember(mno), StringCodec.INSTANCE);
+    }
+
+    // 로그인한 회원 토픽 구독: 수신 시 로컬 세션으로 (그 사이 끊겼어도 알림함에 저장돼 있어 다음 접속 때 전달)
+    // subscribe/unsubscribe 는 memberLock(mno) 안에서만 호출
+    private void subscribe(int mno){
+        listeners.computeIfAbsent(mno, k -> topic(mno).addListener(String.class, (channel, json) -> sendLocal(mno, json)));
+    }// func end
+
+    private void unsubscribe(int mno){
+        Integer id = listeners.remove(mno);
+        if (id != null) topic(mno).removeListener(id);
     }// func end
 
 }// class end
@@ -0,0 +1,105 @@
+package phoenix.handler; // 패키지명
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * 세션별 송신 버퍼
+ * <p>
+ * - ConcurrentWebSocketSessionDecorator 로 감싸 여러 스레드가 동시에 보내도 안전,
+ *   느린 클라이언트가 있어도 보내는 스레드는 버퍼에 넣고 바로 돌아감
+ * - 버퍼 크기/전송 시간 한도 초과 시 세션 종료 (SESSION_NOT_RELIABLE) → onSlow 호출
+ * - sendCoalesced: 앞선 전송이 밀려 있으면 같은 key 의 메시지를 merge 로 합쳐 두었다가 한 번에 전송
+ */
+class OutboundSession { // class start
+
+    private final ConcurrentWebSocketSessionDecorator session;
+    private final Runnable onSlow;
+    private final Map<String, WebSocketMessage<?>> pending = new LinkedHashMap<>();
+
+    OutboundSession(WebSocketSession raw, int sendTimeLimitMs, int bufferSizeLimit, Runnable onSlow) {
+        this.session = new ConcurrentWebSocketSessionDecorator(raw, sendTimeLimitMs, bufferSizeLimit,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.TERMINATE);
+        this.onSlow = onSlow;
+    }
+
+    String getId() { return session.getId(); }
+
+    boolean isOpen() { return session.isOpen(); }
+
+    /** 버퍼에 쌓인 바이트 수 */
+    int getBufferSize() { return session.getBufferSize(); }
+
+    /**
+     * 바로 전송 (버퍼에 넣음)
+     *
+     * @return 전송했으면 true, 세션이 닫혔거나 한도 초과로 종료했으면 false
+     */
+    boolean send(WebSocketMessage<?> message) {
+        if (!session.isOpen()) return false;
+        try {
+            session.sendMessage(message);
+            return true;
+        } catch (SessionLimitExceededException e) {
+            System.out.println("[Socket] 느린 클라이언트 종료 id=" + getId() + " | " + e.getMessage());
+            onSlow.run();
+            try { session.close(CloseStatus.SESSION_NOT_RELIABLE); } catch (Exception ignore) {}
+            return false;
+        } catch (Exception e) {
+            System.out.println("[Socket] 전송 실패 id=" + getId() + " | " + e.getMessage());
+            return false;
+        }// try end
+    }// func end
+
+    /**
+     * 같은 key 끼리 합쳐 전송 (밀려 있으면 보류, 다음 전송/drain 때 합친 결과 1건 전송)
+     *
+     * @param key 합칠 단위 (예: seat:{gno})
+     * @param message 보낼 메시지
+     * @param merge (이전, 새것) → 합친 메시지
+     * @return 보류 중이던 메시지와 합쳐졌으면 true
+     */
+    boolean sendCoalesced(String key, WebSocketMessage<?> message, BinaryOperator<WebSocketMessage<?>> merge) {
+        boolean merged;
+        synchronized (pending) {
+            merged = pending.containsKey(key);
+            pending.merge(key, message, merge);
+        }
+        drain();
+        return merged;
+    }// func end
+
+    /** 앞선 전송이 끝났으면 보류 중인 메시지 전송 */
+    void drain() {
+        if (busy()) return;
+        List<WebSocketMessage<?>> out;
+        synchronized (pending) {
+            if (pending.isEmpty()) return;
+            out = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (WebSocketMessage<?> m : out) {
+            if (!send(m)) return;
+        }
+    }// func end
+
+    boolean hasPending() {
+        synchronized (pending) {
+            return !pending.isEmpty();
+        }
+    }// func end
+
+    // 버퍼에 남은 메시지가 있거나 다른 스레드가 전송 중
+    private boolean busy() {
+        return session.getBufferSize() > 0 || session.getTimeSinceSendStarted() > 0;
+    }
+}// class end
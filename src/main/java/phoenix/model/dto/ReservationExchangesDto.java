@@ -18,4 +18,5 @@ public class ReservationExchangesDto {
     private int from_mno;           // 요청자 회원번호
     private int fromSeat;           // 요청자 좌석번호
     private int toSno;             // 응답자 좌석번호
+    private String idem_key;        // 멱등키 (요청 접수 시 발급, 교환 이력에 unique)
 }//func end
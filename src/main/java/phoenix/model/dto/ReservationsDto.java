@@ -21,4 +21,6 @@ public class ReservationsDto {
 
     // NEW: 예매 채널 (general | senior)
     private String channel;
+
+    private int version;        // 낙관적 검증용 버전 (좌석 변경/취소마다 +1)
 }//func end
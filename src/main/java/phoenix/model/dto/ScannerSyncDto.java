@@ -0,0 +1,41 @@
+package phoenix.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 오프라인 게이트 스캐너 동기화 DTO
+ */
+public class ScannerSyncDto {
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class ScanItem {
+        private String uuid;        // 티켓 UUID
+        private long scannedAt;     // 스캐너 기준 스캔 시각(epoch ms)
+    }
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class ScanUploadReq {
+        private String deviceId;        // 스캐너 식별자 (충돌 시 동률 판정용)
+        private List<ScanItem> scans;   // 오프라인 동안 쌓인 스캔 (재전송 가능)
+    }
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class ScanResult {
+        private String uuid;
+        private String status;          // ACCEPTED | REJECTED | UNKNOWN | WRONG_GAME | INVALID
+        private String winnerDevice;    // 최종 인정된 스캔의 스캐너 (있으면)
+        private Long winnerScannedAt;   // 최종 인정된 스캔 시각 (있으면)
+    }
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class DeltaRes {
+        private int gno;
+        private long epoch;             // 적재 회차 (스냅샷의 epoch 와 다르면 resync)
+        private long version;           // 이 응답까지 반영된 버전 (다음 요청의 since)
+        private boolean resync;         // true 면 스냅샷부터 다시 받아야 함
+        private List<String> added;     // 유효 목록에 추가된 UUID
+        private List<String> removed;   // 사용/취소되어 빠진 UUID
+    }
+}
@@ -0,0 +1,54 @@
+package phoenix.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * 알림 웹소켓(/socket) 텍스트 프레임
+ * <p>
+ * 수신: {"type":"login","token"?:JWT} / {"type":"seat:subscribe","gno":N} / {"type":"seat:unsubscribe"}
+ *       (token 이 없으면 handshake 때 HTTP 세션으로 확인한 회원으로 로그인)
+ *       {"type":"inbox:ack","id":알림id} / {"type":"inbox:history","before"?:알림id,"size"?:N}
+ * 송신: 알림 {"id","type"?,"message","at"} / 로그인 결과 {"type":"login","ok","reason"?}
+ *       미확인 알림 {"type":"inbox","items":[알림...],"more"} (more=false 인 프레임까지 이어서 전송, 없으면 빈 items)
+ *       이력 {"type":"inbox:history","items":[알림+read...]}
+ * - 좌석 델타는 binary 프레임 (SeatDeltaService)
+ */
+public class SocketFrameDto {
+
+    public static final String LOGIN = "login";
+    public static final String SEAT_SUBSCRIBE = "seat:subscribe";
+    public static final String SEAT_UNSUBSCRIBE = "seat:unsubscribe";
+    public static final String INBOX = "inbox";
+    public static final String INBOX_ACK = "inbox:ack";
+    public static final String INBOX_HISTORY = "inbox:history";
+
+    /** 클라이언트 → 서버 (모르는 필드는 무시) */
+    public record In(String type, String token, Integer gno, String id, String before, Integer size) {}
+
+    /**
+     * 알림 1건 (null 필드는 생략)
+     * - id: 알림함(stream) 엔트리 id, 읽음 처리에 사용
+     * - at: 저장 시각 (epoch ms)
+     * - read: 이력 조회에서만 채움
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Alarm(String id, String type, String message, Long at, Boolean read) {}
+
+    /** 로그인 처리 결과 */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record LoginAck(String type, boolean ok, String reason) {
+        public static LoginAck ok() { return new LoginAck(LOGIN, true, null); }
+        public static LoginAck fail(String reason) { return new LoginAck(LOGIN, false, reason); }
+    }
+
+    /**
+     * 알림 목록 프레임 (inbox: 미확인 오래된 순 / inbox:history: 최신 순 페이지)
+     * - more: inbox 에서만 채움, true 면 다음 미확인 페이지가 이어서 옴
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Inbox(String type, List<Alarm> items, Boolean more) {
+        public Inbox(String type, List<Alarm> items) { this(type, items, null); }
+    }
+}
@@ -0,0 +1,39 @@
+package phoenix.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 회원 티켓 지갑 (Redis wallet:{mno} 에 JSON 으로 저장되는 예매/티켓 투영)
+ */
+public class WalletDto {
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class Wallet {
+        private int mno;
+        private long builtAt;           // 생성 시각(epoch ms)
+        private List<Entry> entries;    // 예매번호 내림차순
+    }
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class Entry {
+        private ReservationsDto reservation;
+        private GameDto game;
+        private String zoneName;        // 구역 이름 (seats CSV)
+        private String seatName;        // 좌석 이름 (seats CSV)
+        private List<Ticket> tickets;   // 발급 전이면 빈 목록
+    }
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+    public static class Ticket {
+        private int tno;
+        private int rno;
+        private int gno;
+        private String ticket_code;     // QR 이미지 경로
+        private String ticket_uuid;
+        private String issued_at;
+        private boolean valid;
+        private int price;
+    }
+}
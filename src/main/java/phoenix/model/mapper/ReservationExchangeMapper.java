@@ -2,6 +2,7 @@ package phoenix.model.mapper;
 
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
 import phoenix.model.dto.ReservationExchangesDto;
 
 @Mapper
@@ -13,7 +14,17 @@ public interface ReservationExchangeMapper {
      * @param dto 교환데이터
      * @return true : 성공 , false : 실패
      */
-    @Insert("insert into reservation_exchanges(from_rno , to_rno , status , requested_at , responded_at)" +
-            " values(#{from_rno},#{to_rno},#{status},#{requested_at},#{responded_at})")
+    @Insert("insert into reservation_exchanges(from_rno , to_rno , status , requested_at , responded_at , idem_key)" +
+            " values(#{from_rno},#{to_rno},#{status},#{requested_at},#{responded_at},#{idem_key})")
     boolean changeAdd(ReservationExchangesDto dto);
+
+    /**
+     * 멱등키로 처리된 교환 조회 (수락 재시도 판별)
+     *
+     * @param idem_key 멱등키
+     * @return 교환 이력 , 없으면 null
+     */
+    @Select("select exno, from_rno, to_rno, status, requested_at, responded_at, idem_key" +
+            " from reservation_exchanges where idem_key = #{idem_key}")
+    ReservationExchangesDto findByIdemKey(String idem_key);
 }//inter end
@@ -1,13 +1,16 @@
 package phoenix.model.mapper;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import phoenix.model.dto.ReservationsDto;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface ReservationMapper {
@@ -38,7 +41,7 @@ public interface ReservationMapper {
      * @param mno
      * @return boolean
      */
-    @Update("update reservations set sno = #{sno} where rno = #{rno} and mno = #{mno}")
+    @Update("update reservations set sno = #{sno}, version = version + 1 where rno = #{rno} and mno = #{mno}")
     public boolean reserveUpdate(int sno , int rno , int mno);
 
     /**
@@ -48,18 +51,104 @@ public interface ReservationMapper {
      * @param mno
      * @return boolean
      */
-    @Update("update reservations set status = 'cancelled' where rno = #{rno} and mno = #{mno} ")
+    @Update("update reservations set status = 'cancelled', version = version + 1 where rno = #{rno} and mno = #{mno} ")
     public boolean reserveCancel(int rno , int mno);
 
     /**
-     * 교환신청 가능한 좌석목록 예매정보
+     * 순환 교환 대상 예매 잠금 (rno 순서로 잠가 교착 방지)
+     *
+     * @param rnos
+     * @return List<ReservationsDto> (zno 포함)
+     */
+    @Select("""
+        <script>
+        select r.*, s.zno from reservations r inner join seats s on r.sno = s.sno
+        where r.rno in <foreach collection="rnos" item="rno" open="(" separator="," close=")">#{rno}</foreach>
+        order by r.rno for update
+        </script>
+        """)
+    List<ReservationsDto> lockForExchange(@Param("rnos") List<Integer> rnos);
+
+    /**
+     * 두 예매 좌석 맞교환 (한 문장)
+     * - 잠금 시점의 좌석/버전과 같고 예매중인 경우만 변경, 두 행 모두 바뀌어야 성공
+     *
+     * @return 변경된 행 수 (2 가 아니면 충돌)
+     */
+    @Update("""
+        update reservations
+        set sno = case rno when #{fromRno} then #{toSno} else #{fromSno} end, version = version + 1
+        where status = 'reserved'
+          and ((rno = #{fromRno} and sno = #{fromSno} and version = #{fromVersion})
+            or (rno = #{toRno} and sno = #{toSno} and version = #{toVersion}))
+        """)
+    int swapSeats(@Param("fromRno") int fromRno, @Param("fromSno") int fromSno, @Param("fromVersion") int fromVersion,
+                  @Param("toRno") int toRno, @Param("toSno") int toSno, @Param("toVersion") int toVersion);
+
+    /**
+     * 회원 지갑 생성용 예매 + 티켓 조회 (한 번의 조인)
+     *
+     * @param mno
+     * @return List<Map<String,Object>>
+     */
+    @Select(" select r.rno, r.mno, r.sno, r.gno, r.reserved_at, r.status, r.channel, s.zno, " +
+            " t.tno, t.ticket_code, t.ticket_uuid, DATE_FORMAT(t.issued_at, '%Y-%m-%d %H:%i:%s') AS issued_at, t.valid, t.price " +
+            " from reservations r inner join seats s on r.sno = s.sno left join tickets t on t.rno = r.rno " +
+            " where r.mno = #{mno} order by r.rno desc, t.tno")
+    List<Map<String,Object>> walletRows(int mno);
+
+    /**
+     * 경기 예매 회원 목록 (지갑 무효화용)
+     *
+     * @param gno
+     * @return List<Integer>
+     */
+    @Select("select distinct mno from reservations where gno = #{gno}")
+    List<Integer> findMnosByGno(int gno);
+
+    /**
+     * 교환 후보 색인 생성용: 경기·구역의 교환 가능 예매 (예매중, 교환 허용 회원, 일반석)
+     *
+     * @param gno
+     * @param zno
+     * @return List<Map<String,Object>> (zno, eligible 포함)
+     */
+    @Select(" select r.rno, r.mno, r.sno, r.gno, DATE_FORMAT(r.reserved_at, '%Y-%m-%d %H:%i:%s') AS reserved_at, r.status, r.channel, s.zno, 1 AS eligible " +
+            " from reservations r inner join seats s on r.sno = s.sno inner join members m on r.mno = m.mno " +
+            " where r.gno = #{gno} and s.zno = #{zno} and r.status = 'reserved' and m.exchange = true and s.senior = 0")
+    List<Map<String,Object>> exchangeIndexRows(@Param("gno") int gno, @Param("zno") int zno);
+
+    /**
+     * 교환 후보 색인 갱신용: 예매별 현재 구역과 교환 가능 여부
+     *
+     * @param rnos
+     * @return List<Map<String,Object>> (zno, eligible 포함)
+     */
+    @Select("""
+        <script>
+        select r.rno, r.mno, r.sno, r.gno, DATE_FORMAT(r.reserved_at, '%Y-%m-%d %H:%i:%s') AS reserved_at, r.status, r.channel, s.zno,
+               (r.status = 'reserved' and m.exchange = true and s.senior = 0) AS eligible
+        from reservations r inner join seats s on r.sno = s.sno inner join members m on r.mno = m.mno
+        where r.rno in <foreach collection="rnos" item="rno" open="(" separator="," close=")">#{rno}</foreach>
+        </script>
+        """)
+    List<Map<String,Object>> exchangeIndexState(@Param("rnos") Collection<Integer> rnos);
+
+    /**
+     * 교환 후보 조회 기준 예매 (경기·구역)
      *
      * @param rno
-     * @return List<ReservationsDto>
+     * @return ReservationsDto (zno 포함)
+     */
+    @Select("select r.*, s.zno from reservations r inner join seats s on r.sno = s.sno where r.rno = #{rno}")
+    ReservationsDto exchangeOrigin(int rno);
+
+    /**
+     * 회원의 예매중 예매번호 (교환 허용 설정 변경 시 색인 갱신용)
+     *
+     * @param mno
+     * @return List<Integer>
      */
-    @Select("select r.* from reservations r inner join seats s on r.sno = s.sno inner join members m on r.mno = m.mno " +
-            " where r.gno = (select gno from reservations where rno = #{rno}) and " +
-            " s.zno = (select s2.zno from reservations r2 inner join seats s2 on r2.sno = s2.sno where r2.rno = #{rno})\n" +
-            "  and r.status = 'reserved' and r.rno != #{rno} and r.mno != #{mno} and m.exchange = true and s.senior = 0  ")
-    List<ReservationsDto> seatPossible(int rno,int mno);
+    @Select("select rno from reservations where mno = #{mno} and status = 'reserved'")
+    List<Integer> findReservedRnosByMno(int mno);
 }//inter end
@@ -0,0 +1,91 @@
+package phoenix.model.mapper;
+
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * 티켓 발급 대기열 (ticket_issue_queue)
+ * - 예매 확정 트랜잭션에서 rno만 적재 → 워커가 배치로 꺼내 티켓 발급
+ * - 여러 서버가 동시에 돌아도 claim_token으로 자기 몫만 가져감
+ */
+@Mapper
+public interface TicketIssueQueueMapper {
+
+    /**
+     * 발급 대기열 적재 (예매 확정과 같은 트랜잭션)
+     * - rno UNIQUE → 중복 적재 무시
+     *
+     * @param rnos 예매번호 목록
+     */
+    @Insert("""
+        <script>
+        INSERT IGNORE INTO ticket_issue_queue (rno) VALUES
+        <foreach collection="rnos" item="rno" separator=",">(#{rno})</foreach>
+        </script>
+        """)
+    int enqueue(@Param("rnos") List<Integer> rnos);
+
+    /**
+     * 대기 건 선점
+     * - pending 이거나, processing 상태로 staleSec 초 이상 멈춘 건(워커 중단)을 다시 가져감
+     *
+     * @param token 이번 선점 식별자
+     * @param limit 최대 건수
+     * @param staleSec 재선점 기준(초)
+     */
+    @Update("""
+        UPDATE ticket_issue_queue
+        SET status = 'processing', claim_token = #{token}, claimed_at = NOW(), attempts = attempts + 1
+        WHERE status = 'pending'
+           OR (status = 'processing' AND claimed_at < NOW() - INTERVAL #{staleSec} SECOND)
+        ORDER BY qno
+        LIMIT #{limit}
+        """)
+    int claim(@Param("token") String token, @Param("limit") int limit, @Param("staleSec") int staleSec);
+
+    @Select("SELECT rno FROM ticket_issue_queue WHERE claim_token = #{token} AND status = 'processing'")
+    List<Integer> findClaimed(@Param("token") String token);
+
+    /**
+     * 처리 완료 (발급/건너뜀 모두)
+     * - 자기 선점(token)인 행만 → 재선점된 배치를 늦게 끝난 워커가 완료 처리하지 않음
+     *
+     * @param token 선점 식별자
+     */
+    @Update("""
+        UPDATE ticket_issue_queue SET status = 'done', claim_token = NULL
+        WHERE claim_token = #{token} AND status = 'processing'
+        """)
+    int markDone(@Param("token") String token);
+
+    /**
+     * 처리 실패 → 다시 대기 (maxAttempts 도달 시 failed)
+     *
+     * @param token 선점 식별자
+     * @param maxAttempts 최대 시도 횟수
+     */
+    @Update("""
+        UPDATE ticket_issue_queue
+        SET status = IF(attempts >= #{maxAttempts}, 'failed', 'pending'), claim_token = NULL
+        WHERE claim_token = #{token} AND status = 'processing'
+        """)
+    int release(@Param("token") String token, @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * 예매 취소 시 대기열 정리 (취소 트랜잭션과 같이 커밋)
+     * - 아직 발급 전(pending/processing/failed)인 행을 done 으로 → 재선점/재시도 대상에서 빠짐
+     * - 이미 선점한 워커는 markDone 에서 자기 행을 못 찾음 (발급은 issueBatch 상태 검사로 건너뜀)
+     *
+     * @param rno 예매번호
+     */
+    @Update("""
+        UPDATE ticket_issue_queue SET status = 'done', claim_token = NULL
+        WHERE rno = #{rno} AND status <> 'done'
+        """)
+    int cancel(@Param("rno") int rno);
+
+    /** 완료 건 정리 */
+    @Delete("DELETE FROM ticket_issue_queue WHERE status = 'done' AND claimed_at < NOW() - INTERVAL 1 DAY LIMIT #{limit}")
+    int purgeDone(@Param("limit") int limit);
+}
@@ -1,8 +1,11 @@
 package phoenix.model.mapper;
 
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 import phoenix.model.dto.TicketsDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -19,7 +22,7 @@ public interface TicketsMapper {
 
     /**
      * 티켓 발급
-     * - ticket_code에는 생성된 QR 이미지 경로가 저장됨
+     * - ticket_code에는 QR 이미지 엔드포인트 경로(/tickets/qr-image/{uuid})가 저장됨
      *
      * @param dto 티켓 정보 DTO
      */
@@ -27,6 +30,57 @@ public interface TicketsMapper {
             " VALUES (#{rno}, #{ticket_code}, #{valid}, #{price},#{ticket_uuid})")
     int ticketWrite(TicketsDto dto);
 
+    /**
+     * 티켓 일괄 발급 (발급 워커 전용)
+     * - rno UNIQUE → 이미 발급된 예매는 무시 (워커 재선점과 겹쳐도 예매당 1장)
+     *
+     * @param list 발급할 티켓 목록
+     * @return 실제 저장된 행 수
+     */
+    @Insert("""
+        <script>
+        INSERT IGNORE INTO tickets (rno, ticket_code, valid, price, ticket_uuid) VALUES
+        <foreach collection="list" item="t" separator=",">
+          (#{t.rno}, #{t.ticket_code}, #{t.valid}, #{t.price}, #{t.ticket_uuid})
+        </foreach>
+        </script>
+        """)
+    int ticketWriteBatch(@Param("list") List<TicketsDto> list);
+
+    /**
+     * 발급 대상 일괄 조회 (예약상태, 회원, 구역가격, 기존 티켓 여부)
+     * - 예매 행 공유 잠금(FOR SHARE): 발급 트랜잭션과 예매 취소가 겹치면 한쪽이 끝날 때까지 대기
+     *   → 취소가 먼저면 cancelled 로 보여 건너뛰고, 발급이 먼저면 취소가 발급된 티켓을 무효화
+     *
+     * @param rnos 예매번호 목록
+     */
+    @Select("""
+        <script>
+        SELECT r.rno, r.mno, r.gno, s.zno, r.status AS reservation_status, z.price, t.tno
+        FROM reservations r
+        JOIN seats s ON s.sno = r.sno
+        JOIN zones z ON z.zno = s.zno
+        LEFT JOIN tickets t ON t.rno = r.rno
+        WHERE r.rno IN <foreach collection="rnos" item="rno" open="(" separator="," close=")">#{rno}</foreach>
+        FOR SHARE OF r
+        </script>
+        """)
+    List<Map<String, Object>> findIssueTargets(@Param("rnos") List<Integer> rnos);
+
+    /**
+     * 예매별 저장된 티켓 UUID (일괄 발급 후 실제 저장분 확인)
+     *
+     * @param rnos 예매번호 목록
+     * @return rno, ticket_uuid
+     */
+    @Select("""
+        <script>
+        SELECT rno, ticket_uuid FROM tickets
+        WHERE rno IN <foreach collection="rnos" item="rno" open="(" separator="," close=")">#{rno}</foreach>
+        </script>
+        """)
+    List<Map<String, Object>> findTicketUuidsByRnos(@Param("rnos") List<Integer> rnos);
+
     /**
      * 예매번호(rno)에 해당하는 티켓 및 예약 상세 조회
      *
@@ -53,15 +107,47 @@ public interface TicketsMapper {
     boolean ticketCancel(int rno);
 
     /**
-     * 지난 경기 티켓 무효화 처리
+     * 티켓 UUID 소유 회원 (스캔 반영 후 지갑 무효화용)
+     *
+     * @param uuids 티켓 UUID 목록
+     */
+    @Select("""
+        <script>
+        SELECT DISTINCT r.mno FROM tickets t JOIN reservations r ON r.rno = t.rno
+        WHERE t.ticket_uuid IN <foreach collection="uuids" item="u" open="(" separator="," close=")">#{u}</foreach>
+        </script>
+        """)
+    List<Integer> findMnosByUuids(@Param("uuids") List<String> uuids);
+
+    /**
+     * 지난 경기 만료 대상 (keyset) — 경기의 유효 티켓 tno 를 오름차순으로 limit 건
+     *
+     * @param gno 경기번호
+     * @param afterTno 직전 청크 마지막 tno
+     * @param limit 청크 크기
+     */
+    @Select(" SELECT t.tno FROM tickets t JOIN reservations r ON r.rno = t.rno " +
+            " WHERE r.gno = #{gno} AND t.valid = 1 AND t.tno > #{afterTno} ORDER BY t.tno LIMIT #{limit}")
+    List<Integer> findValidTnosByGno(@Param("gno") int gno, @Param("afterTno") int afterTno, @Param("limit") int limit);
+
+    /**
+     * 유효 티켓이 남아 있는 경기번호 (만료 배치의 전체 점검용)
+     * - idx_tickets_valid_tno 의 valid=1 구간 + 예매 PK 조인
+     */
+    @Select(" SELECT DISTINCT r.gno FROM tickets t JOIN reservations r ON r.rno = t.rno WHERE t.valid = 1 ")
+    List<Integer> findGnosWithValidTickets();
+
+    /**
+     * 지난 경기 티켓 무효화 (PK 범위 청크)
      * - 유효(valid=1) 상태의 티켓을 무효(valid=0)로 변경
      *
-     * @param gnoList 경기번호 목록
+     * @param gno 경기번호
+     * @param fromTno 청크 시작 tno (포함)
+     * @param toTno 청크 끝 tno (포함)
      */
-    @Update(" UPDATE tickets t JOIN reservations r ON r.rno = t.rno " +
-            " SET t.valid = 0 WHERE r.gno IN (${gnoList}) " +
-            " AND (t.valid = 1)")
-    int formerGame(@Param("gnoList") String gnoList);
+    @Update(" UPDATE tickets t JOIN reservations r ON r.rno = t.rno SET t.valid = 0 " +
+            " WHERE r.gno = #{gno} AND t.tno BETWEEN #{fromTno} AND #{toTno} AND t.valid = 1")
+    int expireTnoRange(@Param("gno") int gno, @Param("fromTno") int fromTno, @Param("toTno") int toTno);
 
 
     /**
@@ -83,6 +169,68 @@ public interface TicketsMapper {
     @Select("SELECT t.ticket_uuid, t.valid FROM tickets t WHERE ticket_uuid=#{uuid}")
     Map<String, Object> qrScan(@Param("uuid") String uuid);
 
+    /**
+     * 입장 스캔 적재용: 경기의 유효 티켓 UUID + 구역번호
+     *
+     * @param gno 경기번호
+     */
+    @Select(" SELECT t.ticket_uuid, s.zno FROM tickets t JOIN reservations r ON r.rno = t.rno JOIN seats s ON s.sno = r.sno " +
+            " WHERE r.gno = #{gno} AND t.valid = 1")
+    List<Map<String, Object>> findValidUuidsByGno(@Param("gno") int gno);
+
+    /**
+     * 입장 스캔 적재 해제용: 경기의 전체 티켓 UUID 목록
+     *
+     * @param gno 경기번호
+     */
+    @Select("SELECT t.ticket_uuid FROM tickets t JOIN reservations r ON r.rno = t.rno WHERE r.gno = #{gno}")
+    List<String> findUuidsByGno(@Param("gno") int gno);
+
+    /**
+     * 입장 스캔 DB 경로: UUID의 유효상태 + 경기번호 + 구역번호
+     *
+     * @param uuid 티켓 UUID
+     */
+    @Select(" SELECT t.valid, r.gno, s.zno FROM tickets t JOIN reservations r ON r.rno = t.rno JOIN seats s ON s.sno = r.sno " +
+            " WHERE t.ticket_uuid = #{uuid}")
+    Map<String, Object> findScanTarget(@Param("uuid") String uuid);
+
+    /**
+     * 예매번호로 티켓 UUID + 경기번호 조회 (취소 시 스캔 세트 반영)
+     *
+     * @param rno 예매 고유번호
+     */
+    @Select("SELECT t.ticket_uuid, r.gno FROM tickets t JOIN reservations r ON r.rno = t.rno WHERE t.rno = #{rno}")
+    List<Map<String, Object>> findUuidGnoByRno(@Param("rno") int rno);
+
+    /**
+     * 입장 스캔 결과 일괄 DB 반영 (valid=1 → 0)
+     *
+     * @param uuids 사용 처리된 티켓 UUID 목록
+     */
+    @Update("""
+        <script>
+        UPDATE tickets SET valid = 0
+        WHERE valid = 1 AND ticket_uuid IN
+        <foreach collection="uuids" item="u" open="(" separator="," close=")">#{u}</foreach>
+        </script>
+        """)
+    int qrScanBatchUpdate(@Param("uuids") List<String> uuids);
+
+    /**
+     * QR 이미지 요청/일괄 렌더링 전 존재 + 소유자 확인 (ticket_uuid UNIQUE 인덱스 + 예매 PK 조인)
+     *
+     * @param uuids 티켓 UUID 목록
+     * @return 존재하는 티켓의 ticket_uuid, mno
+     */
+    @Select("""
+        <script>
+        SELECT t.ticket_uuid, r.mno FROM tickets t JOIN reservations r ON r.rno = t.rno
+        WHERE t.ticket_uuid IN <foreach collection="uuids" item="u" open="(" separator="," close=")">#{u}</foreach>
+        </script>
+        """)
+    List<Map<String, Object>> findOwnersByUuids(@Param("uuids") List<String> uuids);
+
     /**
      * QR 스캔 후 유효 상태 변경
      * - valid=1 → valid=0 으로 변경 (1회 사용)
@@ -92,26 +240,77 @@ public interface TicketsMapper {
     @Update("UPDATE tickets SET valid=0 WHERE ticket_uuid=#{uuid} and valid=1")
     int qrScanInfoUpdate(@Param("uuid") String uuid);
 
+    // 관리자 QR 사용 이력 공통 SELECT/필터 (페이지 조회 + 스트리밍 내보내기)
+    String SCAN_LOG_SELECT =
+            " SELECT t.tno, r.gno, m.mname AS mname, m.mphone AS mphone, z.zname AS zname, s.seatName AS seat_no, " +
+            " CONCAT(z.zname, ' ', s.seatName) AS seat_label, z.price AS seat_price, " +
+            " r.status AS reservation_status, t.valid AS valid, DATE_FORMAT(t.issued_at, '%Y-%m-%d %H:%i:%s') AS issued_at " +
+            " FROM tickets t JOIN reservations r ON r.rno = t.rno " +
+            " JOIN members m ON r.mno = m.mno JOIN seats s ON r.sno = s.sno JOIN zones z ON s.zno = z.zno ";
+    String SCAN_LOG_WHERE =
+            " <where>" +
+            "  <if test='gno != null'> AND r.gno = #{gno} </if>" +
+            "  <if test='valid != null'> AND t.valid = #{valid} </if>" +
+            "  <if test='from != null'> AND t.issued_at &gt;= #{from} </if>" +
+            "  <if test='to != null'> AND t.issued_at &lt; #{to} </if>" +
+            "  <if test='cursor != null'> AND t.tno &lt; #{cursor} </if>" +
+            " </where>" +
+            " ORDER BY t.tno DESC ";
+
+    /**
+     * 관리자 페이지용 QR 사용 이력 (keyset 페이지)
+     * - tno 내림차순, cursor(직전 페이지 마지막 tno) 보다 작은 것부터 limit 건
+     * - OFFSET 없이 PK 범위로 이어서 읽으므로 뒤 페이지도 비용 일정
+     *
+     * @param gno 경기번호 (null=전체)
+     * @param valid 유효상태 (null=전체)
+     * @param from 발급일시 시작(포함, null=제한없음)
+     * @param to 발급일시 끝(미포함, null=제한없음)
+     * @param cursor 직전 페이지 마지막 tno (null=처음)
+     * @param limit 최대 건수
+     */
+    @Select("<script>" + SCAN_LOG_SELECT + SCAN_LOG_WHERE + " LIMIT #{limit} </script>")
+    List<Map<String, Object>> adminScanLogPage(@Param("gno") Integer gno, @Param("valid") Boolean valid,
+                                               @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                               @Param("cursor") Integer cursor, @Param("limit") int limit);
+
+    /**
+     * 관리자 QR 사용 이력 스트리밍 (CSV 내보내기)
+     * - MySQL 행 단위 스트리밍(fetchSize=Integer.MIN_VALUE) → 전체 건수와 무관하게 일정한 메모리
+     * - 반드시 트랜잭션(열린 세션) 안에서 순회해야 함
+     */
+    @Select("<script>" + SCAN_LOG_SELECT + SCAN_LOG_WHERE + "</script>")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Map<String, Object>> adminScanLogCursor(@Param("gno") Integer gno, @Param("valid") Boolean valid,
+                                                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                                   @Param("cursor") Integer cursor);
+
     /**
-     * 관리자 페이지용 QR 사용 이력 전체 조회
-     * - 모든 티켓 목록을 회원 정보(이름, 연락처) 포함으로 조회
+     * 삭제 대상 QR 이미지 조회 (keyset)
+     * - 경기의 기존 /upload/ 이미지 파일이 남아 있는 티켓만 (정리된 행은 ticket_code 가 바뀌어 제외)
      *
+     * @param gno 경기번호
+     * @param afterTno 직전 청크 마지막 tno
+     * @param limit 청크 크기
      */
-    @Select("SELECT m.mname AS mname, m.mphone AS mphone, z.zname AS zname, s.seatName AS seat_no, "+
-            " CONCAT(z.zname, ' ', s.seatName) AS seat_label, z.price AS seat_price, "+
-            " r.status AS reservation_status, t.valid AS valid FROM tickets t JOIN reservations r ON r.rno = t.rno "+
-            " JOIN members m ON r.mno = m.mno JOIN seats s ON r.sno = s.sno JOIN zones z ON s.zno = z.zno "+
-            " ORDER BY t.ticket_code DESC")
-    List<Map<String, Object>> adminScanLog();
+    @Select(" SELECT t.tno, t.ticket_code FROM tickets t JOIN reservations r ON r.rno = t.rno " +
+            " WHERE r.gno = #{gno} AND t.tno > #{afterTno} AND t.ticket_code LIKE '/upload/%' ORDER BY t.tno LIMIT #{limit}")
+    List<Map<String, Object>> findLegacyQrByGno(@Param("gno") int gno, @Param("afterTno") int afterTno, @Param("limit") int limit);
 
     /**
-     * 삭제 대상 QR 이미지 조회
-     * - 이미 사용(valid=0)된 티켓 중 이미지 경로 존재하는 항목
+     * 이미지 파일 정리 완료 표시
+     * - ticket_code 를 요청 시 렌더링 경로로 교체 → 다음 실행에서 다시 조회되지 않음
      *
-     * @param limit 조회할 최대 개수
+     * @param tnos 정리된 티켓번호
      */
-    @Select("SELECT ticket_code FROM tickets WHERE valid=0 AND ticket_code IS NOT NULL LIMIT #{limit}")
-    List<String> QRImgDelete (@Param("limit")int limit);
+    @Update("""
+        <script>
+        UPDATE tickets SET ticket_code = CONCAT('/tickets/qr-image/', ticket_uuid)
+        WHERE ticket_code LIKE '/upload/%' AND tno IN
+        <foreach collection="tnos" item="tno" open="(" separator="," close=")">#{tno}</foreach>
+        </script>
+        """)
+    int markQrCleaned(@Param("tnos") List<Integer> tnos);
 
 
 }//inter end
@@ -20,11 +20,12 @@ import java.util.List;
  *   JWT 인증 필터 (요청 1개당 1번만 실행)
  * - Authorization 헤더에 담긴 JWT를 꺼내서 검증하는 역할
  * - SecurityFilterChain 중간에 추가되어 Controller 진입 전 실행됨
+ * - principal 은 토큰 claims(mno, pno, status, senior)로 생성 → 요청마다 DB 조회하지 않음
  */
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil; // JWT 검증/파싱용 유틸
-    private final MembersService membersService; // DB에서 회원정보 조회용
+    private final MembersService membersService; // 구버전 토큰 보정용 (회원 캐시)
 
     public JwtAuthenticationFilter(JwtUtil jwtUtil, MembersService membersService) {
         this.jwtUtil = jwtUtil;
@@ -48,27 +49,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if(authHeader != null && authHeader.startsWith("Bearer ")){
             String token = authHeader.substring(7); // "Bearer " 이후의 실제 토큰만 추출
 
-            // [3] JWT 유효성 검증
-            if(jwtUtil.validateToken(token)){
-                String mid = jwtUtil.getMid(token);
+            // [3] JWT 유효성 검증 + claims 로 principal 생성 (DB 조회 없음)
+            MemberPrincipal principal = jwtUtil.getPrincipal(token);
 
-                // [4] DB에서 회원 객체 조회
-                MembersDto member = membersService.findByMid(mid);
-
-                if( member != null ) {
-                    // [5] 인증 객체 생성 (Principal에 MembersDto 저장)
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(member, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+            // [4] status claim 이 없는 구버전 토큰만 회원 캐시로 보정
+            if( principal == null && jwtUtil.validateToken(token) ){
+                MembersDto member = membersService.findCachedByMid(jwtUtil.getMid(token));
+                if( member != null ) principal = MemberPrincipal.of(member);
+            }
 
-                    // [6] SecurityContext에 인증 정보 등록
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
+            if( principal != null ) {
+                // [5] 인증 객체 생성 (Principal에 MemberPrincipal 저장)
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(principal, null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
 
-                }
+                // [6] SecurityContext에 인증 정보 등록
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
 
         } // if e
 
-        // [4] 다음 필터로 요청 전달
+        // [7] 다음 필터로 요청 전달
         filterChain.doFilter(request , response);
     } // func e,
 
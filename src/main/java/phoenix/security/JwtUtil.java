@@ -46,6 +46,8 @@ public class JwtUtil {
                 .expiration(expiry) // 토큰 만료 시간(exp)
                 .claim("mno" , member.getMno()) // claim() : 커스텀 정보 꺼낼 수 있는 메소드
                 .claim("pno" , member.getPno()) // pno 추가
+                .claim("status" , member.getStatus()) // 회원상태 (필터가 DB 조회 없이 principal 생성)
+                .claim("senior" , MemberPrincipal.isSenior(member.getBirthdate())) // 시니어 여부
                 .signWith(Keys.hmacShaKeyFor(secret.getBytes())) // 서명(Signature) : secret 값을 HMAC-SHA256용 Key로 변환해서 서명
                 .compact(); // 최종적으로 JWT 문자열로 변환 (header.payload.signature 구조)
     } // func e
@@ -127,6 +129,29 @@ public class JwtUtil {
         }
     } // func e
 
+    /**
+     *  유효한 토큰의 claims 로 로그인 회원 principal 생성 (서명 검증 + 파싱 1회)
+     *  @param token JWT 문자열
+     *  @return MemberPrincipal (만료/위조 : null , status claim 없는 구버전 토큰 : null → 호출부에서 회원 조회)
+     */
+    public MemberPrincipal getPrincipal(String token){
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(secret.getBytes()))
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        }catch (JwtException | IllegalArgumentException e ){
+            return null; // 만료 토큰은 getClaims 와 달리 인증에 쓰지 않음
+        }
+        Integer mno = claims.get("mno" , Integer.class);
+        String status = claims.get("status" , String.class);
+        if(mno == null || status == null) return null;
+        return new MemberPrincipal(mno , claims.getSubject() , claims.get("pno" , Integer.class) , status ,
+                Boolean.TRUE.equals(claims.get("senior" , Boolean.class)));
+    } // func e
+
     // 특정 claim만 꺼내는 메소드
     public Object getClaim(String token , String key){
         Claims claims = getClaims(token);
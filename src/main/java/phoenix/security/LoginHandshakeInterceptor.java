@@ -0,0 +1,46 @@
+package phoenix.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import phoenix.model.dto.MembersDto;
+import phoenix.service.MembersService;
+
+import java.util.Map;
+
+/**
+ *   웹소켓 handshake 시 로그인 회원 확인
+ * - handshake 는 일반 HTTP 요청이므로 세션(SPRING_SECURITY_CONTEXT) 기반 인증이 그대로 적용됨
+ * - 로그인 상태면 회원번호를 웹소켓 세션 속성(LOGIN_MNO)에 저장 → {"type":"login"} 프레임에서 사용
+ * - 비로그인도 연결은 허용 (좌석 배치도 구독)
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginHandshakeInterceptor implements HandshakeInterceptor {
+
+    /** 웹소켓 세션 속성: handshake 때 확인한 회원번호 */
+    public static final String LOGIN_MNO = "loginMno";
+
+    private final MembersService membersService;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        MembersDto member = membersService.getLoginMember();
+        // 탈퇴/휴면 계정(복구 화면용 세션)은 제외
+        if (member != null && member.getMno() > 0
+                && (member.getStatus() == null || "active".equalsIgnoreCase(member.getStatus()))) {
+            attributes.put(LOGIN_MNO, member.getMno());
+        }
+        return true;
+    } // func e
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    } // func e
+
+} // class e
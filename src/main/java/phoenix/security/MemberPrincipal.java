@@ -0,0 +1,51 @@
+package phoenix.security;
+
+import phoenix.model.dto.MembersDto;
+
+import java.security.Principal;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+
+/**
+ *   JWT claims 로 만든 로그인 회원 (요청마다 DB 조회 없이 SecurityContext 에 저장)
+ * - mno / mid(subject) / pno / status / senior 만 보관
+ * - 나머지 회원 정보가 필요하면 MembersService.getLoginMemberDetail() (짧은 TTL 캐시)
+ */
+public record MemberPrincipal(int mno, String mid, Integer pno, String status, boolean senior) implements Principal {
+
+    public static final int SENIOR_AGE = 65; // 시니어 기준 나이
+    private static final LocalDate UNKNOWN_BIRTHDATE = LocalDate.of(1900, 1, 1); // 소셜가입/로그인 기본 생일
+
+    @Override
+    public String getName() { return mid; }
+
+    /** 기존 getLoginMember() 호출부 호환용 (mno, mid, pno, status 만 채움) */
+    public MembersDto toMembersDto() {
+        MembersDto dto = new MembersDto();
+        dto.setMno(mno);
+        dto.setMid(mid);
+        dto.setPno(pno == null ? 0 : pno);
+        dto.setStatus(status);
+        return dto;
+    } // func e
+
+    /** 회원 전체 정보 → principal (구버전 토큰 보정용) */
+    public static MemberPrincipal of(MembersDto member) {
+        return new MemberPrincipal(member.getMno(), member.getMid(), member.getPno(), member.getStatus(),
+                isSenior(member.getBirthdate()));
+    } // func e
+
+    /** 생년월일(yyyy-MM-dd) 기준 시니어 여부 (없거나 형식 오류, 기본 생일이면 false) */
+    public static boolean isSenior(String birthdate) {
+        if (birthdate == null || birthdate.isBlank()) return false;
+        try {
+            LocalDate birth = LocalDate.parse(birthdate);
+            if (birth.equals(UNKNOWN_BIRTHDATE)) return false;
+            return Period.between(birth, LocalDate.now()).getYears() >= SENIOR_AGE;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    } // func e
+
+} // class e
@@ -4,9 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import phoenix.model.dto.AutoSelectDto.*;
 import phoenix.model.dto.GameDto;
+import phoenix.service.GameCatalogService.SalePhase;
 
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -74,9 +73,7 @@ public class AutoSeatsService {
         if (game == null) return fail("GAME_NOT_FOUND");
 
         // 경기 시작 시각(D-2 게이팅)
-        ZoneId zone = ZoneId.systemDefault();
-        ZonedDateTime gameAt = ZonedDateTime.of(game.getDate(), game.getTime(), zone);
-        boolean seniorGateOn = isBeforeGeneralSeniorOpen(gameAt); // D-2 전이면 true
+        boolean seniorGateOn = isBeforeGeneralSeniorOpen(req.getGno()); // D-2 전이면 true
 
         // 회원 선호선수 → 팀/포지션
         var member = membersService.getLoginMember();
@@ -99,13 +96,16 @@ public class AutoSeatsService {
 
         List<String> hopTrace = new ArrayList<>();
 
+        // 요청 처리 중 메타 리로드가 일어나도 같은 좌석 배치를 보도록 스냅샷 고정
+        SeatCsvService.Snapshot meta = seatCsv.snapshot();
+
         // 2) 단일 존 루프 — 연석 → 비연석
         for (int zno : zonePriority) {
-            if (!seatCsv.existsZone(zno)) continue;
+            if (!meta.existsZone(zno)) continue;
 
             // 메타/상태 조회
-            List<SeatCsvService.SeatCsvDto> metas = seatCsv.getSeatsByZoneSorted(zno);
-            List<Integer> snos = metas.stream().map(SeatCsvService.SeatCsvDto::getSno).toList();
+            List<SeatCsvService.SeatCsvDto> metas = meta.getSeatsByZoneSorted(zno);
+            List<Integer> snos = meta.getSnosByZoneSorted(zno);
             Map<Integer, String> status = seatLocks.getSeatStatusFor(req.getGno(), mno, snos);
 
             // 일반예매에서 usable만 필터 (시니어석 D-2 전 제외)
@@ -143,11 +143,11 @@ public class AutoSeatsService {
 
         for (int zno : zonePriority) {
             if (remain <= 0) break;
-            if (!seatCsv.existsZone(zno)) continue;
+            if (!meta.existsZone(zno)) continue;
 
             // 메타/상태
-            List<SeatCsvService.SeatCsvDto> metas = seatCsv.getSeatsByZoneSorted(zno);
-            List<Integer> snos = metas.stream().map(SeatCsvService.SeatCsvDto::getSno).toList();
+            List<SeatCsvService.SeatCsvDto> metas = meta.getSeatsByZoneSorted(zno);
+            List<Integer> snos = meta.getSnosByZoneSorted(zno);
             Map<Integer, String> status = seatLocks.getSeatStatusFor(req.getGno(), mno, snos);
 
             List<SeatCsvService.SeatCsvDto> usable = metas.stream()
@@ -201,8 +201,9 @@ public class AutoSeatsService {
     }
 
     // ── Senior gating: 일반예매 D-2 전이면 시니어석 제외 ──
-    private boolean isBeforeGeneralSeniorOpen(ZonedDateTime gameAt) {
-        return ZonedDateTime.now(gameAt.getZone()).isBefore(gameAt.minusHours(48));
+    private boolean isBeforeGeneralSeniorOpen(int gno) {
+        SalePhase phase = gameService.phaseAt(gno, System.currentTimeMillis());
+        return phase != SalePhase.GENERAL_OPEN && phase != SalePhase.STARTED;
     }
 
     private boolean isUsableForGeneral(String status, boolean senior, boolean seniorGateOn) {
@@ -277,16 +278,16 @@ public class AutoSeatsService {
     // ── 같은 행에서 연속 번호 qty개 찾기 (A1, A2, …) ──
     private List<SeatCsvService.SeatCsvDto> findContiguousRun(List<SeatCsvService.SeatCsvDto> usable, int qty) {
         Map<Character, List<SeatCsvService.SeatCsvDto>> byRow = usable.stream()
-                .collect(Collectors.groupingBy(m -> row(m.getSeatName())));
+                .collect(Collectors.groupingBy(m -> row(m)));
         for (var entry : byRow.entrySet()) {
             List<SeatCsvService.SeatCsvDto> rowSeats = entry.getValue().stream()
-                    .sorted(Comparator.comparingInt(m -> col(m.getSeatName())))
+                    .sorted(Comparator.comparingInt(m -> col(m)))
                     .toList();
             for (int i = 0; i + qty - 1 < rowSeats.size(); i++) {
                 boolean ok = true;
-                int start = col(rowSeats.get(i).getSeatName());
+                int start = col(rowSeats.get(i));
                 for (int k = 1; k < qty; k++) {
-                    if (col(rowSeats.get(i + k).getSeatName()) != start + k) { ok = false; break; }
+                    if (col(rowSeats.get(i + k)) != start + k) { ok = false; break; }
                 }
                 if (ok) return rowSeats.subList(i, i + qty);
             }
@@ -297,11 +298,11 @@ public class AutoSeatsService {
     // 멀티존 수집용: 남은 수량 이하에서 가장 긴 연석을 뽑아 반환(없으면 빈 리스트)
     private List<SeatCsvService.SeatCsvDto> findBestRunUpTo(List<SeatCsvService.SeatCsvDto> usable, int limit) {
         Map<Character, List<SeatCsvService.SeatCsvDto>> byRow = usable.stream()
-                .collect(Collectors.groupingBy(m -> row(m.getSeatName())));
+                .collect(Collectors.groupingBy(m -> row(m)));
         List<SeatCsvService.SeatCsvDto> best = List.of();
         for (var entry : byRow.entrySet()) {
             List<SeatCsvService.SeatCsvDto> rowSeats = entry.getValue().stream()
-                    .sorted(Comparator.comparingInt(m -> col(m.getSeatName())))
+                    .sorted(Comparator.comparingInt(m -> col(m)))
                     .toList();
 
             // 슬라이딩으로 run 길이 측정(최대 limit)
@@ -309,8 +310,8 @@ public class AutoSeatsService {
             int i = 0;
             while (i < n) {
                 int j = i;
-                int start = col(rowSeats.get(i).getSeatName());
-                while (j + 1 < n && col(rowSeats.get(j + 1).getSeatName()) == col(rowSeats.get(j).getSeatName()) + 1) {
+                int start = col(rowSeats.get(i));
+                while (j + 1 < n && col(rowSeats.get(j + 1)) == col(rowSeats.get(j)) + 1) {
                     j++;
                 }
                 int len = Math.min(j - i + 1, limit);
@@ -326,13 +327,9 @@ public class AutoSeatsService {
         return new ArrayList<>(usable.subList(0, qty));
     }
 
-    private char row(String seatName) {
-        return (seatName != null && !seatName.isEmpty()) ? Character.toUpperCase(seatName.charAt(0)) : 'Z';
-    }
-    private int col(String seatName) {
-        if (seatName == null || seatName.length() < 2) return Integer.MAX_VALUE;
-        try { return Integer.parseInt(seatName.substring(1)); } catch (Exception e) { return Integer.MAX_VALUE; }
-    }
+    // 행/열은 SeatCsvService 로드 시 미리 파싱된 값 사용 (seatName 재파싱 없음)
+    private char row(SeatCsvService.SeatCsvDto m) { return seatCsv.rowOf(m.getSno()); }
+    private int col(SeatCsvService.SeatCsvDto m)  { return seatCsv.colOf(m.getSno()); }
 
     // ── 좌석 홀드 유틸 ────────────────────────────────────────────
     private static class HoldResult { boolean ok; String reason; List<Integer> held = new ArrayList<>(); }
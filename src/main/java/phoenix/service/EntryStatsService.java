@@ -0,0 +1,138 @@
+package phoenix.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import phoenix.util.RedisKeys;
+
+import java.util.*;
+
+/**
+ * 경기 입장 통계 (게이트 대시보드)
+ * <p>
+ * - 카운터는 스캔 성공 시 TicketScanService 의 Lua 안에서 O(1) HINCRBY 로 누적
+ *   · scan:stats:{gno}     : total, z:{zno}
+ *   · scan:stats:min:{gno} : m:{epoch 분}, zm:{zno}:{epoch 분}
+ * - 조회는 HGETALL(누적, 구역 수만큼 필드) + 최근 N분 HMGET → MySQL 조인 없음
+ * - Micrometer: 적재된 경기의 누적/직전 1분 입장 수를 10초마다 게이지로 반영
+ *   · phoenix.gate.entries{gno, zno}  (zno=all 은 경기 전체)
+ *   · phoenix.gate.entry.rate{gno}    (직전 1분 입장 수)
+ */
+@Service
+@RequiredArgsConstructor
+public class EntryStatsService {
+
+    private final RedissonClient redisson;
+    private final SeatCsvService seatCsv;
+    private final MeterRegistry meterRegistry;
+
+    private static final int MAX_MINUTES = 180;
+
+    private MultiGauge entriesGauge;
+    private MultiGauge rateGauge;
+
+    @PostConstruct
+    public void initGauges() {
+        entriesGauge = MultiGauge.builder("phoenix.gate.entries")
+                .description("경기/구역별 누적 입장 수").register(meterRegistry);
+        rateGauge = MultiGauge.builder("phoenix.gate.entry.rate")
+                .description("경기별 직전 1분 입장 수").register(meterRegistry);
+    }
+
+    /**
+     * 경기 입장 통계
+     *
+     * @param gno 경기번호
+     * @param minutes 최근 몇 분 (1~180)
+     * @return { gno, total, remaining, byZone:[{zno, zoneName, count}], perMinute:[{minute, count, byZone}] }
+     */
+    public Map<String, Object> stats(int gno, int minutes) {
+        int n = Math.max(1, Math.min(MAX_MINUTES, minutes));
+        Map<String, String> totals = totalsMap(gno).readAllMap();
+
+        List<Integer> znos = new ArrayList<>();
+        List<Map<String, Object>> byZone = new ArrayList<>();
+        totals.forEach((field, v) -> {
+            if (!field.startsWith("z:")) return;
+            int zno = Integer.parseInt(field.substring(2));
+            znos.add(zno);
+            Map<String, Object> z = new LinkedHashMap<>();
+            z.put("zno", zno);
+            z.put("zoneName", seatCsv.getZoneName(zno));
+            z.put("count", Long.parseLong(v));
+            byZone.add(z);
+        });
+        byZone.sort(Comparator.comparingInt(z -> (Integer) z.get("zno")));
+        Collections.sort(znos);
+
+        // 최근 n분 (현재 분 포함) 필드를 한 번에 조회
+        long nowMin = System.currentTimeMillis() / 60000;
+        Set<String> fields = new LinkedHashSet<>();
+        for (long m = nowMin - n + 1; m <= nowMin; m++) {
+            fields.add("m:" + m);
+            for (int zno : znos) fields.add("zm:" + zno + ":" + m);
+        }
+        Map<String, String> recent = minutesMap(gno).getAll(fields);
+
+        List<Map<String, Object>> perMinute = new ArrayList<>(n);
+        for (long m = nowMin - n + 1; m <= nowMin; m++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("minute", m * 60000);
+            row.put("count", parse(recent.get("m:" + m)));
+            Map<Integer, Long> zones = new LinkedHashMap<>();
+            for (int zno : znos) {
+                long c = parse(recent.get("zm:" + zno + ":" + m));
+                if (c > 0) zones.put(zno, c);
+            }
+            row.put("byZone", zones);
+            perMinute.add(row);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("gno", gno);
+        result.put("total", parse(totals.get("total")));
+        // 적재된 경기면 남은 유효 티켓 수 (SCARD)
+        result.put("remaining", redisson.getBucket(RedisKeys.keyScanLoaded(gno)).isExists()
+                ? redisson.getSet(RedisKeys.keyScanValid(gno), StringCodec.INSTANCE).size() : null);
+        result.put("byZone", byZone);
+        result.put("perMinute", perMinute);
+        return result;
+    }// func end
+
+    /** 적재된 경기 통계 → 게이지 반영 */
+    @Scheduled(fixedDelay = 10000)
+    public void refreshGauges() {
+        try {
+            long prevMin = System.currentTimeMillis() / 60000 - 1;
+            List<MultiGauge.Row<?>> entries = new ArrayList<>();
+            List<MultiGauge.Row<?>> rates = new ArrayList<>();
+            for (Object o : redisson.getSet(RedisKeys.SCAN_LOADED_GNOS).readAll()) {
+                int gno = ((Number) o).intValue();
+                String g = String.valueOf(gno);
+                totalsMap(gno).readAllMap().forEach((field, v) -> {
+                    if ("total".equals(field)) entries.add(MultiGauge.Row.of(Tags.of("gno", g, "zno", "all"), Long.parseLong(v)));
+                    else if (field.startsWith("z:")) entries.add(MultiGauge.Row.of(Tags.of("gno", g, "zno", field.substring(2)), Long.parseLong(v)));
+                });
+                rates.add(MultiGauge.Row.of(Tags.of("gno", g), parse(minutesMap(gno).get("m:" + prevMin))));
+            }
+            entriesGauge.register(entries, true);
+            rateGauge.register(rates, true);
+        } catch (Exception e) {
+            System.out.println("[EntryStats] 게이지 갱신 실패: " + e.getMessage());
+        }
+    }// func end
+
+    private RMap<String, String> totalsMap(int gno)  { return redisson.getMap(RedisKeys.keyScanStats(gno), StringCodec.INSTANCE); }
+    private RMap<String, String> minutesMap(int gno) { return redisson.getMap(RedisKeys.keyScanStatsMin(gno), StringCodec.INSTANCE); }
+
+    private static long parse(String v) {
+        return v == null ? 0 : Long.parseLong(v);
+    }
+}// class end
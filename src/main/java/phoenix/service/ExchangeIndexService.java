@@ -0,0 +1,201 @@
+package phoenix.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import phoenix.model.dto.ReservationsDto;
+import phoenix.model.mapper.ReservationMapper;
+import phoenix.util.RedisKeys;
+
+import java.util.*;
+
+/**
+ * 좌석 교환 후보 색인 (Redis, 경기·구역별)
+ * <p>
+ * - exchange:idx:{gno}:{zno} (hash) rno → 예매 JSON : 예매중 + 교환 허용 회원 + 일반석 예매만
+ *   · 필드 "_" 는 생성 완료 표시 (후보가 0건인 구역도 색인으로 인정)
+ * - 후보 조회는 기준 예매의 (gno, zno) 색인 1회 읽기 + 본인/자기 예매 제외만 로컬 처리
+ *   → 화면 열 때마다 5중 조인 + 상관 서브쿼리를 돌리지 않음
+ * - 색인이 없으면 첫 조회 때 DB에서 해당 구역만 생성, phoenix.exchange.index-ttl-sec(기본 600초) 뒤 만료되어 다시 생성
+ * - 예매 확정/취소/좌석 변경(교환 포함)/교환 허용 설정 변경 시 커밋 후 해당 예매만 반영
+ *   · 예매를 경기의 모든 구역 색인에서 지운 뒤, 교환 가능하면 현재 구역 색인(이미 생성된 경우만)에 추가
+ *   · 생성과 반영이 엇갈려 생긴 차이는 색인 만료(TTL) 때 해소
+ */
+@Service
+@RequiredArgsConstructor
+public class ExchangeIndexService {
+
+    private final ReservationMapper reservationMapper;
+    private final RedissonClient redisson;
+    private final ObjectMapper objectMapper;
+    private final SeatCsvService seatCsvService;
+
+    @Value("${phoenix.exchange.index-ttl-sec:600}")
+    private long indexTtlSec;
+
+    private static final String BUILT = "_";
+
+    // 색인 생성 (이미 있으면 그대로) / KEYS[1]=색인 / ARGV: ttl, rno1, json1, rno2, json2, ...
+    private static final String BUILD_LUA = """
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            redis.call('HSET', KEYS[1], '_', '1')
+            for i = 2, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end
+            redis.call('EXPIRE', KEYS[1], tonumber(ARGV[1]))
+            return 1
+            """;
+
+    // 예매 1건 반영 / KEYS=경기의 구역 색인 전체 / ARGV: rno, 현재 구역 KEYS 위치(0: 제외), json
+    private static final String UPSERT_LUA = """
+            for i = 1, #KEYS do redis.call('HDEL', KEYS[i], ARGV[1]) end
+            local t = tonumber(ARGV[2])
+            if t > 0 and redis.call('EXISTS', KEYS[t]) == 1 then
+              redis.call('HSET', KEYS[t], ARGV[1], ARGV[3])
+            end
+            return 1
+            """;
+
+    /**
+     * 교환 후보 (같은 경기·구역, 교환 허용 회원의 일반석 예매, 기준 예매/본인 예매 제외)
+     *
+     * @param rno 기준 예매번호
+     * @param mno 조회 회원번호
+     * @return List<ReservationsDto> 예매번호 순
+     */
+    public List<ReservationsDto> candidates(int rno, int mno) {
+        ReservationsDto origin = reservationMapper.exchangeOrigin(rno);
+        if (origin == null) return List.of();
+        String key = RedisKeys.keyExchangeIndex(origin.getGno(), origin.getZno());
+
+        Map<String, String> index = redisson.<String, String>getMap(key, StringCodec.INSTANCE).readAllMap();
+        if (index.isEmpty()) index = build(origin.getGno(), origin.getZno(), key);
+
+        List<ReservationsDto> out = new ArrayList<>();
+        for (Map.Entry<String, String> e : index.entrySet()) {
+            if (BUILT.equals(e.getKey())) continue;
+            ReservationsDto r = deserialize(e.getValue());
+            if (r == null || r.getRno() == rno || r.getMno() == mno) continue;
+            out.add(r);
+        }
+        out.sort(Comparator.comparingInt(ReservationsDto::getRno));
+        return out;
+    }// func end
+
+    /**
+     * 예매 변경 반영 (확정/취소/좌석 변경) — 트랜잭션 중이면 커밋 후 실행
+     *
+     * @param rnos 변경된 예매번호
+     */
+    public void changed(Collection<Integer> rnos) {
+        if (rnos == null || rnos.isEmpty()) return;
+        List<Integer> copy = List.copyOf(rnos);
+        afterCommit(() -> refresh(copy));
+    }// func end
+
+    /**
+     * 회원 교환 허용 설정 변경 반영 (예매중인 예매 전체)
+     *
+     * @param mno 회원번호
+     */
+    public void memberChanged(int mno) {
+        afterCommit(() -> refresh(reservationMapper.findReservedRnosByMno(mno)));
+    }// func end
+
+    // DB 현재 상태로 예매별 색인 반영
+    private void refresh(List<Integer> rnos) {
+        if (rnos == null || rnos.isEmpty()) return;
+        List<Integer> znos = seatCsvService.getZnos();
+        for (Map<String, Object> row : reservationMapper.exchangeIndexState(rnos)) {
+            ReservationsDto r = toDto(row);
+            List<Object> keys = new ArrayList<>(znos.size());
+            int target = 0;
+            for (int zno : znos) {
+                keys.add(RedisKeys.keyExchangeIndex(r.getGno(), zno));
+                if (zno == r.getZno() && isEligible(row)) target = keys.size();
+            }
+            if (keys.isEmpty()) continue;
+            redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, UPSERT_LUA, RScript.ReturnType.INTEGER,
+                    keys, String.valueOf(r.getRno()), String.valueOf(target), target > 0 ? serialize(r) : "");
+        }// for end
+    }// func end
+
+    // 구역 색인 생성 → 생성에 쓴 내용 (다른 요청이 먼저 만들었어도 같은 DB 기준)
+    private Map<String, String> build(int gno, int zno, String key) {
+        List<Map<String, Object>> rows = reservationMapper.exchangeIndexRows(gno, zno);
+        List<Object> args = new ArrayList<>(1 + rows.size() * 2);
+        args.add(String.valueOf(indexTtlSec));
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            ReservationsDto r = toDto(row);
+            String json = serialize(r);
+            args.add(String.valueOf(r.getRno()));
+            args.add(json);
+            values.put(String.valueOf(r.getRno()), json);
+        }
+        redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, BUILD_LUA, RScript.ReturnType.INTEGER,
+                List.<Object>of(key), args.toArray());
+        return values;
+    }// func end
+
+    private static boolean isEligible(Map<String, Object> row) {
+        Object v = row.get("eligible");
+        return v instanceof Number n ? n.intValue() == 1 : Boolean.TRUE.equals(v);
+    }
+
+    private static ReservationsDto toDto(Map<String, Object> row) {
+        ReservationsDto r = new ReservationsDto();
+        r.setRno(((Number) row.get("rno")).intValue());
+        r.setMno(((Number) row.get("mno")).intValue());
+        r.setSno(((Number) row.get("sno")).intValue());
+        r.setGno(((Number) row.get("gno")).intValue());
+        r.setZno(((Number) row.get("zno")).intValue());
+        r.setReserved_at(row.get("reserved_at") == null ? null : String.valueOf(row.get("reserved_at")));
+        r.setStatus((String) row.get("status"));
+        r.setChannel((String) row.get("channel"));
+        return r;
+    }
+
+    private String serialize(ReservationsDto r) {
+        try {
+            return objectMapper.writeValueAsString(r);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("교환 색인 직렬화 실패", e);
+        }
+    }
+
+    private ReservationsDto deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, ReservationsDto.class);
+        } catch (JsonProcessingException e) {
+            System.out.println("[ExchangeIndex] 역직렬화 실패: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        System.out.println("[ExchangeIndex] 커밋 후 갱신 실패: " + e.getMessage());
+                    }
+                }
+            });
+        } else {
+            try {
+                task.run();
+            } catch (Exception e) {
+                System.out.println("[ExchangeIndex] 갱신 실패: " + e.getMessage());
+            }
+        }
+    }
+}// class end
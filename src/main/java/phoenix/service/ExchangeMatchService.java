@@ -0,0 +1,170 @@
+package phoenix.service;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import phoenix.model.dto.ReservationExchangesDto;
+import phoenix.model.dto.ReservationsDto;
+import phoenix.model.mapper.ReservationExchangeMapper;
+import phoenix.model.mapper.ReservationMapper;
+import phoenix.util.RedisKeys;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * 다자간 좌석 교환 매칭 (순환 탐지)
+ * <p>
+ * - 교환 요청 from_rno → to_rno 를 "from 이 to 의 좌석을 원함" 간선으로 보는 방향 그래프
+ * - 간선 = Redis change:request:{from_rno} (RedisService) — 요청자당 진행중 요청 1건이므로 진출 차수 ≤ 1
+ * - 후보는 교환 후보 색인(같은 경기·같은 구역, 교환 허용 회원, ExchangeIndexService) 안에서만 허용 → 그래프는 경기/구역별로 분리됨
+ * - 새 간선 u → v 가 생기면 v 에서 간선을 최대 k-1 번 따라가 u 로 돌아오는지 확인 (HGET 최대 k-1 회, O(k))
+ *   · 진출 차수가 1이므로 새로 생길 수 있는 순환은 새 간선을 지나는 것 하나뿐
+ *   · 탐지는 힌트일 뿐, 꺼낼 때 Lua 가 간선을 원자적으로 다시 확인 (쓰는 키는 모두 KEYS 로 전달)
+ * - 순환이 성립하면 요청들을 원자적으로 꺼낸 뒤 한 트랜잭션에서 좌석을 한 칸씩 회전
+ *   (롤백 시 꺼낸 요청 복구)
+ */
+@Service
+@RequiredArgsConstructor
+public class ExchangeMatchService {
+
+    private final RedissonClient redisson;
+    private final RedisService redisService;
+    private final ReservationMapper reservationMapper;
+    private final ReservationExchangeMapper reservationExchangeMapper;
+    private final ReservationsService reservationsService;
+    private final ExchangeIndexService exchangeIndexService;
+
+    /** 최대 순환 길이 k (2 = 맞교환) */
+    @Value("${phoenix.exchange.max-cycle:4}")
+    private int maxCycle;
+
+    // 순환의 요청을 모두 꺼내기: 간선이 그대로일 때만 (요청 hash + 역인덱스 삭제) → 요청 JSON 목록
+    // KEYS[i]=request:{rno_i}, KEYS[n+i]=seat:{rno_i+1} (i = 1..n, 마지막은 처음으로 순환) / ARGV: rno...
+    private static final String TAKE_CYCLE_LUA = """
+            local n = #ARGV
+            for i = 1, n do
+              if redis.call('HGET', KEYS[i], 'to') ~= ARGV[(i % n) + 1] then return {} end
+            end
+            local out = {}
+            for i = 1, n do
+              table.insert(out, redis.call('HGET', KEYS[i], 'dto'))
+              redis.call('DEL', KEYS[i])
+              redis.call('SREM', KEYS[n + i], ARGV[i])
+            end
+            return out
+            """;
+
+    /**
+     * 교환 후보 확인 (같은 경기·구역, 교환 허용 회원의 예매인지)
+     *
+     * @param from_rno 요청 예매번호
+     * @param from_mno 요청자 회원번호
+     * @param to_rno 대상 예매번호
+     */
+    public boolean isCandidate(int from_rno, int from_mno, int to_rno) {
+        for (ReservationsDto r : exchangeIndexService.candidates(from_rno, from_mno)) {
+            if (r.getRno() == to_rno) return true;
+        }
+        return false;
+    }// func end
+
+    /**
+     * 새 간선 from → to 를 지나는 순환 탐지
+     *
+     * @return 순환 예매번호 목록 [from, to, ...] (각 예매는 다음 예매의 좌석으로 이동), 없으면 빈 목록
+     */
+    public List<Integer> findCycle(int from_rno, int to_rno) {
+        List<Integer> path = new ArrayList<>(List.of(from_rno, to_rno));
+        int x = to_rno;
+        for (int i = 1; i < maxCycle; i++) {
+            String t = redisson.<String, String>getMap(RedisKeys.keyChangeRequest(x), StringCodec.INSTANCE).get("to");
+            if (t == null) return List.of();
+            int next = Integer.parseInt(t);
+            if (next == from_rno) return path;
+            if (path.contains(next)) return List.of();
+            path.add(next);
+            x = next;
+        }// for end
+        return List.of();
+    }// func end
+
+    /**
+     * 순환 교환 실행 (한 트랜잭션)
+     * 1. 순환의 요청을 Redis 에서 원자적으로 꺼냄 (그 사이 바뀌었으면 실행 안 함)
+     * 2. 예매 행을 rno 순으로 잠금(FOR UPDATE) → 상태/경기/구역/요청 당시 좌석 검증
+     * 3. 각 예매를 다음 예매의 좌석으로 변경 + 교환 이력 저장
+     * - 커밋 후: 좌석이 바뀐 예매로 들어온 다른 요청 정리 / 롤백 시: 꺼낸 요청 복구
+     *
+     * @param cycle findCycle 결과
+     * @return 실행된 요청 목록 (실행 안 됐으면 빈 목록)
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<ReservationExchangesDto> executeCycle(List<Integer> cycle) {
+        int n = cycle.size();
+        if (n < 2) return List.of();
+
+        List<Object> keys = new ArrayList<>(n * 2);
+        List<Object> args = new ArrayList<>(n);
+        for (int rno : cycle) {
+            keys.add(RedisKeys.keyChangeRequest(rno));
+            args.add(String.valueOf(rno));
+        }// for end
+        for (int i = 0; i < n; i++) keys.add(RedisKeys.keyChangeSeat(cycle.get((i + 1) % n)));
+        List<Object> taken = redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, TAKE_CYCLE_LUA,
+                RScript.ReturnType.MULTI, keys, args.toArray());
+        if (taken == null || taken.size() != n) return List.of();
+
+        List<ReservationExchangesDto> dtos = new ArrayList<>(n);
+        for (Object o : taken) dtos.add(redisService.deserialize(String.valueOf(o)));
+        List<ReservationExchangesDto> backup = new ArrayList<>(n);
+        for (ReservationExchangesDto d : dtos) backup.add(ReservationExchangesService.copyOf(d));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    for (int rno : cycle) redisService.deleteAllRequest(rno);
+                } else {
+                    for (ReservationExchangesDto d : backup) redisService.saveRequest(d);
+                }// if end
+            }
+        });
+
+        // 예매 잠금 + 검증
+        Map<Integer, ReservationsDto> rows = new HashMap<>();
+        for (ReservationsDto r : reservationMapper.lockForExchange(cycle)) rows.put(r.getRno(), r);
+        ReservationsDto first = rows.get(cycle.get(0));
+        if (first == null) throw new IllegalStateException("교환 대상 예매 없음");
+        for (int i = 0; i < n; i++) {
+            ReservationsDto r = rows.get(cycle.get(i));
+            ReservationExchangesDto d = dtos.get(i);
+            if (r == null || d == null || !"reserved".equalsIgnoreCase(r.getStatus())
+                    || r.getGno() != first.getGno() || r.getZno() != first.getZno()
+                    || r.getSno() != d.getFromSeat()) {
+                throw new IllegalStateException("교환 조건 불일치 rno=" + cycle.get(i));
+            }
+        }// for end
+
+        // 좌석 회전: cycle[i] ← cycle[i+1] 의 좌석
+        String nowTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        for (int i = 0; i < n; i++) {
+            ReservationsDto r = rows.get(cycle.get(i));
+            ReservationsDto next = rows.get(cycle.get((i + 1) % n));
+            if (!reservationsService.reserveUpdate(next.getSno(), r.getRno(), r.getMno())) {
+                throw new IllegalStateException("좌석 교환 실패 rno=" + r.getRno());
+            }
+            ReservationExchangesDto d = dtos.get(i);
+            d.setStatus("approved");
+            d.setResponded_at(nowTime);
+            reservationExchangeMapper.changeAdd(d);
+        }// for end
+        System.out.println("[ExchangeMatch] " + n + "자 순환 교환 성립 " + cycle);
+        return dtos;
+    }// func end
+}// class end
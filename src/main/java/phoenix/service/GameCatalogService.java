@@ -0,0 +1,343 @@
+package phoenix.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import phoenix.model.dto.GameDto;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 경기 일정 카탈로그 (games.csv 인메모리 인덱스)
+ * - 기동 시 1회 파싱 → gno 맵 + 시작시각 정렬 배열을 가진 불변 {@link Catalog} 공개
+ * - 파일 수정시각 폴링으로 변경 시에만 재파싱 (크롤러가 결과/스코어를 갱신하는 경우)
+ * - 조회 경로는 모두 메모리 조회: gno → O(1), 예정/지난 경기 → 이진탐색
+ *
+ * 판매 구간 (경기별 {@link SaleWindow}, 카탈로그 생성 시 1회 계산)
+ * - openAt        = 시작 - 7일 : 예매 오픈 (시니어석은 시니어 전용)
+ * - seniorOpenAt  = 시작 - 2일 : 시니어석 일반 개방
+ * - startAt       = 경기 시작
+ * - {@link #phaseAt(int, long)} 는 long 비교만 수행, 구간 전환 시 {@link PhaseChangedEvent} 발행
+ */
+@Service
+@RequiredArgsConstructor
+public class GameCatalogService {
+
+    private static final ZoneId ZONE_SEOUL = ZoneId.of("Asia/Seoul");
+    private static final long OPEN_BEFORE_MS = TimeUnit.DAYS.toMillis(7);
+    private static final long SENIOR_OPEN_BEFORE_MS = TimeUnit.DAYS.toMillis(2);
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${phoenix.games.csv:src/main/resources/static/games.csv}")
+    private String csvPath;
+
+    private final AtomicReference<Catalog> current = new AtomicReference<>(Catalog.EMPTY);
+    private final AtomicLong versionSeq = new AtomicLong();
+    private volatile long lastSeenModified = -1L;
+
+    // 구간 전환 감지용: 마지막으로 관측한 경기별 구간 + 다음 경계 시각
+    private final Map<Integer, SalePhase> lastPhase = new ConcurrentHashMap<>();
+    private volatile long nextBoundaryAt = Long.MAX_VALUE;
+
+    @PostConstruct
+    public void load() {
+        reload();
+    }
+
+    /** games.csv 재파싱 후 카탈로그 교체 */
+    public synchronized void reload() {
+        lastSeenModified = lastModified();
+        List<GameDto> games = parseGames(Path.of(csvPath));
+        if (games.isEmpty() && !current.get().all.isEmpty()) {
+            // 쓰는 도중 읽었거나 파일이 비었으면 기존 카탈로그 유지
+            System.out.println("[GameCatalog] 빈 경기 목록 → 기존 카탈로그 유지");
+            return;
+        }
+        current.set(new Catalog(versionSeq.incrementAndGet(), games));
+        checkPhases(System.currentTimeMillis());
+    }
+
+    /** games.csv 변경 감지 (mtime 폴링) */
+    @Scheduled(fixedDelay = 5000)
+    public void watchCsv() {
+        long modified = lastModified();
+        if (modified < 0 || modified == lastSeenModified) return;
+        reload();
+    }
+
+    /**
+     * 판매 구간 전환 감지
+     * - 평소에는 다음 경계 시각과 비교만 하고 끝남
+     * - 경계를 지났을 때만 전체 경기 구간을 다시 계산해 바뀐 경기마다 이벤트 발행
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void tickPhases() {
+        long now = System.currentTimeMillis();
+        if (now < nextBoundaryAt) return;
+        checkPhases(now);
+    }
+
+    private synchronized void checkPhases(long now) {
+        Catalog c = current.get();
+        long next = Long.MAX_VALUE;
+        for (SaleWindow w : c.windowByGno.values()) {
+            SalePhase phase = w.phaseAt(now);
+            SalePhase prev = lastPhase.put(w.getGno(), phase);
+            if (prev != null && prev != phase) {
+                try {
+                    eventPublisher.publishEvent(new PhaseChangedEvent(w.getGno(), prev, phase, now));
+                } catch (Exception e) {
+                    System.out.println("[GameCatalog] 구간 전환 이벤트 처리 실패 gno=" + w.getGno() + " | " + e.getMessage());
+                }
+            }
+            long b = w.nextBoundaryAfter(now);
+            if (b < next) next = b;
+        }
+        lastPhase.keySet().retainAll(c.windowByGno.keySet());
+        nextBoundaryAt = next;
+    }
+
+    /** 현재 카탈로그 (요청 단위로 고정해서 쓰고 싶을 때) */
+    public Catalog catalog() {
+        return current.get();
+    }
+
+    /** gno로 경기 조회 (없으면 null) */
+    public GameDto get(int gno) {
+        return current.get().byGno.get(gno);
+    }
+
+    /** 경기 판매 구간 (없거나 date/time 누락이면 null) */
+    public SaleWindow window(int gno) {
+        return current.get().windowByGno.get(gno);
+    }
+
+    /** nowMillis 시점의 판매 구간 (경기 없음/시각 누락 → UNKNOWN) */
+    public SalePhase phaseAt(int gno, long nowMillis) {
+        SaleWindow w = current.get().windowByGno.get(gno);
+        return w == null ? SalePhase.UNKNOWN : w.phaseAt(nowMillis);
+    }
+
+    /** CSV 순서의 전체 경기 (불변) */
+    public List<GameDto> all() {
+        return current.get().all;
+    }
+
+    /** 시작시각이 nowMillis 이후(포함)인 경기를 시작순으로 최대 limit개 */
+    public List<GameDto> upcoming(long nowMillis, int limit) {
+        Catalog c = current.get();
+        int from = c.firstStartAtOrAfter(nowMillis);
+        int to = Math.min(c.byStart.length, from + Math.max(0, limit));
+        return List.of(Arrays.copyOfRange(c.byStart, from, to));
+    }
+
+    /** 시작시각이 nowMillis 이전인(이미 시작/종료된) 경기 gno */
+    public List<Integer> expiredGnos(long nowMillis) {
+        Catalog c = current.get();
+        int to = c.firstStartAtOrAfter(nowMillis);
+        List<Integer> result = new ArrayList<>(to);
+        for (int i = 0; i < to; i++) result.add(c.byStart[i].getGno());
+        return result;
+    }
+
+    /** 시작시각이 [fromMillis, untilMillis) 인 경기 gno (시작순) — 증분 배치용 */
+    public List<Integer> gnosStartedBetween(long fromMillis, long untilMillis) {
+        Catalog c = current.get();
+        int from = c.firstStartAtOrAfter(fromMillis);
+        int to = c.firstStartAtOrAfter(untilMillis);
+        List<Integer> result = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) result.add(c.byStart[i].getGno());
+        return result;
+    }
+
+    /** 경기 시작시각(epoch ms, KST 기준) — date/time 누락 시 -1 */
+    public static long startMillis(GameDto g) {
+        if (g == null || g.getDate() == null || g.getTime() == null) return -1L;
+        return g.getDate().atTime(g.getTime()).atZone(ZONE_SEOUL).toInstant().toEpochMilli();
+    }
+
+    private long lastModified() {
+        try {
+            Path p = Path.of(csvPath);
+            return Files.exists(p) ? Files.getLastModifiedTime(p).toMillis() : -1L;
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * games.csv 파싱 (기존 FileService.loadGames 로직 그대로)
+     * - 헤더 스킵(+BOM 제거), 뒤쪽 빈 컬럼 보존, "null"/빈문자 → null
+     */
+    private List<GameDto> parseGames(Path path) {
+        List<GameDto> games = new ArrayList<>();
+
+        try (BufferedReader br = new BufferedReader(
+                new InputStreamReader(new FileInputStream(path.toFile()), StandardCharsets.UTF_8))) {
+
+            // 1) 헤더 스킵 (+ BOM 방지)
+            String header = br.readLine();
+            if (header != null && header.startsWith("\uFEFF")) {
+                header = header.substring(1); // BOM 제거
+            }
+
+            String line;
+            while ((line = br.readLine()) != null) {
+                // 빈 줄 스킵 + CR 제거
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                if (line.endsWith("\r")) line = line.substring(0, line.length() - 1);
+
+                // ⭐ 뒤쪽 빈 컬럼 보존: `...,17:00,,` 같은 행도 컬럼 9개 보장
+                String[] arr = line.split(",", -1);
+
+                // 컬럼 수 점검(안전)
+                if (arr.length < 9) {
+                    System.out.println("[CSV] 컬럼 부족으로 스킵: " + line);
+                    continue;
+                }
+
+                try {
+                    GameDto game = GameDto.builder()
+                            .gno(Integer.parseInt(arr[0].trim()))
+                            .homeTeam(norm(arr[1]))
+                            .homePitcher(norm(arr[2]))
+                            .awayTeam(norm(arr[3]))
+                            .awayPitcher(norm(arr[4]))
+                            .date(LocalDate.parse(arr[5].trim()))     // YYYY-MM-DD
+                            .time(LocalTime.parse(arr[6].trim()))     // HH:mm
+                            .result(norm(arr[7]))                     // "", "null" → null
+                            .score(norm(arr[8]))                      // "", "null" → null
+                            .build();
+
+                    games.add(game);
+                } catch (Exception e) {
+                    System.out.println("[CSV] 파싱 오류로 스킵: " + line + " | err=" + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("[CSV] 파일 예외: " + e.getMessage());
+        }
+
+        return games;
+    }
+
+    // trim + "null"/빈문자 → null 정규화 헬퍼
+    private static String norm(String s) {
+        if (s == null) return null;
+        String v = s.trim();
+        if (v.isEmpty()) return null;
+        if ("null".equalsIgnoreCase(v)) return null;
+        return v;
+    }
+
+    /** 판매 구간 (시간 순서대로 선언 — ordinal 비교 가능) */
+    public enum SalePhase {
+        UNKNOWN,          // 경기 없음 / 시각 누락
+        BEFORE_OPEN,      // now < openAt
+        SENIOR_PRIORITY,  // openAt <= now < seniorOpenAt : 예매 오픈, 시니어석은 시니어 전용
+        GENERAL_OPEN,     // seniorOpenAt <= now < startAt : 시니어석 일반 개방
+        STARTED           // startAt <= now
+    }
+
+    /** 구간 전환 이벤트 (@EventListener 로 구독) */
+    public record PhaseChangedEvent(int gno, SalePhase from, SalePhase to, long atMillis) {}
+
+    /** 경기별 판매 구간 경계 (epoch ms, KST 기준) */
+    @Getter
+    public static final class SaleWindow {
+        private final int gno;
+        private final long openAt;
+        private final long seniorOpenAt;
+        private final long startAt;
+
+        SaleWindow(int gno, long startAt) {
+            this.gno = gno;
+            this.startAt = startAt;
+            this.openAt = startAt - OPEN_BEFORE_MS;
+            this.seniorOpenAt = startAt - SENIOR_OPEN_BEFORE_MS;
+        }
+
+        public SalePhase phaseAt(long now) {
+            if (now < openAt) return SalePhase.BEFORE_OPEN;
+            if (now < seniorOpenAt) return SalePhase.SENIOR_PRIORITY;
+            if (now < startAt) return SalePhase.GENERAL_OPEN;
+            return SalePhase.STARTED;
+        }
+
+        /** now 이후 첫 경계 (없으면 Long.MAX_VALUE) */
+        long nextBoundaryAfter(long now) {
+            if (now < openAt) return openAt;
+            if (now < seniorOpenAt) return seniorOpenAt;
+            if (now < startAt) return startAt;
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 경기 카탈로그 불변 스냅샷
+     * - byGno: gno → GameDto
+     * - byStart/startAt: 시작시각 오름차순 정렬 배열 (date/time 누락 경기는 제외)
+     * - windowByGno: gno → 판매 구간 경계
+     */
+    public static final class Catalog {
+        static final Catalog EMPTY = new Catalog(0L, List.of());
+
+        @Getter private final long version;
+        private final Map<Integer, GameDto> byGno;
+        private final List<GameDto> all;
+        private final GameDto[] byStart;
+        private final long[] startAt;        // byStart와 같은 순서의 시작시각(epoch ms)
+        private final Map<Integer, SaleWindow> windowByGno;
+
+        Catalog(long version, List<GameDto> games) {
+            this.version = version;
+            this.all = List.copyOf(games);
+
+            Map<Integer, GameDto> map = new HashMap<>();
+            List<GameDto> timed = new ArrayList<>();
+            for (GameDto g : games) {
+                map.put(g.getGno(), g);
+                if (startMillis(g) >= 0) timed.add(g);
+            }
+            timed.sort(Comparator.comparingLong(GameCatalogService::startMillis));
+
+            this.byGno = Map.copyOf(map);
+            this.byStart = timed.toArray(new GameDto[0]);
+            this.startAt = new long[byStart.length];
+            Map<Integer, SaleWindow> windows = new HashMap<>();
+            for (int i = 0; i < byStart.length; i++) {
+                startAt[i] = startMillis(byStart[i]);
+                windows.put(byStart[i].getGno(), new SaleWindow(byStart[i].getGno(), startAt[i]));
+            }
+            this.windowByGno = Map.copyOf(windows);
+        }
+
+        /** startAt[i] >= nowMillis 를 만족하는 첫 인덱스 (lower bound) */
+        int firstStartAtOrAfter(long nowMillis) {
+            int lo = 0, hi = startAt.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (startAt[mid] < nowMillis) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -4,29 +4,27 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import phoenix.model.dto.GameDto;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class GameService {
 
 
-    private final FileService fileService;
+    private final GameCatalogService gameCatalog;
 
     public List<GameDto> findAll() {
-        return fileService.loadGames();
+        return gameCatalog.all();
     }
 
+    /** 인메모리 카탈로그 O(1) 조회 */
     public GameDto findByGno(int gno) {
-        return fileService.loadGames().stream()
-                .filter(g -> g.getGno() == gno)
-                .findFirst()
-                .orElse(null);
+        return gameCatalog.get(gno);
+    } // func e
+
+    /** 판매 구간 (카탈로그에 미리 계산된 epoch ms 경계와 비교만 수행) */
+    public GameCatalogService.SalePhase phaseAt(int gno, long nowMillis) {
+        return gameCatalog.phaseAt(gno, nowMillis);
     } // func e
 
     public boolean isReservable(int gno) {
@@ -37,27 +35,10 @@ public class GameService {
 
     /**
      * 오늘 경기 포함 , 아직 시작하지 않은 경기 3개 반환
+     * - 시작시각 정렬 배열에서 이진탐색 후 앞에서부터 3개
      */
     public List<GameDto> findUpcomingGames(){
-        LocalDateTime now = LocalDateTime.now();
-
-        return fileService.loadGames().stream()
-                .filter(g->{
-                    LocalDate date = g.getDate();
-                    LocalTime time = g.getTime();
-
-                    // date/time 둘 중 하나라도 null 이면 그냥 통과
-                    if( date == null || time == null ) return false;
-
-                    LocalDateTime gameDateTime = LocalDateTime.of(date , time);
-                    return !gameDateTime.isBefore(now);
-                })
-                .sorted(Comparator
-                        .comparing(GameDto::getDate)
-                        .thenComparing(GameDto::getTime))
-                .limit(3)
-                .collect(Collectors.toList());
-
+        return gameCatalog.upcoming(System.currentTimeMillis(), 3);
     } // func e
 
 
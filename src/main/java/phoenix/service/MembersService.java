@@ -10,11 +10,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.PostMapping;
 import phoenix.model.dto.MembersDto;
 import phoenix.model.mapper.MembersMapper;
 import org.springframework.stereotype.Service;
 import phoenix.security.JwtUtil;
+import phoenix.security.MemberPrincipal;
 import phoenix.util.PasswordUtil;
 
 import java.time.Duration;
@@ -24,7 +27,10 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -42,6 +48,14 @@ public class MembersService {
     private final TokenService tokenService; // Redis 기반 TokenService 추가
     private final PasswordEncoder passwordEncoder;
     private final RedisTemplate<String, String> redisTemplate;
+    private final ExchangeIndexService exchangeIndexService;
+
+    // 회원 전체 정보 캐시 (mid → 회원, 짧은 TTL) : 전체 행이 필요한 드문 경로용, 수정/상태 변경 시 제거
+    private static final long MEMBER_CACHE_TTL_MS = 30_000;
+    private record CachedMember(MembersDto member, long expiresAt) {}
+    private final Map<String, CachedMember> memberCache = new ConcurrentHashMap<>();
+    // 소셜 계정 → mid ("provider:providerId" → mid) : 세션 OAuth2 로그인도 회원 캐시로 조회 (처음 1번만 DB)
+    private final Map<String, String> providerMidCache = new ConcurrentHashMap<>();
 
     // signUp(), emailSend(), verifyEmail() 등 기존 그대로 유지 (토큰 관련 제거)
 
@@ -88,10 +102,6 @@ public class MembersService {
             throw new IllegalStateException("withdrawn"); // 로그인 차단 + 안내페이지로 이동용
         }
 
-        if (member.getBirthdate() == null) {
-            member.setBirthdate(String.valueOf(LocalDate.of(1900, 1, 1))); // 기본 생일
-        }
-
         if (member.getMphone() == null) {
             member.setMphone("000-0000-0000"); // 임시 전화번호
         }
@@ -104,6 +114,11 @@ public class MembersService {
             String accessToken = jwtUtil.generateToken(member);
             String refreshToken = jwtUtil.generateRefreshToken(member.getMid());
 
+            // 기본 생일은 토큰 발급 후 채움 (senior claim 이 기본값으로 계산되지 않도록)
+            if (member.getBirthdate() == null) {
+                member.setBirthdate(String.valueOf(LocalDate.of(1900, 1, 1))); // 기본 생일
+            }
+
             // Redis에 Refresh Token 저장 (7일 TTL)
             tokenService.saveRefreshToken(member.getMid(), refreshToken, Duration.ofDays(7).toMinutes());
 
@@ -183,7 +198,13 @@ public class MembersService {
         // mid는 인증회원 기준으로 유지
         dto.setMid(mid);
 
-        return membersMapper.infoUpdate(mid, dto) > 0;
+        boolean updated = membersMapper.infoUpdate(mid, dto) > 0;
+        if (updated) evictMember(mid);
+        // 교환 허용 설정이 바뀌면 교환 후보 색인 반영
+        if (updated && !Objects.equals(existing.getExchange(), dto.getExchange())) {
+            exchangeIndexService.memberChanged(existing.getMno());
+        }
+        return updated;
 
     } // func e
 
@@ -202,7 +223,9 @@ public class MembersService {
         if (!passwordEncoder.matches(currentPwd, member.getPassword_hash())) return false;
 
         String newHash = passwordEncoder.encode(newPwd);
-        return membersMapper.pwdUpdate(mid, newHash) > 0;
+        boolean updated = membersMapper.pwdUpdate(mid, newHash) > 0;
+        if (updated) evictMember(mid);
+        return updated;
     } // func e
 
     /**
@@ -219,7 +242,9 @@ public class MembersService {
 
         // 소셜 회원은 비밀번호 검증 스킵
         if(member.getProvider() != null && !member.getProvider().isBlank()){
-            return membersMapper.updateStatus(mid , "withdrawn") > 0;
+            boolean updated = membersMapper.updateStatus(mid , "withdrawn") > 0;
+            if (updated) evictMember(mid);
+            return updated;
         }
 
         // 일반 회원은 비밀번호 검증 필수
@@ -227,7 +252,9 @@ public class MembersService {
             return false;
         }
 
-        return membersMapper.updateStatus(mid , "withdrawn") > 0;
+        boolean updated = membersMapper.updateStatus(mid , "withdrawn") > 0;
+        if (updated) evictMember(mid);
+        return updated;
 
     } // func e
 
@@ -251,7 +278,9 @@ public class MembersService {
             }
         }
 
-        return membersMapper.changeStatus(mid) > 0;
+        boolean updated = membersMapper.changeStatus(mid) > 0;
+        if (updated) evictMember(mid);
+        return updated;
 
     } // func e
 
@@ -265,6 +294,44 @@ public class MembersService {
         return membersMapper.findByMid(mid);
     } // func e
 
+    /**
+     * 아이디(mid)로 회원 정보 조회 (캐시, MEMBER_CACHE_TTL_MS 동안 재사용)
+     * - 반환 객체는 캐시와 공유되므로 수정하지 말 것
+     * @param mid 회원 아이디
+     * @return MembersDto (없으면 null)
+     */
+    public MembersDto findCachedByMid(String mid) {
+        if (mid == null) return null;
+        long now = System.currentTimeMillis();
+        CachedMember cached = memberCache.get(mid);
+        if (cached != null && cached.expiresAt() > now) return cached.member();
+        MembersDto member = membersMapper.findByMid(mid);
+        if (member == null) {
+            memberCache.remove(mid);
+            return null;
+        }
+        memberCache.put(mid, new CachedMember(member, now + MEMBER_CACHE_TTL_MS));
+        if (memberCache.size() > 10_000) memberCache.values().removeIf(c -> c.expiresAt() <= now); // 만료분 정리
+        return member;
+    } // func e
+
+    /**
+     * 회원 캐시 제거 (지금 + 트랜잭션 중이면 커밋 후 한 번 더 → 커밋 전 재조회로 옛 값이 다시 들어가는 것 방지)
+     * @param mid 회원 아이디
+     */
+    public void evictMember(String mid) {
+        if (mid == null) return;
+        memberCache.remove(mid);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    memberCache.remove(mid);
+                }
+            });
+        }
+    } // func e
+
 
     /* ==============================
             아이디 찾기
@@ -351,9 +418,11 @@ public class MembersService {
 
     /**
      * 현재 로그인한 회원 정보 반환(세션 기반)
+     * - JWT 인증(MemberPrincipal) : claims 로 만든 mno, mid, pno, status 만 채운 dto (DB 조회 없음)
      * - 일반 로그인(UserDetails)
-     * - 소셜 로그인(DefaultOAuth2User)
+     * - 소셜 로그인(DefaultOAuth2User) : provider/providerId → mid 는 처음 1번만 DB, 이후 회원 캐시
      * - 직접 저장한 MembersDto
+     * - 생년월일/이메일 등 전체 정보가 필요하면 getLoginMemberDetail()
      */
     public MembersDto getLoginMember() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -364,6 +433,11 @@ public class MembersService {
         // 비로그인 상태
         if (principal.equals("anonymousUser")) return null;
 
+        // JWT 인증 (JwtAuthenticationFilter)
+        if (principal instanceof MemberPrincipal memberPrincipal) {
+            return memberPrincipal.toMembersDto();
+        }
+
         // 소셜 로그인 시 principal에 MembersDto로 저장한 경우
         if (principal instanceof MembersDto memberDto) {
             return memberDto;
@@ -372,7 +446,7 @@ public class MembersService {
         // 일반 로그인
         if (principal instanceof UserDetails userDetails) {
             String mid = userDetails.getUsername();
-            return membersMapper.findByMid(mid);
+            return findCachedByMid(mid);
         }
 
         // OAuth2 로그인(DefaultOAuth2User)
@@ -392,18 +466,50 @@ public class MembersService {
             else if (oAuth2User.getAttributes().get("id") != null)
                 providerId = oAuth2User.getAttributes().get("id").toString();
 
-            return membersMapper.findByProvider(provider, providerId);
+            return findCachedByProvider(provider, providerId);
         }
 
         // principal이 String(mid)인 경우 (혹시 남아있을 때 대비)
         if (principal instanceof String mid) {
-            return membersMapper.findByMid(mid);
+            return findCachedByMid(mid);
         }
 
         return null;
 
     } // func e
 
+    // 소셜 계정으로 회원 조회 (mid 를 한 번 찾으면 findCachedByMid 로 재사용)
+    private MembersDto findCachedByProvider(String provider, String providerId) {
+        if (providerId == null) return membersMapper.findByProvider(provider, providerId);
+        String key = provider + ":" + providerId;
+        String mid = providerMidCache.get(key);
+        if (mid != null) {
+            MembersDto member = findCachedByMid(mid);
+            // 탈퇴/연동 해제 등으로 계정이 바뀌었으면 다시 조회
+            if (member != null && provider.equalsIgnoreCase(member.getProvider())
+                    && providerId.equals(member.getProvider_id())) return member;
+            providerMidCache.remove(key);
+        }
+        MembersDto member = membersMapper.findByProvider(provider, providerId);
+        if (member != null && member.getMid() != null) {
+            if (providerMidCache.size() > 10_000) providerMidCache.clear();
+            providerMidCache.put(key, member.getMid());
+        }
+        return member;
+    } // func e
+
+    /**
+     * 현재 로그인한 회원 전체 정보 (생년월일, 이메일 등)
+     * - JWT 인증이면 회원 캐시(findCachedByMid)에서 조회, 그 외는 getLoginMember() 와 같음
+     */
+    public MembersDto getLoginMemberDetail() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof MemberPrincipal memberPrincipal) {
+            return findCachedByMid(memberPrincipal.mid());
+        }
+        return getLoginMember();
+    } // func e
+
 
 
 
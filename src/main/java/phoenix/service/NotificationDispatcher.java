@@ -0,0 +1,100 @@
+package phoenix.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import phoenix.handler.BaseballSocketHandler;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 푸시 알림 비동기 발송 (모든 웹소켓 알림의 단일 경로)
+ * <p>
+ * - notifyExecutor(고정 크기 풀 + 유한 대기열)에서 발송 → 요청 스레드는 대기하지 않음
+ * - 모든 알림은 먼저 회원 알림함(NotificationInboxService)에 저장 → 읽음 처리 전까지 다음 접속 때 다시 전달
+ * - 대기열이 가득 차면 예외 없이 알림함에만 저장 → 알림 유실 없음
+ * - 전달 순서: 이 노드의 세션 → 회원 토픽 발행(다른 노드 접속) → (미접속이면 저장만)
+ * - 지표: phoenix.notify.queue.depth / phoenix.notify.active (게이지),
+ *         phoenix.notify.sent{via=local|relay} / phoenix.notify.spilled{reason=rejected|offline|error} (카운터)
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationDispatcher {
+
+    private final ThreadPoolTaskExecutor notifyExecutor;
+    private final BaseballSocketHandler baseballSocketHandler;
+    private final NotificationInboxService notificationInboxService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private Counter sentLocal;
+    private Counter sentRelay;
+    private Counter spilledRejected;
+    private Counter spilledOffline;
+    private Counter spilledError;
+
+    @PostConstruct
+    public void initMetrics() {
+        Gauge.builder("phoenix.notify.queue.depth", notifyExecutor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("알림 발송 대기열 길이").register(meterRegistry);
+        Gauge.builder("phoenix.notify.active", notifyExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("알림 발송 중인 스레드 수").register(meterRegistry);
+        sentLocal = Counter.builder("phoenix.notify.sent").tag("via", "local").register(meterRegistry);
+        sentRelay = Counter.builder("phoenix.notify.sent").tag("via", "relay").register(meterRegistry);
+        spilledRejected = Counter.builder("phoenix.notify.spilled").tag("reason", "rejected").register(meterRegistry);
+        spilledOffline = Counter.builder("phoenix.notify.spilled").tag("reason", "offline").register(meterRegistry);
+        spilledError = Counter.builder("phoenix.notify.spilled").tag("reason", "error").register(meterRegistry);
+    }
+
+    /**
+     * 알림 발송 ({"message": msg})
+     *
+     * @param mno 받는 회원번호
+     * @param msg 메시지
+     */
+    public void send(int mno, String msg) {
+        send(mno, null, msg);
+    }// func end
+
+    /**
+     * 알림 발송 ({"type": type, "message": msg})
+     *
+     * @param mno 받는 회원번호
+     * @param type 알림 종류 (null 이면 생략)
+     * @param msg 메시지 (미접속 시 알림함에 저장되는 내용)
+     */
+    public void send(int mno, String type, String msg) {
+        try {
+            notifyExecutor.execute(() -> deliver(mno, type, msg));
+        } catch (RejectedExecutionException e) {
+            // 대기열 초과 → 알림함에만 저장 (접속 시 전달)
+            spilledRejected.increment();
+            notificationInboxService.push(mno, type, msg);
+        }// try end
+    }// func end
+
+    // 발송 스레드: 알림함 저장 → 로컬 세션 → 다른 노드(토픽)
+    private void deliver(int mno, String type, String msg) {
+        try {
+            String json = objectMapper.writeValueAsString(notificationInboxService.push(mno, type, msg));
+
+            if (baseballSocketHandler.sendLocal(mno, json)) {
+                sentLocal.increment();
+                return;
+            }
+            if (baseballSocketHandler.publish(mno, json) > 0) {
+                sentRelay.increment();
+                return;
+            }
+            spilledOffline.increment();
+        } catch (Exception e) {
+            System.out.println("[Notify] 푸시 실패 mno=" + mno + " | " + e.getMessage());
+            spilledError.increment();
+        }// try end
+    }// func end
+}// class end
@@ -0,0 +1,206 @@
+package phoenix.service;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+import phoenix.model.dto.SocketFrameDto.Alarm;
+import phoenix.util.RedisKeys;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 회원 알림함 (Redis Stream, 회원당 1개)
+ * <p>
+ * - inbox:{mno}        (stream) 알림 전체 이력, 필드 t = 종류(없으면 생략), m = 메시지
+ * - inbox:cursor:{mno} (string) 읽은 위치 (마지막으로 확인한 엔트리 id)
+ * - 저장할 때마다 XTRIM MINID 로 보관 기간(INBOX_TTL_MS)이 지난 엔트리 제거, MAXLEN 으로 건수 상한
+ *   → 자정 전체 스캔 없이 회원별로 정리, 키 TTL 도 함께 갱신
+ * - 접속/발송 성공 여부와 관계없이 먼저 저장 → 읽음 처리(ack) 전까지 미확인으로 남음
+ * - 엔트리 id 는 "ms-seq" 이므로 id 만으로 저장 시각과 순서를 알 수 있음
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationInboxService {
+
+    private final RedissonClient redisson;
+
+    private static final long INBOX_TTL_MS = 7L * 86400 * 1000;   // 보관 기간
+    private static final int INBOX_CAP = 500;                     // 회원당 최대 보관 건수
+    public static final int MAX_PAGE = 100;                       // 한 번에 읽는 최대 건수
+    private static final Pattern STREAM_ID = Pattern.compile("^\\d+-\\d+$");
+
+    // 저장: XADD + 기간/건수 정리 + TTL 갱신 → 엔트리 id
+    // KEYS[1]=inbox:{mno}, KEYS[2]=inbox:cursor:{mno} / ARGV: type('' 이면 생략), message, ttlMs, cap
+    private static final String PUSH_LUA = """
+            local id
+            if ARGV[1] == '' then
+              id = redis.call('XADD', KEYS[1], '*', 'm', ARGV[2])
+            else
+              id = redis.call('XADD', KEYS[1], '*', 't', ARGV[1], 'm', ARGV[2])
+            end
+            local ms = tonumber(string.match(id, '^(%d+)-'))
+            redis.call('XTRIM', KEYS[1], 'MINID', '~', string.format('%d', ms - tonumber(ARGV[3])))
+            redis.call('XTRIM', KEYS[1], 'MAXLEN', '~', ARGV[4])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            redis.call('PEXPIRE', KEYS[2], ARGV[3])
+            return id
+            """;
+
+    // 읽은 위치(또는 after) 이후 (오래된 순) → {cursor, entries}
+    // KEYS[1]=inbox:{mno}, KEYS[2]=inbox:cursor:{mno} / ARGV: count, after('' 이면 읽은 위치부터)
+    private static final String UNREAD_LUA = """
+            local c = redis.call('GET', KEYS[2]) or '0-0'
+            local from = c
+            if ARGV[2] ~= '' then from = ARGV[2] end
+            return {c, redis.call('XRANGE', KEYS[1], '(' .. from, '+', 'COUNT', ARGV[1])}
+            """;
+
+    // before 이전 (최신 순, before 가 '' 이면 처음부터) → {cursor, entries}
+    // KEYS[1]=inbox:{mno}, KEYS[2]=inbox:cursor:{mno} / ARGV: before, count
+    private static final String HISTORY_LUA = """
+            local hi = '+'
+            if ARGV[1] ~= '' then hi = '(' .. ARGV[1] end
+            local c = redis.call('GET', KEYS[2]) or '0-0'
+            return {c, redis.call('XREVRANGE', KEYS[1], hi, '-', 'COUNT', ARGV[2])}
+            """;
+
+    // 읽은 위치 전진 (뒤로 가지 않음, 마지막 엔트리를 넘지 않음) → 1: 변경, 0: 그대로
+    // KEYS[1]=inbox:{mno}, KEYS[2]=inbox:cursor:{mno} / ARGV: id, ttlMs
+    private static final String ACK_LUA = """
+            local function parse(id)
+              local a, b = string.match(id, '^(%d+)-(%d+)$')
+              if not a then return nil end
+              return {tonumber(a), tonumber(b)}
+            end
+            local function le(x, y) return x[1] < y[1] or (x[1] == y[1] and x[2] <= y[2]) end
+            local want = parse(ARGV[1])
+            if not want then return 0 end
+            local last = redis.call('XREVRANGE', KEYS[1], '+', '-', 'COUNT', 1)
+            if #last == 0 then return 0 end
+            local id = ARGV[1]
+            if not le(want, parse(last[1][1])) then id = last[1][1]; want = parse(id) end
+            local cur = parse(redis.call('GET', KEYS[2]) or '0-0')
+            if le(want, cur) then return 0 end
+            redis.call('SET', KEYS[2], id, 'PX', ARGV[2])
+            return 1
+            """;
+
+    private RScript script() { return redisson.getScript(StringCodec.INSTANCE); }
+
+    private List<Object> keys(int mno) {
+        return List.<Object>of(RedisKeys.keyInbox(mno), RedisKeys.keyInboxCursor(mno));
+    }
+
+    /**
+     * 알림 저장
+     *
+     * @param mno 회원번호
+     * @param type 알림 종류 (null 가능)
+     * @param message 메시지
+     * @return 저장된 알림 (id / 저장 시각 포함)
+     */
+    public Alarm push(int mno, String type, String message) {
+        String id = script().eval(RScript.Mode.READ_WRITE, PUSH_LUA, RScript.ReturnType.VALUE, keys(mno),
+                type == null ? "" : type, message, String.valueOf(INBOX_TTL_MS), String.valueOf(INBOX_CAP));
+        return new Alarm(id, type, message, timeOf(id), null);
+    }// func end
+
+    /**
+     * 읽지 않은 알림 (오래된 순)
+     *
+     * @param mno 회원번호
+     * @param size 최대 건수 (MAX_PAGE 까지)
+     */
+    public List<Alarm> unread(int mno, int size) {
+        return unread(mno, null, size);
+    }// func end
+
+    /**
+     * 읽지 않은 알림 다음 페이지 (오래된 순)
+     * - 로그인 시 after 를 직전 페이지 마지막 id 로 넘기며 빈 페이지가 나올 때까지 반복
+     *   (읽음 처리 전이라 읽은 위치가 그대로이므로 after 로 이어 읽음)
+     *
+     * @param mno 회원번호
+     * @param after 이 id 이후부터 (null 이면 읽은 위치 이후부터)
+     * @param size 최대 건수 (MAX_PAGE 까지)
+     */
+    public List<Alarm> unread(int mno, String after, int size) {
+        if (after != null && !STREAM_ID.matcher(after).matches()) after = null;
+        List<Object> r = script().eval(RScript.Mode.READ_ONLY, UNREAD_LUA, RScript.ReturnType.MULTI, keys(mno),
+                String.valueOf(clamp(size)), after == null ? "" : after);
+        return toAlarms(r, false);
+    }// func end
+
+    /** 회원당 최대 보관 건수 (로그인 시 페이지 반복 상한 계산용) */
+    public static int capacity() {
+        return INBOX_CAP;
+    }
+
+    /**
+     * 알림 이력 (최신 순 페이지)
+     *
+     * @param mno 회원번호
+     * @param before 이 id 보다 이전 것부터 (null 이면 최신부터)
+     * @param size 최대 건수 (MAX_PAGE 까지)
+     */
+    public List<Alarm> history(int mno, String before, int size) {
+        if (before != null && !STREAM_ID.matcher(before).matches()) before = null;
+        List<Object> r = script().eval(RScript.Mode.READ_ONLY, HISTORY_LUA, RScript.ReturnType.MULTI, keys(mno),
+                before == null ? "" : before, String.valueOf(clamp(size)));
+        return toAlarms(r, true);
+    }// func end
+
+    /**
+     * id 까지 읽음 처리
+     *
+     * @param mno 회원번호
+     * @param id 마지막으로 확인한 알림 id
+     * @return 읽은 위치가 바뀌었으면 true
+     */
+    public boolean ack(int mno, String id) {
+        if (id == null || !STREAM_ID.matcher(id.trim()).matches()) return false;
+        Long r = script().eval(RScript.Mode.READ_WRITE, ACK_LUA, RScript.ReturnType.INTEGER, keys(mno),
+                id.trim(), String.valueOf(INBOX_TTL_MS));
+        return r != null && r == 1;
+    }// func end
+
+    // {cursor, [[id, [f, v, ...]], ...]} → Alarm 목록
+    private List<Alarm> toAlarms(List<Object> r, boolean withRead) {
+        List<Alarm> out = new ArrayList<>();
+        if (r == null || r.size() < 2) return out;
+        String cursor = String.valueOf(r.get(0));
+        for (Object e : (List<?>) r.get(1)) {
+            List<?> entry = (List<?>) e;
+            String id = String.valueOf(entry.get(0));
+            List<?> fields = (List<?>) entry.get(1);
+            String type = null, message = null;
+            for (int i = 0; i + 1 < fields.size(); i += 2) {
+                String f = String.valueOf(fields.get(i));
+                if ("t".equals(f)) type = String.valueOf(fields.get(i + 1));
+                else if ("m".equals(f)) message = String.valueOf(fields.get(i + 1));
+            }
+            out.add(new Alarm(id, type, message, timeOf(id), withRead ? compare(id, cursor) <= 0 : null));
+        }
+        return out;
+    }// func end
+
+    private static int clamp(int size) {
+        return Math.max(1, Math.min(MAX_PAGE, size));
+    }
+
+    private static Long timeOf(String id) {
+        int dash = id == null ? -1 : id.indexOf('-');
+        return dash > 0 ? Long.parseLong(id.substring(0, dash)) : null;
+    }
+
+    // 스트림 id 비교 ("ms-seq")
+    private static int compare(String a, String b) {
+        int da = a.indexOf('-'), db = b.indexOf('-');
+        int c = Long.compare(Long.parseLong(a.substring(0, da)), Long.parseLong(b.substring(0, db)));
+        return c != 0 ? c : Long.compare(Long.parseLong(a.substring(da + 1)), Long.parseLong(b.substring(db + 1)));
+    }
+}// class end
@@ -4,13 +4,19 @@ package phoenix.service;
 import jakarta.annotation.PostConstruct;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * CSV 로더
@@ -20,6 +26,11 @@ import java.util.*;
  * 사용 필드
  * - 팀: teamno, name
  * - 선수: pno, name, pos, teamNo
+ *
+ * 핫 리로드
+ * - 로스터는 불변 {@link Snapshot}으로 만들어 AtomicReference로 공개 (읽기 측 락 없음)
+ * - phoenix.meta.dir 의 CSV가 있으면 우선 사용, 파일 변경 시 검증 후 교체
+ * - 행 하나라도 형식 오류면 리로드 실패 → 기존 스냅샷 유지
  */
 @Service
 public class PlayerCsvService {
@@ -33,88 +44,170 @@ public class PlayerCsvService {
         private final int teamNo;
     }
 
-    private final Map<Integer, PlayerInfo> playerByPno = new HashMap<>();
-    private final Map<Integer, String> teamNameByNo = new HashMap<>();
+    private static final String TEAM_CSV = "team.csv";
+    private static final String PLAYER_CSV = "player.csv";
+
+    /** 외부 메타 디렉터리 (비어 있으면 classpath static/ 만 사용) */
+    @Value("${phoenix.meta.dir:}")
+    private String metaDir;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicLong versionSeq = new AtomicLong();
+    private volatile long lastSeenModified = -1L;
 
     @PostConstruct
     public void load() {
-        loadTeams("static/team.csv");
-        loadPlayers("static/player.csv");
+        Snapshot snap;
+        try {
+            snap = readSnapshot(false);
+        } catch (Exception e) {
+            // 기동 시에는 기존처럼 경고 후 빈 로스터로 시작 (리로드로 복구)
+            System.out.println("[PlayerCsv] 로스터 로드 실패(빈 로스터로 시작): " + e.getMessage());
+            snap = new Snapshot(versionSeq.incrementAndGet(), Map.of(), Map.of());
+        }
+        current.set(snap);
+        lastSeenModified = externalLastModified();
+    }
+
+    /**
+     * 로스터 리로드 (관리자 엔드포인트/파일 변경 감지에서 호출)
+     * - 검증 실패 시 기존 스냅샷 유지 후 예외
+     *
+     * @return 새로 공개된 스냅샷 버전
+     */
+    public synchronized long reload() {
+        Snapshot snap = readSnapshot(true);
+        current.set(snap);
+        System.out.println("[PlayerCsv] 로스터 리로드 완료 version=" + snap.getVersion()
+                + " players=" + snap.getPlayers().size());
+        return snap.getVersion();
+    }
+
+    /** 외부 디렉터리의 CSV 변경 감지 (mtime 폴링) */
+    @Scheduled(fixedDelay = 5000)
+    public void watchMetaDir() {
+        long modified = externalLastModified();
+        if (modified < 0 || modified == lastSeenModified) return;
+        try {
+            reload();
+        } catch (Exception e) {
+            System.out.println("[PlayerCsv] 로스터 리로드 실패(기존 유지): " + e.getMessage());
+        }
+        lastSeenModified = modified;
     }
 
     // ───────────────────────────────────────────────────────────
     // Public getters
     // ───────────────────────────────────────────────────────────
-    public PlayerInfo findByPno(int pno) { return playerByPno.get(pno); }
-    public String findTeamName(int teamNo) { return teamNameByNo.get(teamNo); }
+    public Snapshot snapshot() { return current.get(); }
+    public PlayerInfo findByPno(int pno) { return current.get().playerByPno.get(pno); }
+    public String findTeamName(int teamNo) { return current.get().teamNameByNo.get(teamNo); }
 
-    /** 전체 선수 목록(정렬 포함) */
+    /** 전체 선수 목록(정렬 포함, 스냅샷 생성 시 1회 정렬된 불변 리스트) */
     public List<PlayerInfo> findAllPlayers() {
-        return playerByPno.values().stream()
-                .sorted(Comparator.comparing(PlayerInfo::getTeamNo)
-                        .thenComparing(PlayerInfo::getName))
-                .toList(); // Java 16+: 불변 리스트
+        return current.get().getPlayers();
     } // func e
 
-
-
-
     // ───────────────────────────────────────────────────────────
     // CSV loaders
     // ───────────────────────────────────────────────────────────
-    private void loadTeams(String path) {
-        try (var br = open(path)) {
+    private Snapshot readSnapshot(boolean strict) {
+        Map<Integer, String> teams = loadTeams();
+        Map<Integer, PlayerInfo> players = loadPlayers();
+        // 기동 시에는 기존처럼 경고만, 리로드 시에는 빈 로스터로 교체하지 않음
+        if (strict && (teams.isEmpty() || players.isEmpty())) {
+            throw new IllegalStateException("team/player csv is empty");
+        }
+        return new Snapshot(versionSeq.incrementAndGet(), teams, players);
+    }
+
+    // 행 하나라도 형식 오류면 예외 → 리로드 실패, 기존 스냅샷 유지
+    private Map<Integer, String> loadTeams() {
+        Map<Integer, String> teamNameByNo = new HashMap<>();
+        int lineNo = 1;
+        try (var br = open(TEAM_CSV)) {
             String line = readHeader(br); // skip header
             while ((line = br.readLine()) != null) {
+                lineNo++;
                 if (line.isBlank()) continue;
                 String[] t = line.split(",", -1);
-                if (t.length < 2) continue; // teamno, name[, logo]
+                if (t.length < 2) throw new IllegalArgumentException("column count " + t.length); // teamno, name[, logo]
 
                 String teamNoStr = t[0].trim();
                 String name = t[1].trim();
-                if (teamNoStr.isEmpty() || name.isEmpty()) continue;
+                if (teamNoStr.isEmpty() || name.isEmpty()) throw new IllegalArgumentException("empty teamno/name");
 
                 int teamno = Integer.parseInt(teamNoStr);
-                teamNameByNo.put(teamno, name);
+                if (teamNameByNo.put(teamno, name) != null) throw new IllegalArgumentException("duplicate teamno " + teamno);
             }
         } catch (Exception e) {
-            System.out.println("[PlayerCsv] teams load warn: " + e.getMessage());
+            throw new IllegalStateException("team.csv line " + lineNo + " error: " + e.getMessage(), e);
         }
+        return teamNameByNo;
     }
 
-    private void loadPlayers(String path) {
-        try (var br = open(path)) {
+    private Map<Integer, PlayerInfo> loadPlayers() {
+        Map<Integer, PlayerInfo> playerByPno = new HashMap<>();
+        int lineNo = 1;
+        try (var br = open(PLAYER_CSV)) {
             String line = readHeader(br); // skip header
             while ((line = br.readLine()) != null) {
+                lineNo++;
                 if (line.isBlank()) continue;
                 String[] t = line.split(",", -1);
-                if (t.length < 4) continue; // pno,name,pos,teamNo
+                if (t.length < 4) throw new IllegalArgumentException("column count " + t.length); // pno,name,pos,teamNo
 
                 String pnoStr   = t[0].trim();
                 String name     = t[1].trim();
                 String pos      = t[2].trim();
                 String teamNoStr= t[3].trim();
 
-                if (pnoStr.isEmpty() || name.isEmpty() || pos.isEmpty() || teamNoStr.isEmpty()) continue;
+                if (pnoStr.isEmpty() || name.isEmpty() || pos.isEmpty() || teamNoStr.isEmpty())
+                    throw new IllegalArgumentException("empty column");
 
                 int pno    = Integer.parseInt(pnoStr);
                 int teamNo = Integer.parseInt(teamNoStr);
 
-                playerByPno.put(pno, new PlayerInfo(pno, name, pos, teamNo));
+                if (playerByPno.put(pno, new PlayerInfo(pno, name, pos, teamNo)) != null)
+                    throw new IllegalArgumentException("duplicate pno " + pno);
             }
         } catch (Exception e) {
-            System.out.println("[PlayerCsv] players load warn: " + e.getMessage());
+            throw new IllegalStateException("player.csv line " + lineNo + " error: " + e.getMessage(), e);
         }
+        return playerByPno;
     }
 
     // ───────────────────────────────────────────────────────────
     // IO helpers
     // ───────────────────────────────────────────────────────────
-    private BufferedReader open(String path) throws Exception {
-        var res = new ClassPathResource(path);
+    private BufferedReader open(String fileName) throws Exception {
+        Path external = externalFile(fileName);
+        if (external != null && Files.exists(external)) {
+            return Files.newBufferedReader(external, StandardCharsets.UTF_8);
+        }
+        var res = new ClassPathResource("static/" + fileName);
         return new BufferedReader(new InputStreamReader(res.getInputStream(), StandardCharsets.UTF_8));
     }
 
+    private Path externalFile(String fileName) {
+        return (metaDir == null || metaDir.isBlank()) ? null : Path.of(metaDir, fileName);
+    }
+
+    /** 외부 CSV 중 가장 최근 수정시각 (외부 디렉터리 미사용/파일 없음이면 -1) */
+    private long externalLastModified() {
+        long latest = -1L;
+        for (String f : List.of(TEAM_CSV, PLAYER_CSV)) {
+            Path p = externalFile(f);
+            if (p == null) return -1L;
+            try {
+                if (Files.exists(p)) latest = Math.max(latest, Files.getLastModifiedTime(p).toMillis());
+            } catch (Exception e) {
+                System.out.println("[PlayerCsv] " + f + " 수정시각 확인 실패: " + e.getMessage());
+            }
+        }
+        return latest;
+    }
+
     /** 첫 줄 헤더를 읽되, BOM이 있으면 제거해서 반환 */
     private String readHeader(BufferedReader br) throws Exception {
         String header = br.readLine();
@@ -125,4 +218,22 @@ public class PlayerCsvService {
         }
         return header;
     }
+
+    /** 팀/선수 불변 스냅샷 */
+    public static final class Snapshot {
+        @Getter private final long version;
+        private final Map<Integer, PlayerInfo> playerByPno;
+        private final Map<Integer, String> teamNameByNo;
+        @Getter private final List<PlayerInfo> players;
+
+        Snapshot(long version, Map<Integer, String> teams, Map<Integer, PlayerInfo> players) {
+            this.version = version;
+            this.playerByPno = Map.copyOf(players);
+            this.teamNameByNo = Map.copyOf(teams);
+            this.players = players.values().stream()
+                    .sorted(Comparator.comparing(PlayerInfo::getTeamNo)
+                            .thenComparing(PlayerInfo::getName))
+                    .toList(); // Java 16+: 불변 리스트
+        }
+    }
 }
@@ -0,0 +1,185 @@
+package phoenix.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import phoenix.model.mapper.TicketsMapper;
+import phoenix.util.TicketCodes;
+import phoenix.util.TicketsQR;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 티켓 QR 이미지 (요청 시 렌더링 + LRU 메모리 캐시)
+ * - 발급 시에는 이미지 작업/디스크 I/O 없이 UUID만 저장
+ * - GET /tickets/qr-image/{uuid} 최초 요청 때 ZXing으로 PNG 생성 → UUID 키로 캐시
+ * - QR 내용은 UUID로만 결정되므로 한 번 만든 이미지는 변하지 않음 (ETag = UUID)
+ * - 캐시에 소유 회원번호를 함께 저장 → 본인 티켓만 반환 (다른 회원 티켓/없는 티켓은 같은 응답)
+ * - PNG 는 TicketsQR.TicketQrPng 로 모듈 행렬에서 바로 1-bit 인코딩 (ImageIO 미사용)
+ */
+@Service
+@RequiredArgsConstructor
+public class QrImageService {
+
+    private final TicketsMapper ticketsMapper;
+    private final TicketCodes ticketCodes;
+    private final ThreadPoolTaskExecutor qrRenderExecutor;
+
+    /** QR 스캔 URL 기준 주소 (도메인생기면 여기만 수정) */
+    private static final String SCAN_BASE_URL = "http://localhost:8080";
+    private static final String IMAGE_PATH_PREFIX = "/tickets/qr-image/";
+    private static final int QR_SIZE = 200;
+    private static final int RENDER_BATCH = 64;     // 렌더링 작업 1건당 QR 수
+    private static final int LOOKUP_BATCH = 1000;   // 존재 확인 IN 절 1회 건수
+
+    /** 캐시 최대 항목 수 (200px PNG 1장 ≈ 1KB) */
+    @Value("${phoenix.qr.cache-size:10000}")
+    private int cacheSize;
+
+    // 캐시 항목: 소유 회원번호 + PNG
+    private record CachedQr(int mno, byte[] png) {}
+
+    // access-order LinkedHashMap → 가장 오래 안 쓴 항목부터 제거
+    private final Map<String, CachedQr> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedQr> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    /** QR 안에 담기는 스캔 URL */
+    public static String scanUrl(String uuid) {
+        return SCAN_BASE_URL + "/tickets/qr?qr=" + uuid;
+    }
+
+    /** tickets.ticket_code 에 저장되는 이미지 경로 (UUID로부터 결정) */
+    public static String imagePath(String uuid) {
+        return IMAGE_PATH_PREFIX + uuid;
+    }
+
+    /** 응답 ETag (이미지가 UUID로만 결정되므로 UUID 자체를 사용) */
+    public static String etag(String uuid) {
+        return "\"qr-" + uuid + "\"";
+    }
+
+    /**
+     * If-None-Match 가 이 UUID 의 ETag 와 맞는지 (RFC 9110 약한 비교)
+     * - 쉼표로 나열된 여러 태그, W/ 접두사, "*" 허용
+     *
+     * @param ifNoneMatch 요청 헤더 값 (null 가능)
+     * @param uuid 티켓 UUID
+     */
+    public static boolean etagMatches(String ifNoneMatch, String uuid) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        String etag = etag(uuid);
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) return true;
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /** 티켓 코드 형식/검증자 확인 (위조 코드는 렌더링/DB 조회 전에 거절) */
+    public boolean isValidUuid(String uuid) {
+        return ticketCodes.isValid(uuid);
+    }
+
+    /**
+     * 회원 본인 티켓의 QR PNG 반환
+     * - 캐시 적중 시 소유자만 확인하고 반환
+     * - 미적중 시 티켓 소유자 조회 후 렌더링 (렌더링은 락 밖에서 수행)
+     *
+     * @param uuid 티켓 UUID
+     * @param mno 로그인 회원번호
+     * @return PNG 바이트, 존재하지 않거나 다른 회원의 티켓이면 null (두 경우를 구분하지 않음)
+     */
+    public byte[] getPng(String uuid, int mno) {
+        if (!isValidUuid(uuid)) return null;
+
+        CachedQr cached;
+        synchronized (cache) {
+            cached = cache.get(uuid);
+        }
+        if (cached == null) {
+            List<Map<String, Object>> rows = ticketsMapper.findOwnersByUuids(List.of(uuid));
+            if (rows.isEmpty()) return null;
+            cached = new CachedQr(((Number) rows.get(0).get("mno")).intValue(), TicketsQR.TicketQrPng(scanUrl(uuid), QR_SIZE));
+            synchronized (cache) {
+                cache.put(uuid, cached);
+            }
+        }
+        return cached.mno() == mno ? cached.png() : null;
+    }// func end
+
+    /**
+     * QR PNG 일괄 렌더링 (발급 직후 캐시 예열 등)
+     * - 형식이 잘못된 코드, DB 에 없는 티켓은 제외 (getPng 와 같은 기준으로만 공유 캐시에 저장)
+     * - RENDER_BATCH 개씩 나눠 qrRenderExecutor 에서 병렬 렌더링, 결과는 캐시에도 저장
+     *
+     * @param requested 티켓 UUID 목록
+     * @return uuid → PNG (입력 순서 유지)
+     */
+    public Map<String, byte[]> renderAll(List<String> requested) {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        if (requested == null || requested.isEmpty()) return result;
+
+        // 존재 확인 (IN 절 LOOKUP_BATCH 건씩)
+        List<String> candidates = new ArrayList<>(requested.size());
+        for (String uuid : requested) {
+            if (isValidUuid(uuid)) candidates.add(uuid);
+        }
+        Map<String, Integer> owners = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i += LOOKUP_BATCH) {
+            List<String> part = candidates.subList(i, Math.min(candidates.size(), i + LOOKUP_BATCH));
+            for (Map<String, Object> row : ticketsMapper.findOwnersByUuids(part)) {
+                owners.put((String) row.get("ticket_uuid"), ((Number) row.get("mno")).intValue());
+            }
+        }// for end
+        List<String> uuids = new ArrayList<>(owners.size());
+        for (String uuid : candidates) {
+            if (owners.containsKey(uuid)) uuids.add(uuid);
+        }
+        if (uuids.isEmpty()) return result;
+
+        List<CompletableFuture<byte[][]>> futures = new ArrayList<>();
+        for (int i = 0; i < uuids.size(); i += RENDER_BATCH) {
+            List<String> part = uuids.subList(i, Math.min(uuids.size(), i + RENDER_BATCH));
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                byte[][] pngs = new byte[part.size()][];
+                for (int j = 0; j < part.size(); j++) {
+                    pngs[j] = TicketsQR.TicketQrPng(scanUrl(part.get(j)), QR_SIZE);
+                }
+                return pngs;
+            }, qrRenderExecutor));
+        }// for end
+
+        for (int f = 0; f < futures.size(); f++) {
+            byte[][] pngs = futures.get(f).join();
+            for (int j = 0; j < pngs.length; j++) {
+                if (pngs[j] != null) result.put(uuids.get(f * RENDER_BATCH + j), pngs[j]);
+            }
+        }// for end
+        synchronized (cache) {
+            for (Map.Entry<String, byte[]> e : result.entrySet()) {
+                cache.put(e.getKey(), new CachedQr(owners.get(e.getKey()), e.getValue()));
+            }
+        }
+        return result;
+    }// func end
+
+    /** 캐시에서 제거 (티켓 재발급 등) */
+    public void evict(String uuid) {
+        if (uuid == null) return;
+        synchronized (cache) {
+            cache.remove(uuid);
+        }
+    }
+}// class end
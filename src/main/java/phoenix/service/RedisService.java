@@ -3,109 +3,86 @@ package phoenix.service; // 패키지명
 import lombok.RequiredArgsConstructor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.redisson.api.RLock;
+import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.stereotype.Service;
-import com.fasterxml.jackson.core.type.TypeReference;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import phoenix.model.dto.ReservationExchangesDto;
-
-
+import phoenix.util.RedisKeys;
+
+
+/**
+ * 좌석 교환 요청 저장소 (Redis)
+ * <p>
+ * - change:request:{from_rno} (hash)  to = 응답 예매번호, dto = 요청 JSON  → 요청자당 진행중 요청 1건
+ * - change:seat:{to_rno}      (set)   응답 예매번호로 들어온 from_rno 목록 (역인덱스, 응답자 조회 O(1))
+ * - 등록/삭제는 Lua 1회로 요청 hash 와 역인덱스를 함께 변경 → 락/synchronized 없이 원자적
+ * - 모든 키는 24시간 TTL (자정 전체 스캔 정리 대신 만료)
+ * - 역인덱스에 남은 만료 요청은 조회 시 정리
+ */
 @Service @RequiredArgsConstructor
-@EnableScheduling
 public class RedisService { // class start
-    private final RedisTemplate<String,Object> redisTemplate;
     private final RedissonClient redissonClient;
     private final ObjectMapper objectMapper;
 
-
-
-
-    public static Map< String , Object > requestMap = new HashMap<>();
-    public static Map< String , List<Integer>> seatMap = new HashMap<>();
-    public static Map<String,List<String>> alarmMap = new HashMap<>();
-
+    private static final long TTL_SEC = 86400; // 24시간
+
+    // KEYS[1]=request:{from}, KEYS[2]=seat:{to} / ARGV: from, to, json, ttl
+    // 1: 저장, 0: 이미 진행중인 요청 있음
+    private static final String SAVE_LUA = """
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            redis.call('HSET', KEYS[1], 'to', ARGV[2], 'dto', ARGV[3])
+            redis.call('EXPIRE', KEYS[1], tonumber(ARGV[4]))
+            redis.call('SADD', KEYS[2], ARGV[1])
+            redis.call('EXPIRE', KEYS[2], tonumber(ARGV[4]))
+            return 1
+            """;
+
+    // 요청 1건 꺼내기(삭제) + 역인덱스 정리 → 요청 JSON (없으면 nil, 응답 예매번호가 바뀌었으면 빈 문자열 → 다시 조회)
+    // KEYS[1]=request:{from}, KEYS[2]=seat:{to} / ARGV: from, to
+    private static final String TAKE_LUA = """
+            local v = redis.call('HMGET', KEYS[1], 'to', 'dto')
+            if not v[1] then return false end
+            if v[1] ~= ARGV[2] then return '' end
+            redis.call('DEL', KEYS[1])
+            redis.call('SREM', KEYS[2], ARGV[1])
+            return v[2]
+            """;
+
+    // 응답 예매번호로 들어온 요청 전체 삭제 → 삭제된 요청 JSON 목록
+    // 역인덱스 멤버는 호출 전에 읽어서 요청 키를 KEYS 로 전달 (그 사이 새로 들어온 요청은 남겨 둠)
+    // KEYS[1]=seat:{to}, KEYS[2..]=request:{from} / ARGV[1]=to, ARGV[2..]=from (KEYS[i+1] 과 같은 순서)
+    private static final String TAKE_ALL_LUA = """
+            local out = {}
+            for i = 2, #KEYS do
+              local v = redis.call('HMGET', KEYS[i], 'to', 'dto')
+              if v[1] == ARGV[1] then
+                redis.call('DEL', KEYS[i])
+                table.insert(out, v[2])
+              end
+              redis.call('SREM', KEYS[1], ARGV[i])
+            end
+            return out
+            """;
+
+    private RScript script() { return redissonClient.getScript(StringCodec.INSTANCE); }
 
     /**
      * redis에 요청데이터 저장
      *
      * @param dto 요청Dto
-     * @return int 성공 : 1 , 요청중인사람존재 : 2 , 요청자가 다른좌석에 요청중 : 0
+     * @return int 성공 : 1 , 요청자가 다른좌석에 요청중 : 0
      */
-    public synchronized int saveRequest(ReservationExchangesDto dto) {
-        // 1️⃣ Key 정의
-        String requestKey = "change:request:" + dto.getFrom_rno(); // 요청자 기준 키
-        String seatKey = "change:seat:" + dto.getTo_rno();         // 응답자 기준 키 (Hash)
-        //RLock lock = redissonClient.getLock(seatKey);              // 응답자 단위 분산 락
-
-        //try {
-            // 2️⃣ 락 시도 (2초 대기, 5초 자동 해제)
-            //if (!lock.tryLock(2, 5, TimeUnit.SECONDS)) return 2;
-
-            // 3️⃣ 요청자 키 저장 (이미 존재하면 실패)
-            //Boolean saved = redisTemplate.opsForValue()
-            //        .setIfAbsent(requestKey, dto, 86400, TimeUnit.SECONDS); // serialize 제거, Jackson 사용
-            //if (saved == null || !saved) return 0; // 이미 요청한 경우
-
-            // 1️⃣ 기존 Hash에서 Set 가져오기
-            //Set<Integer> seatSet = (Set<Integer>) redisTemplate.opsForHash().get(seatKey, "from_rnos");
-            //if (seatSet == null) seatSet = new HashSet<>();
-            //
-            //// 2️⃣ 현재 요청자 추가
-            //seatSet.add(dto.getFrom_rno());
-            //
-            //// 3️⃣ Hash에 Set으로 저장
-            //String json = new ObjectMapper().writeValueAsString(seatSet);
-            //redisTemplate.opsForHash().put(seatKey, "from_rnos", json);
-            //
-            //// TTL 설정 (24시간)
-            //redisTemplate.expire(seatKey, 86400, TimeUnit.SECONDS);
-            //
-            //
-            //// 요청자 기준 Key 확인
-            //Object requestCheck = redisTemplate.opsForValue().get(requestKey);
-            //if (requestCheck != null) {
-            //    System.out.println(requestKey);
-            //    System.out.println("✅ requestKey 저장 성공: " + requestCheck);
-            //} else {
-            //    System.out.println("❌ requestKey 저장 실패");
-            //}
-            //// 응답자 기준 Hash 확인
-            //Map<Object, Object> seatHashCheck = redisTemplate.opsForHash().entries(seatKey);
-            //if (seatHashCheck != null && !seatHashCheck.isEmpty()) {
-            //    System.out.println(seatKey);
-            //    System.out.println("✅ seatKey Hash 저장 성공: " + seatHashCheck);
-            //} else {
-            //    System.out.println("❌ seatKey Hash 저장 실패");
-            //}
-        if (requestMap.get(requestKey) != null || seatMap.containsValue(dto.getFrom_rno())) return 0;
-        List<Integer> list = new ArrayList<>();
-        list.add(dto.getFrom_rno());
-        requestMap.put(requestKey,dto);
-        seatMap.put(seatKey,list);
-
-        return 1; // 성공
+    public int saveRequest(ReservationExchangesDto dto) {
+        Long r = script().eval(RScript.Mode.READ_WRITE, SAVE_LUA, RScript.ReturnType.INTEGER,
+                List.<Object>of(RedisKeys.keyChangeRequest(dto.getFrom_rno()), RedisKeys.keyChangeSeat(dto.getTo_rno())),
+                String.valueOf(dto.getFrom_rno()), String.valueOf(dto.getTo_rno()), serialize(dto), String.valueOf(TTL_SEC));
+        return r == null ? 0 : r.intValue();
+    }// func end
 
-        //} catch (InterruptedException e) {
-        //    Thread.currentThread().interrupt();
-        //    return 2; // 락 실패 또는 인터럽트
-        //} catch (Exception e) {
-        //    e.printStackTrace();
-        //    return 0; // 기타 실패
-        //} finally {
-        //    if (lock.isHeldByCurrentThread()) lock.unlock();
-        //}
-    }
     /**
      * redis에 요청데이터 조회
      *
@@ -113,40 +90,49 @@ public class RedisService { // class start
      * @return 요청 dto , 없으면 null
      */
     public ReservationExchangesDto getRequest(int from_rno){
-        String key = "change:request:" + from_rno;
-        return (ReservationExchangesDto) requestMap.get(key);
+        String json = redissonClient.<String, String>getMap(RedisKeys.keyChangeRequest(from_rno), StringCodec.INSTANCE).get("dto");
+        return deserialize(json);
     }// func end
 
     /**
      * 로그인한 회원한테 온 요청목록 조회
+     * - 역인덱스(set) → 요청 hash 조회, 만료된 항목은 역인덱스에서 제거
      *
      * @param to_rno 응답자 예매번호
      * @return List<ReservationExchangesDto> 요청목록
      */
     public List<ReservationExchangesDto> getAllRequest(int to_rno){
-        String key = "change:seat:" + to_rno;
-        List<Integer> list = seatMap.get(key);
-        if (list == null ) return null;
+        Set<String> fromRnos = redissonClient.<String>getSet(RedisKeys.keyChangeSeat(to_rno), StringCodec.INSTANCE).readAll();
         List<ReservationExchangesDto> dtoList = new ArrayList<>();
-        for (Integer i : list){
-            String rekey = "change:request:"+i;
-            ReservationExchangesDto reList = (ReservationExchangesDto) requestMap.get(rekey);
-            dtoList.add(reList);
+        for (String from : fromRnos){
+            ReservationExchangesDto dto = getRequest(Integer.parseInt(from));
+            if (dto == null || dto.getTo_rno() != to_rno) {
+                redissonClient.getSet(RedisKeys.keyChangeSeat(to_rno), StringCodec.INSTANCE).remove(from);
+                continue;
+            }// if end
+            dtoList.add(dto);
         }// for end
+        dtoList.sort(Comparator.comparing(ReservationExchangesDto::getRequested_at, Comparator.nullsLast(Comparator.naturalOrder())));
         return dtoList;
+    }// func end
 
-        //Map<Object, Object> json = redisTemplate.opsForHash().entries(key);
-        //System.out.println("json = " + json);
-        //if (json == null || json.isEmpty()) return Collections.emptyList();
-        //List<ReservationExchangesDto> fromList = new ArrayList<>();
-        //for (Object fromRnoObj : json.keySet()) {
-        //    int fromRno = Integer.parseInt(fromRnoObj.toString());
-        //    ReservationExchangesDto dto = (ReservationExchangesDto) redisTemplate.opsForValue()
-        //            .get("change:request:" + fromRno);
-        //    if (dto != null) fromList.add(dto);
-        //}// for end
-        //System.out.println("fromList = " + fromList);
-        //return fromList;
+    /**
+     * 요청 1건 꺼내기 (조회 + 삭제를 원자적으로 → 같은 요청을 두 번 처리하지 않음)
+     *
+     * @param from_rno 요청 예매번호
+     * @return 요청 dto , 없으면 null
+     */
+    public ReservationExchangesDto takeRequest(int from_rno){
+        for (int attempt = 0; attempt < 2; attempt++) {
+            // 응답 예매번호를 먼저 읽어 역인덱스 키를 만들고, 스크립트 안에서 같은 값인지 다시 확인
+            String to = redissonClient.<String, String>getMap(RedisKeys.keyChangeRequest(from_rno), StringCodec.INSTANCE).get("to");
+            if (to == null) return null;
+            String json = script().eval(RScript.Mode.READ_WRITE, TAKE_LUA, RScript.ReturnType.VALUE,
+                    List.<Object>of(RedisKeys.keyChangeRequest(from_rno), RedisKeys.keyChangeSeat(Integer.parseInt(to))),
+                    String.valueOf(from_rno), to);
+            if (json == null || !json.isEmpty()) return deserialize(json);
+        }// for end
+        return null;
     }// func end
 
     /**
@@ -155,31 +141,34 @@ public class RedisService { // class start
      * @param from_rno 요청 예매번호
      */
     public void deleteRequest(int from_rno){
-        String key = "change:request:" + from_rno;
-        //redisTemplate.delete(key);
-        requestMap.remove(key);
+        takeRequest(from_rno);
     }// func end
 
     /**
      * redis에서 응답예매번호에 대한 요청데이터 전체삭제
      *
-     * @param dto
+     * @param to_rno 응답 예매번호
+     * @return 삭제된 요청 목록
      */
-    public void deleteAllRequest(ReservationExchangesDto dto){
-        String seatKey = "change:seat:" + dto.getTo_rno();
-        //Set<Object> fromRnos = redisTemplate.opsForSet().members(seatKey);
-        //if (fromRnos != null && !fromRnos.isEmpty()) {
-        //    for (Object fromRno : fromRnos) {
-        //        String from_rno = String.valueOf(fromRno);
-        //        redisTemplate.delete("change:request:" + from_rno);
-        //    }// for end
-        //    redisTemplate.delete(seatKey);
-        //}//if end
-        List<Integer> fromRnos = seatMap.get(seatKey);
-        for (Integer i : fromRnos){
-            String requestKey = "change:request:"+i;
-            requestMap.remove(requestKey);
+    public List<ReservationExchangesDto> deleteAllRequest(int to_rno){
+        List<ReservationExchangesDto> removed = new ArrayList<>();
+        Set<String> fromRnos = redissonClient.<String>getSet(RedisKeys.keyChangeSeat(to_rno), StringCodec.INSTANCE).readAll();
+        if (fromRnos.isEmpty()) return removed;
+        List<Object> keys = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        keys.add(RedisKeys.keyChangeSeat(to_rno));
+        args.add(String.valueOf(to_rno));
+        for (String from : fromRnos) {
+            keys.add(RedisKeys.keyChangeRequest(Integer.parseInt(from)));
+            args.add(from);
         }// for end
+        List<Object> r = script().eval(RScript.Mode.READ_WRITE, TAKE_ALL_LUA, RScript.ReturnType.MULTI, keys, args.toArray());
+        if (r == null) return removed;
+        for (Object o : r) {
+            ReservationExchangesDto dto = deserialize(String.valueOf(o));
+            if (dto != null) removed.add(dto);
+        }// for end
+        return removed;
     }// func end
 
     /**
@@ -197,82 +186,19 @@ public class RedisService { // class start
     }// func end
 
     /**
-     * 알림 저장
-     *
-     * @param mno
-     * @param message
-     */
-    public void saveMessage(int mno , String message){
-        String key = "alarm:" + mno;
-        //Long result = redisTemplate.opsForList().rightPush(key,message);
-        //System.out.println("result = " + result);
-        //boolean success = result != null && result > 0; // 정상 저장 여부
-        //System.out.println("success = " + success);
-        //redisTemplate.expire(key , Duration.ofHours(24));
-        //List<Object> list = redisTemplate.opsForList().range(key, 0, -1);
-        //System.out.println(key + list);
-        List<String> alarmList = new ArrayList<>();
-        alarmList.add(message);
-        alarmMap.put(key , alarmList);
-    }// func end
-
-    /**
-     * 알림 메시지 전체조회
-     *
-     * @param mno
-     * @return List<String> 메시지 목록
-     */
-    public List<String> getMessage(int mno){
-        String key = "alarm:" + mno;
-        //List<Object> list = redisTemplate.opsForList().range(key, 0, -1);
-        //System.out.println("list 알림전체조회 = " + list);
-        //List<String> messages = list.stream().map(Object::toString).collect(Collectors.toList());
-        //System.out.println("messages 알림메시지들 = " + messages);
-        List<String> messages = alarmMap.get(key);
-        return messages;
-    }// func end
-
-    /**
-     * 알림 메시지 삭제
+     * JSON 문자열을 DTO로 역직렬화
      *
-     * @param mno
-     */
-    public void deleteMessage(int mno) {
-        String key = "alarm:" + mno;
-        //redisTemplate.delete(key);
-        alarmMap.remove(key);
-    }// func end
-
-    /**
-     * 저장시간 1일지난거 자정마다 삭제
+     * @param json
+     * @return 요청 dto , 실패/없으면 null
      */
-    @Scheduled(cron = "0 0 0 * * ?")
-    public void cleanUpMap(){
-        LocalDateTime today = LocalDateTime.now();
-        String seatKey = "change:seat:";
-        String alarm = "alarm:";
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        Iterator<Map.Entry<String, Object>> iterator = requestMap.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<String, Object> entry = iterator.next();
-            ReservationExchangesDto dto = (ReservationExchangesDto) entry.getValue();
-            LocalDateTime saveTime = LocalDateTime.parse(dto.getRequested_at(), formatter);
-
-            if (saveTime.plusDays(1).isBefore(today)) {
-                // seatMap에서 삭제
-                List<Integer> seatList = seatMap.get(seatKey + dto.getTo_rno());
-                if (seatList != null) {
-                    seatList.remove(Integer.valueOf(dto.getFrom_rno()));
-                }// if end
-                // alarmMap 에서 삭제
-                List<String> strList = alarmMap.get(alarm+dto.getTo_rno());
-                if (strList != null) {
-                    strList.removeIf(str -> str.contains(String.valueOf(dto.getFromSeat())));
-                }// if end
-                // requestMap에서 안전하게 삭제
-                iterator.remove();
-            }// if end
-        }// while end
+    public ReservationExchangesDto deserialize(String json){
+        if (json == null) return null;
+        try{
+            return objectMapper.readValue(json, ReservationExchangesDto.class);
+        } catch (JsonProcessingException e) {
+            System.out.println("[RedisService] 요청 역직렬화 실패: " + e.getMessage());
+            return null;
+        }// try end
     }// func end
 
 }// class end
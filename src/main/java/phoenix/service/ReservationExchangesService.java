@@ -1,107 +1,159 @@
 package phoenix.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.websocket.Session;
 import lombok.RequiredArgsConstructor;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.socket.TextMessage;
-import org.springframework.web.socket.WebSocketSession;
-import phoenix.configuration.ThreadPoolConfig;
-import phoenix.handler.BaseballSocketHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import phoenix.model.dto.ReservationExchangesDto;
 import phoenix.model.dto.ReservationsDto;
 import phoenix.model.mapper.ReservationExchangeMapper;
+import phoenix.model.mapper.ReservationMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.Executor;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class ReservationExchangesService {
     private final ReservationExchangeMapper reservationExchangeMapper;
-    private final ThreadPoolConfig threadPoolConfing;
+    private final ReservationMapper reservationMapper;
     private final RedisService redisService;
     private final ReservationsService reservationsService;
-    private final BaseballSocketHandler baseballSocketHandler;
-    private final ObjectMapper objectMapper;
+    private final NotificationDispatcher notificationDispatcher;
+    private final ExchangeMatchService exchangeMatchService;
 
     /**
      * 교환요청 접수
      *
+     * - 대상은 교환 후보(같은 경기·구역, 교환 허용 회원)만 허용
+     * - 저장 후 순환(맞교환 포함)이 생기면 즉시 교환 실행 (ExchangeMatchService)
+     *
      * @param dto 요청 Dto
-     * @return int 성공 : 1 , 요청중인사람존재 : 2 , 요청자가 다른좌석에 요청중 : 0
+     * @return int 성공 : 1 , 요청중인사람존재 : 2 , 요청자가 다른좌석에 요청중/대상 아님 : 0 , 순환 교환 성립 : 3
      */
     public int requestChange(ReservationExchangesDto dto){
         dto.setStatus("PENDING"); // 상태 : 대기
         String nowTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         dto.setRequested_at(nowTime); // 요청시간 저장
+        dto.setIdem_key(UUID.randomUUID().toString()); // 멱등키 발급
         ReservationsDto fromDto = (ReservationsDto) reservationsService.reserveInfo(dto.getFrom_rno()).get("reservation");
+        if (fromDto.getMno() != dto.getFrom_mno()) return 0;
+        if (!exchangeMatchService.isCandidate(dto.getFrom_rno(), dto.getFrom_mno(), dto.getTo_rno())) return 0;
         int fromSeat = fromDto.getSno();
         dto.setFromSeat(fromSeat);
         // redis 에 저장
         int saved = redisService.saveRequest(dto);
         System.out.println("saved = " + saved);
         if (saved == 0 || saved == 2) return saved;
-        if (saved == 1) {
-            Executor executor = threadPoolConfing.changeExecutor();
-            // 쓰레드풀에서 후속처리
-            executor.execute(() -> { // 여기에 푸시알림 보낼메시지 작성해서 웹소켓에 보내기
-                HashMap<String, Object> map = (HashMap<String, Object>) reservationsService.reserveInfo(dto.getTo_rno());
-                ReservationsDto toDto = (ReservationsDto) map.get("reservation");
-                int mno = toDto.getMno();
-                WebSocketSession session = baseballSocketHandler.getSession(mno);
-                String msg = fromSeat + "번 좌석에서 좌석 교환 요청을 보냈습니다.";
-                if (session != null && session.isOpen()) {
-                    try {
-                        String alarmMsg = objectMapper.writeValueAsString(Map.of("message",msg));
-                        session.sendMessage(new TextMessage(alarmMsg));
-                        System.out.println("푸시알림발송 :" + msg);
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }// try end
-                } else { // 응답자가 서버에 접속이 안되있으면 redis에 저장
-                    redisService.saveMessage(mno, msg);
-                    System.out.println("응답자 미접속 Redis에 저장" + msg);
+
+        // 순환 탐지 → 성립 시 실행 + 요청자 외 참여자에게 알림
+        List<Integer> cycle = exchangeMatchService.findCycle(dto.getFrom_rno(), dto.getTo_rno());
+        if (!cycle.isEmpty()) {
+            try {
+                List<ReservationExchangesDto> done = exchangeMatchService.executeCycle(cycle);
+                if (!done.isEmpty()) {
+                    String msg = done.size() == 2 ? "좌석 맞교환이 성립되어 좌석이 변경되었습니다."
+                            : done.size() + "명 순환 좌석 교환이 성립되어 좌석이 변경되었습니다.";
+                    for (ReservationExchangesDto d : done) {
+                        if (d.getFrom_mno() != dto.getFrom_mno()) responseMessage(d.getFrom_mno(), msg);
+                    }// for end
+                    return 3;
                 }// if end
-            });
+            } catch (Exception e) {
+                System.out.println("[ExchangeMatch] 순환 교환 실패(요청 유지): " + e.getMessage());
+            }// try end
+        }// if end
+        if (saved == 1) {
+            // 응답자에게 푸시 (미접속이면 알림함)
+            ReservationsDto toDto = (ReservationsDto) reservationsService.reserveInfo(dto.getTo_rno()).get("reservation");
+            notificationDispatcher.send(toDto.getMno(), fromSeat + "번 좌석에서 좌석 교환 요청을 보냈습니다.");
         }// if end
         return saved;
     }// func end
 
     /**
      * 응답자 요청 수락시 처리
+     * - 요청을 원자적으로 꺼내(takeRequest) 동시 수락을 한 번만 처리
+     * - 두 예매를 rno 순으로 잠근 뒤(for update) 소유자/상태/좌석 검증 → 좌석/버전 조건부 맞교환 1문장
+     *   → 취소·다른 교환과 엇갈려도 두 번 바뀌거나 한쪽만 바뀌지 않음
+     * - 요청 멱등키(idem_key)는 교환 이력에 unique → 이미 처리된 키로 재시도하면 다시 실행하지 않고 성공 반환
+     * - 커밋 후: 두 예매에 걸린 나머지 요청 정리 + 요청자 알림
+     * - 검증 실패는 예외 없이 false
+     *   · 응답자가 아닌 회원의 수락 → 요청은 그대로 복구
+     *   · 취소/좌석 변경/경기·구역 불일치 → 다시 성립할 수 없으므로 복구하지 않음
+     *   · 그 외 롤백(교환 충돌, DB 오류) → 꺼낸 요청 복구
      *
+     * @param mno 응답자 회원번호
      * @param from_rno 요청 예매번호
-     * @return true : 수락처리 , false : 요청 없음
+     * @param idem_key 요청 멱등키 (재시도 판별용, null 가능)
+     * @return true : 수락처리(또는 이미 처리됨) , false : 요청 없음/수락할 수 없는 요청
      */
     @Transactional(rollbackFor = Exception.class)
-    public boolean acceptChange(int mno ,int from_rno){
-        ReservationExchangesDto dto = redisService.getRequest(from_rno);
-        if (dto == null) return false;
+    public boolean acceptChange(int mno ,int from_rno, String idem_key){
+        ReservationExchangesDto dto = redisService.takeRequest(from_rno);
+        if (dto == null) return isApplied(mno, from_rno, idem_key);
+        if (idem_key != null && dto.getIdem_key() != null && !idem_key.equals(dto.getIdem_key())) {
+            redisService.saveRequest(dto); // 다른 요청(새로 들어온 요청)이면 되돌려 놓음
+            return isApplied(mno, from_rno, idem_key);
+        }// if end
+        ReservationExchangesDto pending = copyOf(dto);
+        // 처리 결과 (afterCompletion 에서 정리/복구 판단) : 0 진행 중(롤백 시 복구), 1 교환 완료, 2 성립 불가(폐기)
+        int[] outcome = {0};
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && outcome[0] == 1) {
+                    // 좌석이 바뀐 두 예매 기준 요청은 더 이상 유효하지 않음
+                    redisService.deleteAllRequest(dto.getTo_rno());
+                    redisService.deleteAllRequest(from_rno);
+                    redisService.deleteRequest(dto.getTo_rno());
+                    responseMessage(dto.getFrom_mno(), "좌석 교환 요청이 수락되었습니다.");
+                } else if (outcome[0] != 2) {
+                    redisService.saveRequest(pending);
+                }// if end
+            }
+        });
+
+        // 예매 잠금 + 검증
+        ReservationsDto from = null, to = null;
+        for (ReservationsDto r : reservationMapper.lockForExchange(List.of(from_rno, dto.getTo_rno()))) {
+            if (r.getRno() == from_rno) from = r;
+            else if (r.getRno() == dto.getTo_rno()) to = r;
+        }// for end
+        if (to != null && to.getMno() != mno) return false; // 응답자 아님 → 요청 복구
+        if (from == null || to == null
+                || from.getMno() != dto.getFrom_mno()
+                || !"reserved".equalsIgnoreCase(from.getStatus()) || !"reserved".equalsIgnoreCase(to.getStatus())
+                || from.getGno() != to.getGno() || from.getZno() != to.getZno()
+                || from.getSno() != dto.getFromSeat()) {
+            outcome[0] = 2;
+            System.out.println("[Exchange] 교환 조건 불일치(요청 폐기) rno=" + from_rno);
+            return false;
+        }// if end
+
         dto.setStatus("approved");
         String nowTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         dto.setResponded_at(nowTime);
-        // db에저장
-        boolean ch = reservationExchangeMapper.changeAdd(dto);
-        System.out.println("ch = " + ch);
-        // 예매좌석 교체
-        boolean ch1 = reservationsService.reserveUpdate(dto.getFromSeat(), dto.getTo_rno(), mno);         // 응답자 요청자 좌석으로 변경
-        System.out.println("ch1 = " + ch1);
-        boolean ch2 = reservationsService.reserveUpdate(dto.getToSno(),from_rno,dto.getFrom_mno());   // 요청자 응답자 좌석으로 변경  *** 트랜잭션해야됨
-        System.out.println("ch2 = " + ch2);
-        // redis 삭제
-        redisService.deleteAllRequest(dto);
-        String key = "change:seat:"+dto.getTo_rno();
-        List<Integer> list = redisService.seatMap.get(key);
-        list.removeIf(i -> i == from_rno);
+        if (dto.getIdem_key() == null) dto.setIdem_key(UUID.randomUUID().toString()); // 배포 전 저장된 요청
+        // db에저장 (멱등키 중복이면 예외 → 롤백)
+        reservationExchangeMapper.changeAdd(dto);
+        // 예매좌석 맞교환 (한 문장, 버전 검증)
+        reservationsService.reserveSwap(from, to);
+        outcome[0] = 1;
         return true;
     }// func end
 
+    // 이미 처리된 요청인지 (수락 재시도) - 같은 요청 예매 + 응답자 본인 예매일 때만
+    private boolean isApplied(int mno, int from_rno, String idem_key) {
+        if (idem_key == null || idem_key.isBlank()) return false;
+        ReservationExchangesDto done = reservationExchangeMapper.findByIdemKey(idem_key);
+        if (done == null || done.getFrom_rno() != from_rno || !"approved".equalsIgnoreCase(done.getStatus())) return false;
+        ReservationsDto to = reservationMapper.reserveInfo(done.getTo_rno());
+        return to != null && to.getMno() == mno;
+    }// func end
+
     /**
      * 응답자 요청 거절시 처리
      *
@@ -109,37 +161,23 @@ public class ReservationExchangesService {
      * @return true : 거절처리 , false : 요청 없음
      */
     public boolean rejectChange(int from_rno){
-        ReservationExchangesDto dto = redisService.getRequest(from_rno);
-        if (dto == null) return false;
-        String nowTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        dto.setResponded_at(nowTime);
-        redisService.deleteRequest(from_rno); // redis 삭제
-        String key = "change:seat:"+dto.getTo_rno();
-        List<Integer> list = redisService.seatMap.get(key);
-        list.removeIf(i -> i == from_rno);
-        return true;
+        ReservationExchangesDto dto = redisService.takeRequest(from_rno); // redis 삭제 (요청 + 역인덱스)
+        return dto != null;
     }// func end
 
+    // 롤백 복구용 사본 (수락 처리 중 상태/응답시간이 바뀌기 전 값)
+    static ReservationExchangesDto copyOf(ReservationExchangesDto d) {
+        return new ReservationExchangesDto(d.getExno(), d.getFrom_rno(), d.getTo_rno(), d.getStatus(),
+                d.getRequested_at(), d.getResponded_at(), d.getFrom_mno(), d.getFromSeat(), d.getToSno(), d.getIdem_key());
+    }
+
     /**
      * 알림메시지 발송
      *
      * @param mno
      */
     public void responseMessage( int mno , String msg ){
-        Executor executor = threadPoolConfing.changeExecutor();
-        executor.execute( () -> {
-            try{
-                WebSocketSession session = baseballSocketHandler.getSession(mno);
-                if (session != null && session.isOpen()){
-                    String alarmMsg = objectMapper.writeValueAsString(Map.of("message",msg));
-                    session.sendMessage(new TextMessage(alarmMsg));
-                }else { // 요청자가 접속 안되어 있을때 redis에 메시지 저장
-                    redisService.saveMessage(mno , msg);
-                }// if end
-            } catch (Exception e) {
-                e.printStackTrace();
-            }// try end
-        }); // thread end
+        notificationDispatcher.send(mno, msg);
     }// func end
 
 
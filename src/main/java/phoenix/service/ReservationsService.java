@@ -6,11 +6,10 @@ import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import phoenix.model.dto.GameDto;
 import phoenix.model.dto.ReservationsDto;
+import phoenix.model.dto.WalletDto;
 import phoenix.model.mapper.ReservationMapper;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,25 +21,19 @@ public class ReservationsService {
     private final FileService fileService;
     private final TicketsService ticketsService;
     private final SeatLockService seatLockService;
+    private final WalletService walletService;
+    private final ExchangeIndexService exchangeIndexService;
+    private final TicketIssueService ticketIssueService;
 
     /**
      * 예매내역조회
+     * - 회원 지갑(Redis)에서 조회 → 예매/경기/좌석 이름/티켓을 한 번에 반환
      *
      * @param mno
-     * @return List<Map<String,Object>>
+     * @return List<WalletDto.Entry>
      */
-    public List<Map<String,Object>> reservePrint(int mno){
-        List<ReservationsDto> list = reservationMapper.reservePrint(mno);
-        List<Map<String,Object>> result = new ArrayList<>();
-        for (ReservationsDto dto : list){
-            Map<String ,Object> map = new HashMap<>();
-            map.put("reservation",dto);
-            // csv 파일
-            GameDto gameData = fileService.getGame(dto.getGno());
-            map.put("game",gameData);
-            result.add(map);
-        }// for end
-        return result;
+    public List<WalletDto.Entry> reservePrint(int mno){
+        return walletService.get(mno).getEntries();
     }// func end
 
     /**
@@ -67,7 +60,29 @@ public class ReservationsService {
      * @return boolean
      */
     public boolean reserveUpdate(int sno , int rno , int mno){
-        return reservationMapper.reserveUpdate(sno, rno , mno);
+        boolean result = reservationMapper.reserveUpdate(sno, rno , mno);
+        if (result) {
+            walletService.changed(mno);
+            exchangeIndexService.changed(List.of(rno));
+        }
+        return result;
+    }// func end
+
+    /**
+     * 두 예매 좌석 맞교환 (lockForExchange 로 잠근 행 기준)
+     * - 좌석/버전이 잠금 시점과 다르면 예외 → 롤백
+     *
+     * @param from 요청자 예매 (잠금 시점 값)
+     * @param to 응답자 예매 (잠금 시점 값)
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void reserveSwap(ReservationsDto from, ReservationsDto to){
+        int n = reservationMapper.swapSeats(from.getRno(), from.getSno(), from.getVersion(),
+                to.getRno(), to.getSno(), to.getVersion());
+        if (n != 2) throw new IllegalStateException("좌석 교환 충돌 rno=" + from.getRno() + "," + to.getRno());
+        walletService.changed(from.getMno());
+        walletService.changed(to.getMno());
+        exchangeIndexService.changed(List.of(from.getRno(), to.getRno()));
     }// func end
 
     @Transactional(rollbackFor = Exception.class)
@@ -83,10 +98,10 @@ public class ReservationsService {
         boolean check1 = reservationMapper.reserveCancel(rno, mno);
         if (!check1) return false;
 
-        boolean cancelTicket = ticketsService.ticketCancel(rno);
-        if (!cancelTicket) {
-            throw new IllegalStateException("티켓 취소 실패");
-        }
+        // 발급 대기 중(pending/processing/failed)이면 티켓 행이 아직 없음 → 취소는 그대로 진행
+        // (대기열 행은 done 처리, 이미 선점한 워커도 issueBatch 에서 reserved 아닌 예매는 건너뜀)
+        ticketsService.ticketCancel(rno);
+        ticketIssueService.cancel(rno);
 
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
             @Override public void afterCommit() {
@@ -94,16 +109,18 @@ public class ReservationsService {
                 seatLockService.onReservationCancelled(mno, gno, sno, channel);
             }
         });
+        walletService.changed(mno);
+        exchangeIndexService.changed(List.of(rno));
 
         return true;
     }
     /**
-     * 교환신청 가능한 좌석목록 예매정보
+     * 교환신청 가능한 좌석목록 예매정보 (경기·구역별 교환 후보 색인에서 조회)
      *
      * @param rno
      * @return List<ReservationsDto>
      */
     public List<ReservationsDto> seatPossible(int rno,int mno){
-        return reservationMapper.seatPossible(rno,mno);
+        return exchangeIndexService.candidates(rno,mno);
     }// func end
 }//func end
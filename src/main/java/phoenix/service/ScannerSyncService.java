@@ -0,0 +1,199 @@
+package phoenix.service;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.ScoredEntry;
+import org.springframework.stereotype.Service;
+import phoenix.model.dto.ScannerSyncDto.*;
+import phoenix.util.RedisKeys;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 오프라인 게이트 스캐너 동기화
+ * <p>
+ * 1) 스냅샷 (binary, big-endian)
+ *    int   magic = 0x50585332 ("PXS2")
+ *    long  epoch            (적재 회차, 해제 후 재적재 시 바뀜)
+ *    long  version
+ *    int   gno
+ *    int   count
+ *    int   mBits            (블룸 필터 비트 수, 8의 배수)
+ *    int   k                (해시 함수 수)
+ *    byte[mBits/8] bloom
+ *    count × { byte len, byte[len] uuid(UTF-8) }
+ *    - 블룸: h1 = FNV-1a 32bit(uuid), h2 = String.hashCode(uuid) | 1, i번째 비트 = (h1 + i*h2) mod mBits (unsigned)
+ *      → 메모리가 작은 단말은 블룸만으로 1차 거절, 통과 시 목록으로 확정
+ * 2) 델타: since 버전 이후의 추가(+)/제거(-) 목록, 응답 version 을 다음 since 로 사용
+ *    - 스캐너가 가진 epoch 가 현재 적재 회차와 다르면 resync (재적재 후 버전이 0부터 다시 올라가도 섞이지 않음)
+ * 3) 업로드: 오프라인 스캔 배치를 uuid 단위로 멱등 반영 (TicketScanService.applyOfflineScan)
+ */
+@Service
+@RequiredArgsConstructor
+public class ScannerSyncService {
+
+    private final RedissonClient redisson;
+    private final TicketScanService ticketScanService;
+
+    private static final int MAGIC = 0x50585332;
+    private static final int BLOOM_BITS_PER_ENTRY = 10;   // k=7 기준 오탐 ≈ 1%
+    private static final int BLOOM_K = 7;
+    private static final int MAX_UPLOAD = 1000;
+
+    // 적재 회차, 버전, 유효 목록을 같은 시점으로 읽기 (적재 전이면 회차 없음 → 빈 목록)
+    // KEYS: validSet, version, loaded
+    private static final String SNAPSHOT_LUA = """
+            local epoch = redis.call('GET', KEYS[3])
+            if not epoch then return {} end
+            return {epoch, redis.call('GET', KEYS[2]) or '0', redis.call('SMEMBERS', KEYS[1])}
+            """;
+
+    // 적재 회차와 버전을 같은 시점으로 읽기
+    // KEYS: loaded, version
+    private static final String EPOCH_VERSION_LUA = """
+            return {redis.call('GET', KEYS[1]) or '', redis.call('GET', KEYS[2]) or '0'}
+            """;
+
+    /**
+     * 경기 유효 티켓 스냅샷 (적재 전이면 null)
+     *
+     * @param gno 경기번호
+     * @return binary 스냅샷
+     */
+    public byte[] snapshot(int gno) {
+        List<Object> r = redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_ONLY, SNAPSHOT_LUA,
+                RScript.ReturnType.MULTI,
+                List.<Object>of(RedisKeys.keyScanValid(gno), RedisKeys.keyScanVersion(gno), RedisKeys.keyScanLoaded(gno)));
+        if (r == null || r.isEmpty()) return null;
+        long epoch = parseEpoch(r.get(0));
+        long version = Long.parseLong(String.valueOf(r.get(1)));
+        List<String> uuids = new ArrayList<>();
+        for (Object o : (List<?>) r.get(2)) uuids.add(String.valueOf(o));
+
+        int mBits = Math.max(64, ((uuids.size() * BLOOM_BITS_PER_ENTRY + 7) / 8) * 8);
+        byte[] bloom = new byte[mBits / 8];
+        for (String u : uuids) bloomAdd(bloom, mBits, u);
+
+        ByteArrayOutputStream bout = new ByteArrayOutputStream(40 + bloom.length + uuids.size() * 8);
+        try (DataOutputStream out = new DataOutputStream(bout)) {
+            out.writeInt(MAGIC);
+            out.writeLong(epoch);
+            out.writeLong(version);
+            out.writeInt(gno);
+            out.writeInt(uuids.size());
+            out.writeInt(mBits);
+            out.writeInt(BLOOM_K);
+            out.write(bloom);
+            for (String u : uuids) {
+                byte[] b = u.getBytes(StandardCharsets.UTF_8);
+                out.writeByte(b.length);
+                out.write(b);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("스냅샷 생성 실패", e);
+        }
+        return bout.toByteArray();
+    }// func end
+
+    /**
+     * since 버전 이후 변경분
+     * - 적재 전/해제 후이거나, epoch 가 현재 적재 회차와 다르거나, since 가 현재 버전보다 크면 resync
+     *
+     * @param gno 경기번호
+     * @param epoch 스캐너가 가진 스냅샷의 적재 회차
+     * @param since 스캐너가 가진 버전
+     */
+    public DeltaRes delta(int gno, long epoch, long since) {
+        List<Object> ev = redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_ONLY, EPOCH_VERSION_LUA,
+                RScript.ReturnType.MULTI, List.<Object>of(RedisKeys.keyScanLoaded(gno), RedisKeys.keyScanVersion(gno)));
+        String e = String.valueOf(ev.get(0));
+        if (e.isEmpty()) {
+            return DeltaRes.builder().gno(gno).resync(true).added(List.of()).removed(List.of()).build();
+        }
+        long current = parseEpoch(e);
+        long version = Long.parseLong(String.valueOf(ev.get(1)));
+        if (epoch != current || since > version) {
+            return DeltaRes.builder().gno(gno).epoch(current).version(version).resync(true)
+                    .added(List.of()).removed(List.of()).build();
+        }
+
+        RScoredSortedSet<String> log = redisson.getScoredSortedSet(RedisKeys.keyScanLog(gno), StringCodec.INSTANCE);
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        // 버전 순서대로 적용해 같은 uuid 의 +/- 가 섞여도 최종 상태만 남김
+        for (ScoredEntry<String> entry : log.entryRange(since, false, version, true)) {
+            String m = entry.getValue();
+            String uuid = m.substring(1);
+            if (m.charAt(0) == '+') { removed.remove(uuid); added.add(uuid); }
+            else                    { added.remove(uuid); removed.add(uuid); }
+        }
+        return DeltaRes.builder().gno(gno).epoch(current).version(version).resync(false).added(added).removed(removed).build();
+    }// func end
+
+    /**
+     * 오프라인 스캔 업로드 (재전송 안전)
+     *
+     * @param gno 경기번호
+     * @param req deviceId + 스캔 목록
+     * @return uuid 별 판정
+     */
+    public List<ScanResult> upload(int gno, ScanUploadReq req) {
+        List<ScanResult> results = new ArrayList<>();
+        if (req == null || req.getScans() == null || req.getDeviceId() == null || req.getDeviceId().isBlank()) {
+            return results;
+        }
+        String deviceId = req.getDeviceId().trim();
+        List<ScanItem> scans = req.getScans();
+        for (int i = 0; i < scans.size() && i < MAX_UPLOAD; i++) {
+            ScanItem s = scans.get(i);
+            if (s == null || s.getUuid() == null || s.getUuid().isBlank()) continue;
+
+            List<String> r = ticketScanService.applyOfflineScan(gno, s.getUuid(), s.getScannedAt(), deviceId);
+            ScanResult.ScanResultBuilder b = ScanResult.builder().uuid(s.getUuid()).status(r.get(0));
+            String winner = r.get(1);
+            int bar = winner.indexOf('|');
+            if (bar > 0) {
+                b.winnerScannedAt(Long.parseLong(winner.substring(0, bar)));
+                b.winnerDevice(winner.substring(bar + 1));
+            }
+            results.add(b.build());
+        }
+        return results;
+    }// func end
+
+    // 적재 마커 값 → 회차 (이전 형식으로 저장된 마커는 0 으로 취급, 다음 재적재부터 정상 값)
+    private static long parseEpoch(Object v) {
+        try {
+            return Long.parseLong(String.valueOf(v));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // ===== Bloom =====
+    private static void bloomAdd(byte[] bloom, int mBits, String uuid) {
+        int h1 = fnv1a(uuid.getBytes(StandardCharsets.UTF_8));
+        int h2 = uuid.hashCode() | 1;
+        for (int i = 0; i < BLOOM_K; i++) {
+            int bit = (int) (Integer.toUnsignedLong(h1 + i * h2) % mBits);
+            bloom[bit >>> 3] |= (byte) (1 << (bit & 7));
+        }
+    }
+
+    private static int fnv1a(byte[] data) {
+        int h = 0x811C9DC5;
+        for (byte b : data) {
+            h ^= (b & 0xFF);
+            h *= 0x01000193;
+        }
+        return h;
+    }
+}// class end
@@ -4,13 +4,19 @@ import jakarta.annotation.PostConstruct;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * 좌석/존 "정적 메타데이터" 로더
@@ -20,6 +26,13 @@ import java.util.*;
  * CSV 스키마
  *  - zones.csv:   zno,zname
  *  - seats.csv:   sno,zno,seatName,senior
+ *
+ * 핫 리로드
+ *  - 모든 메타는 불변 {@link Snapshot} 하나에 담아 AtomicReference로 공개 (읽기 측 락 없음)
+ *  - phoenix.meta.dir 이 지정되면 그 디렉터리의 CSV를 우선 사용하고, 파일 변경 시 자동 리로드
+ *  - 새 스냅샷은 검증 통과 후에만 교체 → 실패 시 기존 스냅샷 유지
+ *  - 행 하나라도 형식 오류면 로드 실패 (일부만 읽은 메타로 교체하지 않음)
+ *  - 한 요청 안에서 일관된 메타가 필요하면 snapshot()을 한 번 받아 그 객체로 조회
  */
 @Service
 public class SeatCsvService {
@@ -34,103 +47,181 @@ public class SeatCsvService {
         private final boolean senior;
     }
 
-    @Getter
-    private final Set<Integer> allSeatSnos = new HashSet<>();
-    private final Map<Integer, Set<Integer>> zoneToSnos = new HashMap<>();
-    private final Map<Integer, String> zoneNameByZno = new HashMap<>();
-    private final Map<Integer, SeatCsvDto> metaBySno = new HashMap<>();
-    private final Map<Integer, List<SeatCsvDto>> seatsListByZone = new HashMap<>();
+    private static final String ZONES_CSV = "zones.csv";
+    private static final String SEATS_CSV = "seats.csv";
 
-    @PostConstruct
-    public void load() {
-        loadZonesCsv("static/zones.csv");
-        loadSeatsCsv("static/seats.csv");
-    }
+    /** 외부 메타 디렉터리 (비어 있으면 classpath static/ 만 사용) */
+    @Value("${phoenix.meta.dir:}")
+    private String metaDir;
 
-    // ── 존재/조회 편의 ──────────────────────────────────────────────
-    public boolean existsZone(int zno) {
-        return zoneNameByZno.containsKey(zno) || seatsListByZone.containsKey(zno);
-    }
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicLong versionSeq = new AtomicLong();
+    private volatile long lastSeenModified = -1L;
 
-    public boolean existsSeatBySno(int sno) {
-        return allSeatSnos.contains(sno);
+    @PostConstruct
+    public void load() {
+        Snapshot snap = readSnapshot();          // 기동 시 실패는 그대로 예외 (기존 동작)
+        current.set(snap);
+        lastSeenModified = externalLastModified();
     }
 
-    public boolean existsSeatInZone(int zno, int sno) {
-        return zoneToSnos.getOrDefault(zno, Collections.emptySet()).contains(sno);
+    /** 현재 메타 스냅샷 (요청 단위로 고정해서 쓰고 싶을 때) */
+    public Snapshot snapshot() {
+        return current.get();
     }
 
-    public String getZoneName(int zno) {
-        return zoneNameByZno.getOrDefault(zno, "ZNO " + zno);
+    /**
+     * 메타 리로드 (관리자 엔드포인트/파일 변경 감지에서 호출)
+     * - 읽기 + 검증 성공 시에만 교체, 실패하면 기존 스냅샷 유지 후 예외
+     *
+     * @return 새로 공개된 스냅샷 버전
+     */
+    public synchronized long reload() {
+        Snapshot snap = readSnapshot();
+        current.set(snap);
+        System.out.println("[SeatCsvService] 메타 리로드 완료 version=" + snap.getVersion()
+                + " seats=" + snap.seatCount() + " zones=" + snap.getZnos().size());
+        return snap.getVersion();
     }
 
-    public SeatCsvDto getMeta(int sno) {
-        return metaBySno.get(sno);
+    /** 외부 디렉터리의 CSV 변경 감지 (mtime 폴링) */
+    @Scheduled(fixedDelay = 5000)
+    public void watchMetaDir() {
+        long modified = externalLastModified();
+        if (modified < 0 || modified == lastSeenModified) return;
+        try {
+            reload();
+        } catch (Exception e) {
+            System.out.println("[SeatCsvService] 메타 리로드 실패(기존 유지): " + e.getMessage());
+        }
+        lastSeenModified = modified; // 같은 파일로 실패를 반복하지 않도록 갱신
     }
 
-    public String getSeatName(int sno) {
-        SeatCsvDto m = metaBySno.get(sno);
-        return m != null ? m.getSeatName() : null;
-    }
+    // ── 존재/조회 편의 (현재 스냅샷 위임) ──────────────────────────────
+    public Set<Integer> getAllSeatSnos()                  { return current.get().getAllSeatSnos(); }
+    public boolean existsZone(int zno)                    { return current.get().existsZone(zno); }
+    public boolean existsSeatBySno(int sno)               { return current.get().existsSeatBySno(sno); }
+    public boolean existsSeatInZone(int zno, int sno)     { return current.get().existsSeatInZone(zno, sno); }
+    public String getZoneName(int zno)                    { return current.get().getZoneName(zno); }
+    public SeatCsvDto getMeta(int sno)                    { return current.get().getMeta(sno); }
+    public String getSeatName(int sno)                    { return current.get().getSeatName(sno); }
+    public boolean isSeniorSeat(int sno)                  { return current.get().isSeniorSeat(sno); }
+    public List<SeatCsvDto> getSeatsByZoneSorted(int zno) { return current.get().getSeatsByZoneSorted(zno); }
+    public List<Integer> getSnosByZoneSorted(int zno)     { return current.get().getSnosByZoneSorted(zno); }
+    public List<Integer> getZnos()                        { return current.get().getZnos(); }
+    public List<Integer> getSeniorZnos()                  { return current.get().getSeniorZnos(); }
+    public SeatIndex getSeatIndex()                       { return current.get().getSeatIndex(); }
+    public char rowOf(int sno)                            { return current.get().rowOf(sno); }
+    public int colOf(int sno)                             { return current.get().colOf(sno); }
 
-    public boolean isSeniorSeat(int sno) {
-        SeatCsvDto m = metaBySno.get(sno);
-        return m != null && m.isSenior();
+    // ── CSV 로드 + 검증 ─────────────────────────────────────────────
+    private Snapshot readSnapshot() {
+        Map<Integer, String> zoneNameByZno = loadZonesCsv();
+        List<SeatCsvDto> seats = loadSeatsCsv();
+        validate(zoneNameByZno, seats);
+        return new Snapshot(versionSeq.incrementAndGet(), zoneNameByZno, seats);
     }
 
-    /** 컨트롤러용: zno의 좌석을 seatName 규칙(A/B/C + 숫자)으로 정렬해 반환 */
-    public List<SeatCsvDto> getSeatsByZoneSorted(int zno) {
-        List<SeatCsvDto> list = new ArrayList<>(seatsListByZone.getOrDefault(zno, List.of()));
-        list.sort(this::compareSeatName);
-        return list;
-    }
-
-    // ── CSV 로드 ───────────────────────────────────────────────────
-    private void loadZonesCsv(String path) {
-        try (var reader = open(path)) {
+    /** zones.csv 는 선택 파일 (없으면 존 이름 없이 진행), 있으면 한 줄이라도 오류면 예외 */
+    private Map<Integer, String> loadZonesCsv() {
+        Map<Integer, String> zoneNameByZno = new HashMap<>();
+        if (!exists(ZONES_CSV)) {
+            System.out.println("[SeatCsvService] zones.csv 없음 → 존 이름 기본값 사용");
+            return zoneNameByZno;
+        }
+        int lineNo = 1;
+        try (var reader = open(ZONES_CSV)) {
             String line = reader.readLine(); // header
             while ((line = reader.readLine()) != null) {
+                lineNo++;
                 if (line.isBlank()) continue;
                 String[] t = line.split(",", -1);
+                if (t.length < 2) throw new IllegalArgumentException("column count " + t.length);
                 int zno = Integer.parseInt(t[0].trim());
                 String zname = t[1].trim();
-                zoneNameByZno.put(zno, zname);
+                if (zoneNameByZno.put(zno, zname) != null) throw new IllegalArgumentException("duplicate zno " + zno);
             }
         } catch (Exception e) {
-            System.out.println("[SeatCsvService] zones.csv load warn: " + e.getMessage());
+            throw new IllegalStateException("zones.csv line " + lineNo + " error: " + e.getMessage(), e);
         }
+        return zoneNameByZno;
     }
 
-    private void loadSeatsCsv(String path) {
-        try (var reader = open(path)) {
+    private List<SeatCsvDto> loadSeatsCsv() {
+        List<SeatCsvDto> seats = new ArrayList<>();
+        int lineNo = 1;
+        try (var reader = open(SEATS_CSV)) {
             String line = reader.readLine(); // header: sno,zno,seatName,senior
             while ((line = reader.readLine()) != null) {
+                lineNo++;
                 if (line.isBlank()) continue;
                 String[] t = line.split(",", -1);
+                if (t.length < 4) throw new IllegalArgumentException("column count " + t.length);
                 int sno = Integer.parseInt(t[0].trim());
                 int zno = Integer.parseInt(t[1].trim());
                 String seatName = t[2].trim();
-                boolean senior = Boolean.parseBoolean(t[3].trim());
-
-                var meta = new SeatCsvDto(sno, zno, seatName, senior);
-
-                allSeatSnos.add(sno);
-                zoneToSnos.computeIfAbsent(zno, k -> new HashSet<>()).add(sno);
-                metaBySno.put(sno, meta);
-                seatsListByZone.computeIfAbsent(zno, k -> new ArrayList<>()).add(meta);
+                String seniorStr = t[3].trim();
+                if (!"true".equalsIgnoreCase(seniorStr) && !"false".equalsIgnoreCase(seniorStr))
+                    throw new IllegalArgumentException("senior must be true/false: " + seniorStr);
+                seats.add(new SeatCsvDto(sno, zno, seatName, Boolean.parseBoolean(seniorStr)));
             }
         } catch (Exception e) {
-            throw new IllegalStateException("seats.csv load error: " + e.getMessage(), e);
+            throw new IllegalStateException("seats.csv line " + lineNo + " error: " + e.getMessage(), e);
+        }
+        return seats;
+    }
+
+    /** 교체 전 무결성 검증: 좌석 존재, sno 중복, (zno, seatName) 중복, 좌석명 형식 */
+    private void validate(Map<Integer, String> zoneNameByZno, List<SeatCsvDto> seats) {
+        if (seats.isEmpty()) throw new IllegalStateException("seats.csv is empty");
+        Set<Integer> snos = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (SeatCsvDto m : seats) {
+            if (!snos.add(m.getSno())) throw new IllegalStateException("duplicate sno " + m.getSno());
+            if (!names.add(m.getZno() + ":" + m.getSeatName()))
+                throw new IllegalStateException("duplicate seat " + m.getZno() + "/" + m.getSeatName());
+            if (m.getSeatName().isEmpty()) throw new IllegalStateException("empty seatName sno=" + m.getSno());
+            if (!zoneNameByZno.isEmpty() && !zoneNameByZno.containsKey(m.getZno()))
+                throw new IllegalStateException("unknown zno " + m.getZno() + " for sno " + m.getSno());
         }
     }
 
-    private BufferedReader open(String path) throws Exception {
-        var res = new ClassPathResource(path);
+    private boolean exists(String fileName) {
+        Path external = externalFile(fileName);
+        if (external != null && Files.exists(external)) return true;
+        return new ClassPathResource("static/" + fileName).exists();
+    }
+
+    private BufferedReader open(String fileName) throws Exception {
+        Path external = externalFile(fileName);
+        if (external != null && Files.exists(external)) {
+            return Files.newBufferedReader(external, StandardCharsets.UTF_8);
+        }
+        var res = new ClassPathResource("static/" + fileName);
         return new BufferedReader(new InputStreamReader(res.getInputStream(), StandardCharsets.UTF_8));
     }
 
+    private Path externalFile(String fileName) {
+        return (metaDir == null || metaDir.isBlank()) ? null : Path.of(metaDir, fileName);
+    }
+
+    /** 외부 CSV 중 가장 최근 수정시각 (외부 디렉터리 미사용/파일 없음이면 -1) */
+    private long externalLastModified() {
+        long latest = -1L;
+        for (String f : List.of(ZONES_CSV, SEATS_CSV)) {
+            Path p = externalFile(f);
+            if (p == null) return -1L;
+            try {
+                if (Files.exists(p)) latest = Math.max(latest, Files.getLastModifiedTime(p).toMillis());
+            } catch (Exception e) {
+                System.out.println("[SeatCsvService] " + f + " 수정시각 확인 실패: " + e.getMessage());
+            }
+        }
+        return latest;
+    }
+
     // ── 정렬 도우미 ────────────────────────────────────────────────
-    private int compareSeatName(SeatCsvDto a, SeatCsvDto b) {
+    private static int compareSeatName(SeatCsvDto a, SeatCsvDto b) {
         char ra = rowChar(a.seatName);
         char rb = rowChar(b.seatName);
         if (ra != rb) return Character.compare(ra, rb);
@@ -139,12 +230,229 @@ public class SeatCsvService {
         return Integer.compare(na, nb);
     }
 
-    private char rowChar(String s) {
+    private static char rowChar(String s) {
         return (s != null && !s.isEmpty()) ? Character.toUpperCase(s.charAt(0)) : 'Z';
     }
 
-    private int colNum(String s) {
+    private static int colNum(String s) {
         if (s == null || s.length() < 2) return Integer.MAX_VALUE;
         try { return Integer.parseInt(s.substring(1)); } catch (NumberFormatException e) { return Integer.MAX_VALUE; }
     }
+
+    /**
+     * 좌석/존 메타 불변 스냅샷
+     * - 생성자에서 모든 맵/정렬 뷰/primitive 인덱스를 만들고 이후 변경하지 않음
+     * - 리로드 시 새 인스턴스가 통째로 교체되므로, 이미 받은 스냅샷은 끝까지 같은 값을 본다
+     */
+    public static final class Snapshot {
+        @Getter private final long version;
+        @Getter private final long loadedAt;
+        @Getter private final Set<Integer> allSeatSnos;
+        private final Map<Integer, Set<Integer>> zoneToSnos;
+        private final Map<Integer, String> zoneNameByZno;
+        private final Map<Integer, SeatCsvDto> metaBySno;
+        private final Map<Integer, List<SeatCsvDto>> sortedSeatsByZone;
+        private final Map<Integer, List<Integer>> sortedSnosByZone;
+        @Getter private final List<Integer> znos;
+        @Getter private final List<Integer> seniorZnos;
+        @Getter private final SeatIndex seatIndex;
+
+        Snapshot(long version, Map<Integer, String> zoneNames, List<SeatCsvDto> seats) {
+            this.version = version;
+            this.loadedAt = System.currentTimeMillis();
+
+            Map<Integer, SeatCsvDto> meta = new HashMap<>();
+            Map<Integer, List<SeatCsvDto>> byZone = new HashMap<>();
+            for (SeatCsvDto m : seats) {
+                meta.put(m.getSno(), m);
+                byZone.computeIfAbsent(m.getZno(), k -> new ArrayList<>()).add(m);
+            }
+
+            List<Integer> zoneKeys = new ArrayList<>(byZone.keySet());
+            Collections.sort(zoneKeys);
+
+            Map<Integer, Set<Integer>> toSnos = new HashMap<>();
+            Map<Integer, List<SeatCsvDto>> sortedSeats = new HashMap<>();
+            Map<Integer, List<Integer>> sortedSnos = new HashMap<>();
+            List<Integer> seniorZones = new ArrayList<>();
+            List<SeatCsvDto> ordered = new ArrayList<>(seats.size());
+            for (int zno : zoneKeys) {
+                List<SeatCsvDto> list = new ArrayList<>(byZone.get(zno));
+                list.sort(SeatCsvService::compareSeatName);
+                List<Integer> snos = list.stream().map(SeatCsvDto::getSno).toList();
+                sortedSeats.put(zno, List.copyOf(list));
+                sortedSnos.put(zno, snos);
+                toSnos.put(zno, Set.copyOf(snos));
+                if (list.stream().anyMatch(SeatCsvDto::isSenior)) seniorZones.add(zno);
+                ordered.addAll(list);
+            }
+
+            this.allSeatSnos = Set.copyOf(meta.keySet());
+            this.zoneToSnos = Map.copyOf(toSnos);
+            this.zoneNameByZno = Map.copyOf(zoneNames);
+            this.metaBySno = Map.copyOf(meta);
+            this.sortedSeatsByZone = Map.copyOf(sortedSeats);
+            this.sortedSnosByZone = Map.copyOf(sortedSnos);
+            this.znos = List.copyOf(zoneKeys);
+            this.seniorZnos = List.copyOf(seniorZones);
+            this.seatIndex = SeatIndex.build(ordered, SeatCsvService::rowChar, SeatCsvService::colNum);
+        }
+
+        public int seatCount() {
+            return metaBySno.size();
+        }
+
+        public boolean existsZone(int zno) {
+            return zoneNameByZno.containsKey(zno) || sortedSeatsByZone.containsKey(zno);
+        }
+
+        public boolean existsSeatBySno(int sno) {
+            return allSeatSnos.contains(sno);
+        }
+
+        public boolean existsSeatInZone(int zno, int sno) {
+            return zoneToSnos.getOrDefault(zno, Collections.emptySet()).contains(sno);
+        }
+
+        public String getZoneName(int zno) {
+            return zoneNameByZno.getOrDefault(zno, "ZNO " + zno);
+        }
+
+        public SeatCsvDto getMeta(int sno) {
+            return metaBySno.get(sno);
+        }
+
+        public String getSeatName(int sno) {
+            SeatCsvDto m = metaBySno.get(sno);
+            return m != null ? m.getSeatName() : null;
+        }
+
+        public boolean isSeniorSeat(int sno) {
+            SeatCsvDto m = metaBySno.get(sno);
+            return m != null && m.isSenior();
+        }
+
+        /** zno의 좌석을 seatName 규칙(A/B/C + 숫자)으로 정렬한 불변 리스트 (복사/정렬 없음) */
+        public List<SeatCsvDto> getSeatsByZoneSorted(int zno) {
+            return sortedSeatsByZone.getOrDefault(zno, List.of());
+        }
+
+        /** getSeatsByZoneSorted와 같은 순서의 sno 불변 리스트 (상태조회 입력용) */
+        public List<Integer> getSnosByZoneSorted(int zno) {
+            return sortedSnosByZone.getOrDefault(zno, List.of());
+        }
+
+        /** 좌석 행 문자 (A/B/C …), 없는 좌석이면 'Z' */
+        public char rowOf(int sno) {
+            int ord = seatIndex.ordinalOf(sno);
+            return ord < 0 ? 'Z' : (char) seatIndex.row(ord);
+        }
+
+        /** 좌석 열 번호 (A12 → 12), 없는 좌석이면 Integer.MAX_VALUE */
+        public int colOf(int sno) {
+            int ord = seatIndex.ordinalOf(sno);
+            if (ord < 0) return Integer.MAX_VALUE;
+            short c = seatIndex.col(ord);
+            return c == Short.MAX_VALUE ? Integer.MAX_VALUE : c;
+        }
+    }
+
+    /**
+     * 좌석 메타의 primitive 배열 뷰
+     * - dense ordinal: zno 오름차순 → 존 내부 seatName 정렬 순서 (getSeatsByZoneSorted와 동일)
+     * - 존 구간: [zoneFrom(zno), zoneTo(zno))
+     * - sno/zno → ordinal 은 오프셋 배열로 조회 (박싱/해시 없음)
+     * - 로드 시 한 번 생성 후 불변, 접근자는 할당 없이 값만 반환
+     */
+    public static final class SeatIndex {
+        static final SeatIndex EMPTY = new SeatIndex(new int[0], new byte[0], new short[0], new BitSet(),
+                0, new int[0], 0, new int[0], new int[0]);
+
+        private final int[] snos;
+        private final byte[] row;
+        private final short[] col;
+        private final BitSet senior;
+
+        private final int snoBase;          // ordBySno[sno - snoBase]
+        private final int[] ordBySno;       // 없으면 -1
+        private final int znoBase;          // zoneFrom/zoneTo[zno - znoBase]
+        private final int[] zoneFrom;
+        private final int[] zoneTo;
+
+        private SeatIndex(int[] snos, byte[] row, short[] col, BitSet senior,
+                          int snoBase, int[] ordBySno, int znoBase, int[] zoneFrom, int[] zoneTo) {
+            this.snos = snos;
+            this.row = row;
+            this.col = col;
+            this.senior = senior;
+            this.snoBase = snoBase;
+            this.ordBySno = ordBySno;
+            this.znoBase = znoBase;
+            this.zoneFrom = zoneFrom;
+            this.zoneTo = zoneTo;
+        }
+
+        static SeatIndex build(List<SeatCsvDto> ordered,
+                               java.util.function.Function<String, Character> rowFn,
+                               java.util.function.ToIntFunction<String> colFn) {
+            int n = ordered.size();
+            if (n == 0) return EMPTY;
+
+            int[] snos = new int[n];
+            byte[] row = new byte[n];
+            short[] col = new short[n];
+            BitSet senior = new BitSet(n);
+
+            int minSno = Integer.MAX_VALUE, maxSno = Integer.MIN_VALUE;
+            int minZno = Integer.MAX_VALUE, maxZno = Integer.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                SeatCsvDto m = ordered.get(i);
+                snos[i] = m.getSno();
+                row[i] = (byte) rowFn.apply(m.getSeatName()).charValue();
+                col[i] = (short) Math.min(colFn.applyAsInt(m.getSeatName()), Short.MAX_VALUE);
+                if (m.isSenior()) senior.set(i);
+                minSno = Math.min(minSno, m.getSno()); maxSno = Math.max(maxSno, m.getSno());
+                minZno = Math.min(minZno, m.getZno()); maxZno = Math.max(maxZno, m.getZno());
+            }
+
+            int[] ordBySno = new int[maxSno - minSno + 1];
+            Arrays.fill(ordBySno, -1);
+            for (int i = 0; i < n; i++) ordBySno[snos[i] - minSno] = i;
+
+            // ordered는 zno 오름차순으로 이어 붙여져 있으므로 존별 구간이 연속
+            int[] zoneFrom = new int[maxZno - minZno + 1];
+            int[] zoneTo = new int[maxZno - minZno + 1];
+            for (int i = 0; i < n; i++) {
+                int z = ordered.get(i).getZno() - minZno;
+                if (zoneTo[z] == 0) zoneFrom[z] = i;
+                zoneTo[z] = i + 1;
+            }
+
+            return new SeatIndex(snos, row, col, senior, minSno, ordBySno, minZno, zoneFrom, zoneTo);
+        }
+
+        public int size()              { return snos.length; }
+        public int sno(int ord)        { return snos[ord]; }
+        public byte row(int ord)       { return row[ord]; }
+        public short col(int ord)      { return col[ord]; }
+        public boolean senior(int ord) { return senior.get(ord); }
+
+        /** sno → ordinal (없으면 -1) */
+        public int ordinalOf(int sno) {
+            int i = sno - snoBase;
+            return (i < 0 || i >= ordBySno.length) ? -1 : ordBySno[i];
+        }
+
+        /** 존 시작 ordinal (포함) — 없는 존이면 zoneFrom == zoneTo */
+        public int zoneFrom(int zno) {
+            int i = zno - znoBase;
+            return (i < 0 || i >= zoneFrom.length) ? 0 : zoneFrom[i];
+        }
+
+        /** 존 끝 ordinal (미포함) */
+        public int zoneTo(int zno) {
+            int i = zno - znoBase;
+            return (i < 0 || i >= zoneTo.length) ? 0 : zoneTo[i];
+        }
+    }
 }
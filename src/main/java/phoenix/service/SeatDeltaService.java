@@ -0,0 +1,144 @@
+package phoenix.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import phoenix.handler.BaseballSocketHandler;
+import phoenix.util.RedisKeys;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 좌석 상태 실시간 델타 (경기별 구독자에게 binary 프레임 전송)
+ * <p>
+ * - SeatLockService / SeniorReservationService 의 홀드·해제·확정·취소를 mark 로 모아두고
+ *   phoenix.seat.delta-interval-ms(기본 150ms)마다 경기별 프레임 1개로 묶어 전송
+ * - 같은 좌석이 주기 안에 여러 번 바뀌면 마지막 상태만 전송 (coalesce)
+ * - 프레임은 Redis 토픽(ws:seat:delta)으로 발행 → 모든 노드가 자기 구독 세션에 전달
+ * <p>
+ * 프레임 (binary, big-endian)
+ *    byte  kind = 0x01 (좌석 델타)
+ *    int   gno
+ *    N × int  (sno << 2) | state      state: 0 AVAILABLE, 1 HELD, 2 SOLD, 3 BLOCKED
+ * - HELD_BY_ME 는 회원별 정보라 보내지 않음 (클라이언트가 자기 홀드는 직접 알고 있음)
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatDeltaService {
+
+    private final RedissonClient redisson;
+    private final BaseballSocketHandler baseballSocketHandler;
+
+    public static final int AVAILABLE = 0;
+    public static final int HELD      = 1;
+    public static final int SOLD      = 2;
+    public static final int BLOCKED   = 3;
+
+    public static final byte KIND_SEAT_DELTA = 0x01;
+    private static final int MAX_PER_FRAME = 4096;  // 프레임 1개 최대 좌석 수 (넘으면 나눠 전송)
+
+    // gno → (sno → state), flush 때 통째로 교체
+    private Map<Integer, Map<Integer, Integer>> pending = new HashMap<>();
+
+    private RTopic topic() {
+        return redisson.getTopic(RedisKeys.SEAT_DELTA_TOPIC, ByteArrayCodec.INSTANCE);
+    }
+
+    // 다른 노드(자기 자신 포함)에서 발행한 프레임 → 이 노드의 구독 세션으로
+    @PostConstruct
+    public void init() {
+        topic().addListener(byte[].class, (channel, frame) -> {
+            if (frame == null || frame.length < 5 || frame[0] != KIND_SEAT_DELTA) return;
+            int gno = ByteBuffer.wrap(frame, 1, 4).getInt();
+            baseballSocketHandler.broadcastSeat(gno, frame);
+        });
+    }// func end
+
+    /**
+     * 좌석 상태 변경 기록 (다음 flush 때 전송)
+     *
+     * @param gno 경기번호
+     * @param sno 좌석번호
+     * @param state AVAILABLE | HELD | SOLD | BLOCKED
+     */
+    public void mark(int gno, int sno, int state) {
+        synchronized (this) {
+            pending.computeIfAbsent(gno, k -> new LinkedHashMap<>()).put(sno, state);
+        }
+    }// func end
+
+    /** 여러 좌석을 같은 상태로 기록 */
+    public void mark(int gno, Collection<Integer> snos, int state) {
+        if (snos == null || snos.isEmpty()) return;
+        synchronized (this) {
+            Map<Integer, Integer> m = pending.computeIfAbsent(gno, k -> new LinkedHashMap<>());
+            for (Integer sno : snos) m.put(sno, state);
+        }
+    }// func end
+
+    // 모아둔 변경을 경기별 프레임으로 발행
+    @Scheduled(fixedDelayString = "${phoenix.seat.delta-interval-ms:150}")
+    public void flush() {
+        Map<Integer, Map<Integer, Integer>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        for (Map.Entry<Integer, Map<Integer, Integer>> e : batch.entrySet()) {
+            try {
+                publish(e.getKey(), e.getValue());
+            } catch (Exception ex) {
+                System.out.println("[SeatDelta] 발행 실패 gno=" + e.getKey() + " | " + ex.getMessage());
+            }// try end
+        }// for end
+    }// func end
+
+    /**
+     * 같은 경기의 델타 프레임 두 개를 하나로 합침 (같은 좌석은 뒤 프레임 상태 우선)
+     * - 느린 세션에 보류된 프레임을 합칠 때 사용 (BaseballSocketHandler)
+     */
+    public static byte[] mergeFrames(byte[] older, byte[] newer) {
+        Map<Integer, Integer> seats = new LinkedHashMap<>();
+        for (byte[] f : new byte[][]{older, newer}) {
+            ByteBuffer buf = ByteBuffer.wrap(f, 5, f.length - 5);
+            while (buf.remaining() >= 4) {
+                int v = buf.getInt();
+                seats.remove(v >>> 2);          // 순서도 최신 변경 기준
+                seats.put(v >>> 2, v & 3);
+            }
+        }// for end
+        ByteBuffer out = ByteBuffer.allocate(5 + seats.size() * 4);
+        out.put(newer, 0, 5);
+        for (Map.Entry<Integer, Integer> e : seats.entrySet()) out.putInt((e.getKey() << 2) | e.getValue());
+        return out.array();
+    }// func end
+
+    private void publish(int gno, Map<Integer, Integer> changes) {
+        int total = changes.size();
+        ByteBuffer buf = null;
+        int left = 0;
+        for (Map.Entry<Integer, Integer> c : changes.entrySet()) {
+            if (left == 0) {
+                if (buf != null) topic().publish(buf.array());
+                int n = Math.min(MAX_PER_FRAME, total);
+                total -= n;
+                left = n;
+                buf = ByteBuffer.allocate(5 + n * 4);
+                buf.put(KIND_SEAT_DELTA).putInt(gno);
+            }
+            buf.putInt((c.getKey() << 2) | (c.getValue() & 3));
+            left--;
+        }// for end
+        if (buf != null) topic().publish(buf.array());
+    }// func end
+
+}// class end
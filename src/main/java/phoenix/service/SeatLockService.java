@@ -3,6 +3,7 @@ package phoenix.service;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.redisson.api.*;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -10,10 +11,9 @@ import org.springframework.transaction.annotation.Transactional;
 import phoenix.model.dto.ReservationsDto;
 import phoenix.model.dto.SeatDto;
 import phoenix.model.mapper.SeatsMapper;
+import phoenix.service.GameCatalogService.SalePhase;
 import phoenix.util.RedisKeys;
 
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
@@ -26,14 +26,26 @@ public class SeatLockService {
     private final RedissonClient redisson;
     private final SeatCsvService seatCsvService;
     private final GameService gameService;
-    private final TicketsService ticketsService;
+    private final TicketIssueService ticketIssueService;
+    private final WalletService walletService;
+    private final SeatDeltaService seatDeltaService;
+    private final ExchangeIndexService exchangeIndexService;
 
     private static final long HOLD_TTL_SECONDS = 120;
     private static final int  MAX_SEATS_PER_USER = 4;
-    private static final ZoneId ZONE_SEOUL = ZoneId.of("Asia/Seoul");
+    private static final int  EXPIRY_BATCH = 500;
+
+    // 만료 시각이 지난 홀드 꺼내기 (조회 + 제거를 한 번에 → 여러 번 발행되지 않음)
+    // KEYS: expiry zset / ARGV: now(ms), limit
+    private static final String POP_EXPIRED_LUA = """
+            local m = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+            if #m > 0 then redis.call('ZREM', KEYS[1], unpack(m)) end
+            return m
+            """;
 
     // ===== Redis Accessors =====
     private RMapCache<String, String> holdMap() { return redisson.getMapCache(RedisKeys.SEAT_HOLD_MAP); }
+    private RScoredSortedSet<String> holdExpiry() { return redisson.getScoredSortedSet(RedisKeys.SEAT_HOLD_EXPIRY, StringCodec.INSTANCE); }
     private RSet<Integer> soldSet(int gno)       { return redisson.getSet(RedisKeys.SEAT_SOLD_SET + ":" + gno); }
     private RSetCache<Integer> userHoldSet(int mno, int gno) { return redisson.getSetCache("user:hold:" + mno + ":" + gno); }
     private String seatKey(int gno, int sno)     { return gno + ":" + sno; }
@@ -46,11 +58,8 @@ public class SeatLockService {
 
     // ===== D-2 senior open for GENERAL =====
     private boolean isSeniorOpenForGeneral(int gno) {
-        var game = gameService.findByGno(gno);
-        if (game == null || game.getDate() == null || game.getTime() == null) return false;
-        ZonedDateTime startAt = ZonedDateTime.of(game.getDate(), game.getTime(), ZONE_SEOUL);
-        ZonedDateTime gate = startAt.minusDays(2);
-        return !ZonedDateTime.now(ZONE_SEOUL).isBefore(gate); // now >= start-2d
+        SalePhase phase = gameService.phaseAt(gno, System.currentTimeMillis());
+        return phase == SalePhase.GENERAL_OPEN || phase == SalePhase.STARTED; // now >= start-2d
     }
 
     @PostConstruct
@@ -113,7 +122,9 @@ public class SeatLockService {
         if (!lock.tryLock(0, HOLD_TTL_SECONDS, TimeUnit.SECONDS)) return -3;
 
         holdMap().put(seatKey(gno, sno), String.valueOf(mno), HOLD_TTL_SECONDS, TimeUnit.SECONDS);
+        holdExpiry().add(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(HOLD_TTL_SECONDS), seatKey(gno, sno));
         myHolds.add(sno, HOLD_TTL_SECONDS, TimeUnit.SECONDS);
+        seatDeltaService.mark(gno, sno, SeatDeltaService.HELD);
         return 1;
     }
 
@@ -124,8 +135,10 @@ public class SeatLockService {
         if (holder == null || !holder.equals(String.valueOf(mno))) return false;
 
         holdMap().remove(key);
+        holdExpiry().remove(key);
         userHoldSet(mno, gno).remove(sno);
         try { seatLock(gno, sno).forceUnlock(); } catch (Exception ignore) {}
+        seatDeltaService.mark(gno, sno, SeatDeltaService.AVAILABLE);
         return true;
     }
 
@@ -149,9 +162,11 @@ public class SeatLockService {
         for (int sno : snos) {
             sold.add(sno);
             holds.remove(seatKey(gno, sno));
+            holdExpiry().remove(seatKey(gno, sno));
             userHoldSet(mno, gno).remove(sno);
             try { seatLock(gno, sno).forceUnlock(); } catch (Exception ignore) {}
         }
+        seatDeltaService.mark(gno, snos, SeatDeltaService.SOLD);
 
         // GENERAL channel
         incrementUserBookedCount(mno, gno, snos.size());
@@ -199,6 +214,7 @@ public class SeatLockService {
         if (snos == null || snos.isEmpty()) {
             throw new IllegalArgumentException("snos is empty");
         }
+        List<Integer> rnos = new ArrayList<>(snos.size());
         for (int sno : snos) {
             ReservationsDto dto = new ReservationsDto();
             dto.setMno(mno);
@@ -209,11 +225,12 @@ public class SeatLockService {
             if (!seatsMapper.insertReservationWithChannel(dto)) {
                 throw new IllegalStateException("예약테이블 insert 오류");
             }
-            int rno = dto.getRno();
-            if (!ticketsService.ticketWrite(rno)) {
-                throw new IllegalStateException("Failed to issue ticket");
-            }
+            rnos.add(dto.getRno());
         }
+        // 티켓은 발급 대기열에만 적재 (발급/알림은 TicketIssueService 워커가 비동기 처리)
+        ticketIssueService.enqueue(rnos);
+        walletService.changed(mno);
+        exchangeIndexService.changed(rnos);
     }
 
     public void onReservationCancelled(int mno, int gno, int sno, String channel) {
@@ -225,6 +242,7 @@ public class SeatLockService {
                 decrementUserBookedCount(mno, gno, 1);
             }
             try { seatLock(gno, sno).forceUnlock(); } catch (Exception ignore) {}
+            seatDeltaService.mark(gno, sno, SeatDeltaService.AVAILABLE);
         } catch (Exception e) {
             System.out.println("[SeatLockService] onReservationCancelled error: " + e.getMessage());
         }
@@ -275,8 +293,10 @@ public class SeatLockService {
                 boolean alive = hasActiveSession(mno, gno);
                 if (!alive) {
                     map.remove(key);
+                    holdExpiry().remove(key);
                     userHoldSet(mno, gno).remove(sno);
                     try { seatLock(gno, sno).forceUnlock(); } catch (Exception ignore) {}
+                    seatDeltaService.mark(gno, sno, SeatDeltaService.AVAILABLE);
                 }
             }
         } catch (Exception ex) {
@@ -284,6 +304,46 @@ public class SeatLockService {
         }
     }
 
+    // ===== Hold TTL expiry → AVAILABLE delta =====
+    // RMapCache 만료 이벤트는 eviction 주기(수 초~수십 분)에 따라 늦게 오고 모든 노드에서 발생하므로 쓰지 않음
+    // → 홀드 시 만료 시각을 zset 에 기록, 락을 잡은 노드 하나만 1초마다 지난 항목을 꺼내 발행
+    @Scheduled(fixedDelay = 1000)
+    public void publishExpiredHolds() {
+        RLock lock = redisson.getLock(RedisKeys.SEAT_HOLD_EXPIRY + ":lock");
+        if (!lock.tryLock()) return;
+        try {
+            RMapCache<String, String> holds = holdMap();
+            while (true) {
+                List<Object> due = redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE,
+                        POP_EXPIRED_LUA, RScript.ReturnType.MULTI, List.<Object>of(RedisKeys.SEAT_HOLD_EXPIRY),
+                        String.valueOf(System.currentTimeMillis()), String.valueOf(EXPIRY_BATCH));
+                if (due == null || due.isEmpty()) break;
+                for (Object o : due) {
+                    String key = String.valueOf(o);
+                    int idx = key.indexOf(':');
+                    if (idx <= 0 || idx >= key.length() - 1) continue;
+                    int gno, sno;
+                    try {
+                        gno = Integer.parseInt(key.substring(0, idx));
+                        sno = Integer.parseInt(key.substring(idx + 1));
+                    } catch (NumberFormatException ignore) { continue; }
+                    if (holds.containsKey(key)) {
+                        // 다시 홀드됨(새 만료 시각이 이미 있음) 또는 아직 만료 전(시계 차) → 없을 때만 1초 뒤 재확인
+                        holdExpiry().addIfAbsent(System.currentTimeMillis() + 1000, key);
+                        continue;
+                    }
+                    if (soldSet(gno).contains(sno)) continue; // 확정된 좌석
+                    seatDeltaService.mark(gno, sno, SeatDeltaService.AVAILABLE);
+                }
+                if (due.size() < EXPIRY_BATCH) break;
+            }
+        } catch (Exception e) {
+            System.out.println("[SeatLockService] hold expiry error: " + e.getMessage());
+        } finally {
+            if (lock.isHeldByCurrentThread()) lock.unlock();
+        }
+    }
+
     // SeatLockService.java
     public void releaseAllHoldsForUser(int mno, int gno) {
         try {
@@ -291,7 +351,9 @@ public class SeatLockService {
             if (holds.isEmpty()) return;
             for (Integer sno : holds.readAll()) {
                 holdMap().remove(seatKey(gno, sno));
+                holdExpiry().remove(seatKey(gno, sno));
                 try { seatLock(gno, sno).forceUnlock(); } catch (Exception ignore) {}
+                seatDeltaService.mark(gno, sno, SeatDeltaService.AVAILABLE);
             }
             holds.clear();
         } catch (Exception e) {
@@ -10,10 +10,9 @@ import phoenix.model.dto.AutoSelectDto.*;
 import phoenix.model.dto.ReservationsDto;
 import phoenix.model.dto.SeatDto;
 import phoenix.model.mapper.SeatsMapper;
+import phoenix.service.GameCatalogService.SalePhase;
 import phoenix.util.RedisKeys;
 
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -30,12 +29,13 @@ public class SeniorReservationService {
 
     private final RedissonClient redisson;
     private final SeatsMapper seatsMapper;
-    private final TicketsService ticketsService;
+    private final TicketIssueService ticketIssueService;
+    private final WalletService walletService;
     private final SeatCsvService seatCsv;
     private final PlayerCsvService playerCsv;
     private final GameService gameService;
-
-    private static final ZoneId ZONE_SEOUL = ZoneId.of("Asia/Seoul");
+    private final SeatDeltaService seatDeltaService;
+    private final ExchangeIndexService exchangeIndexService;
 
     // ==== Redis Accessors (일반과 동일 네임스페이스 재사용) ====
     private RMapCache<String, String> holdMap() { return redisson.getMapCache(RedisKeys.SEAT_HOLD_MAP); }
@@ -140,7 +140,8 @@ public class SeniorReservationService {
             cnt.addAndGet(snos.size());
             cnt.expire(7, TimeUnit.DAYS);
 
-            // 4) DB 저장(예약 + 티켓)
+            // 4) DB 저장(예약 + 티켓 발급 대기열)
+            List<Integer> rnos = new ArrayList<>(snos.size());
             for (int sno : snos) {
                 ReservationsDto dto = new ReservationsDto();
                 dto.setMno(mno);
@@ -150,11 +151,12 @@ public class SeniorReservationService {
                 dto.setChannel("senior"); // ★채널 구분
                 boolean ok = seatsMapper.insertReservationWithChannel(dto);
                 if (!ok) throw new IllegalStateException("reservation insert fail");
-                int rno = dto.getRno();
-                if (!ticketsService.ticketWrite(rno)) {
-                    throw new IllegalStateException("ticket issue fail");
-                }
+                rnos.add(dto.getRno());
             }
+            ticketIssueService.enqueue(rnos);
+            walletService.changed(mno);
+            exchangeIndexService.changed(rnos);
+            seatDeltaService.mark(gno, snos, SeatDeltaService.SOLD);
 
             // 5) 성공 응답 구성
             return AutoSelectRes.builder()
@@ -211,37 +213,14 @@ public class SeniorReservationService {
 
     // ====== 기간: D-7 ~ D-DAY ======
     private boolean isSeniorPhase(int gno) {
-        var game = gameService.findByGno(gno);
-        if (game == null || game.getDate() == null || game.getTime() == null) return false;
-        ZonedDateTime startAt = ZonedDateTime.of(game.getDate(), game.getTime(), ZONE_SEOUL);
-        ZonedDateTime openAt  = startAt.minusDays(7);
-        ZonedDateTime now = ZonedDateTime.now(ZONE_SEOUL);
-        return (!now.isBefore(openAt)) && (!now.isAfter(startAt)); // openAt <= now <= startAt
+        SalePhase phase = gameService.phaseAt(gno, System.currentTimeMillis());
+        return phase == SalePhase.SENIOR_PRIORITY || phase == SalePhase.GENERAL_OPEN; // openAt <= now < startAt
     }
 
     // ====== 존/선호 우선순위 ======
     private List<Integer> zonesHavingSeniorSeats() {
-        // seats.csv 기준 senior=true 좌석이 하나라도 등록된 zno만
-        return seatCsv.getSeatsByZoneSorted(10001).getClass() == null // dummy to keep import
-                ? List.of() : seatCsvZoneKeys();
-    }
-
-    private List<Integer> seatCsvZoneKeys() {
-        // SeatCsvService가 zone 목록 직접 노출하진 않으므로, meta 맵에서 유추
-        // → seatsListByZone을 공개 안 했으니, senior 존재 여부는 전수조사
-        // 전수조사: 10001~10999 같은 범위를 모른다면 metaBySno 순회가 필요하지만
-        // 여기서는 seats.csv 기준으로 "존 조회"를 다음과 같이 구성:
-        Set<Integer> z = new LinkedHashSet<>();
-        // 모든 sno를 모르므로 '존 이름 조회' 가능한 zno 후보를 소환
-        // 이미 프로젝트에서 사용중인 zno는 10001~10006 (샘플), 실제는 seats.csv에 저장됨
-        // 안전하게는 1~99999 순회가 아니고, 아래 방식으로 수집:
-        for (int candidate = 10001; candidate <= 99999; candidate++) {
-            if (!seatCsv.existsZone(candidate)) continue;
-            var metas = seatCsv.getSeatsByZoneSorted(candidate);
-            boolean anySenior = metas.stream().anyMatch(m -> m.isSenior());
-            if (anySenior) z.add(candidate);
-        }
-        return new ArrayList<>(z);
+        // seats.csv 기준 senior=true 좌석이 하나라도 등록된 zno만 (로드 시 계산된 불변 리스트)
+        return seatCsv.getSeniorZnos();
     }
 
     private List<Integer> favoriteZoneOrder(int mno) {
@@ -282,7 +261,7 @@ public class SeniorReservationService {
             // 같은 존에서 가장 가까운 두 좌석
             var pair = closestPair(usable);
             if (pair == null) continue;
-            int d = Math.abs(col(pair.get(0).getSeatName()) - col(pair.get(1).getSeatName()));
+            int d = Math.abs(col(pair.get(0)) - col(pair.get(1)));
             if (best == null || d < bestDist) {
                 best = new Pick(zno, pair.stream().map(SeatCsvService.SeatCsvDto::getSno).toList(), false, "closest@" + zno);
                 bestDist = d;
@@ -313,16 +292,16 @@ public class SeniorReservationService {
 
     private List<SeatCsvService.SeatCsvDto> findContiguousRun(List<SeatCsvService.SeatCsvDto> usable, int qty) {
         Map<Character, List<SeatCsvService.SeatCsvDto>> byRow = usable.stream()
-                .collect(Collectors.groupingBy(m -> row(m.getSeatName())));
+                .collect(Collectors.groupingBy(m -> row(m)));
         for (var entry : byRow.entrySet()) {
             List<SeatCsvService.SeatCsvDto> rowSeats = entry.getValue().stream()
-                    .sorted(Comparator.comparingInt(m -> col(m.getSeatName())))
+                    .sorted(Comparator.comparingInt(m -> col(m)))
                     .toList();
             for (int i = 0; i + qty - 1 < rowSeats.size(); i++) {
                 boolean ok = true;
-                int start = col(rowSeats.get(i).getSeatName());
+                int start = col(rowSeats.get(i));
                 for (int k = 1; k < qty; k++) {
-                    if (col(rowSeats.get(i + k).getSeatName()) != start + k) { ok = false; break; }
+                    if (col(rowSeats.get(i + k)) != start + k) { ok = false; break; }
                 }
                 if (ok) return rowSeats.subList(i, i + qty);
             }
@@ -336,15 +315,15 @@ public class SeniorReservationService {
         int bestDist = Integer.MAX_VALUE;
 
         Map<Character, List<SeatCsvService.SeatCsvDto>> byRow = usable.stream()
-                .collect(Collectors.groupingBy(m -> row(m.getSeatName())));
+                .collect(Collectors.groupingBy(m -> row(m)));
 
         for (var e : byRow.entrySet()) {
             List<SeatCsvService.SeatCsvDto> rowSeats = e.getValue().stream()
-                    .sorted(Comparator.comparingInt(m -> col(m.getSeatName())))
+                    .sorted(Comparator.comparingInt(m -> col(m)))
                     .toList();
             for (int i = 0; i < rowSeats.size(); i++) {
                 for (int j = i + 1; j < rowSeats.size(); j++) {
-                    int d = Math.abs(col(rowSeats.get(i).getSeatName()) - col(rowSeats.get(j).getSeatName()));
+                    int d = Math.abs(col(rowSeats.get(i)) - col(rowSeats.get(j)));
                     if (d < bestDist) {
                         bestDist = d;
                         best = List.of(rowSeats.get(i), rowSeats.get(j));
@@ -355,13 +334,9 @@ public class SeniorReservationService {
         return best;
     }
 
-    private char row(String seatName) {
-        return (seatName != null && !seatName.isEmpty()) ? Character.toUpperCase(seatName.charAt(0)) : 'Z';
-    }
-    private int col(String seatName) {
-        if (seatName == null || seatName.length() < 2) return Integer.MAX_VALUE;
-        try { return Integer.parseInt(seatName.substring(1)); } catch (Exception e) { return Integer.MAX_VALUE; }
-    }
+    // 행/열은 SeatCsvService 로드 시 미리 파싱된 값 사용 (seatName 재파싱 없음)
+    private char row(SeatCsvService.SeatCsvDto m) { return seatCsv.rowOf(m.getSno()); }
+    private int col(SeatCsvService.SeatCsvDto m)  { return seatCsv.colOf(m.getSno()); }
 
     // ====== 실패 응답 ======
     private AutoSelectRes fail(String reason) {
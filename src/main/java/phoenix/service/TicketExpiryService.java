@@ -0,0 +1,169 @@
+package phoenix.service;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import phoenix.model.mapper.ReservationMapper;
+import phoenix.model.mapper.TicketsMapper;
+import phoenix.util.RedisKeys;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 지난 경기 티켓 만료 + 기존 QR 이미지 파일 정리 배치
+ * <p>
+ * - 만료 대상: 입장 마감(시작 + TicketScanService.UNLOAD_AFTER_MS)이 지나고 스캔 적재가 해제된 경기
+ *   → 적재 중인 경기는 건너뜀 (유효 set 은 그대로인데 DB 만 만료되면 Redis 스캔은 통과, write-back 은 반영 안 됨)
+ *   → 건너뛴 경기는 유예 구간/전체 점검에서 다시 처리
+ * - 처리 기준: Redis 에 저장한 high-water mark(마지막 처리 시각) 에서 GRACE_MS 만큼 뒤로 물린 구간에 입장 마감된 경기
+ *   → 매 실행 비용이 전체 과거 경기 수가 아니라 최근 경기 수에 비례 (첫 실행만 전체 처리)
+ *   → 경기 시작 후 늦게 발급된 티켓, 시작시각이 조금 당겨진 경기도 유예 구간 안에서 다시 만료
+ * - 하루 1번은 유효 티켓이 남은 경기 전체를 DB 에서 찾아 입장 마감된 경기를 만료 (유예 구간을 벗어난 경우 보정)
+ *   → high-water mark 는 최적화일 뿐, 만료 누락의 기준이 되지 않음
+ * - 만료: 경기별 유효 티켓을 tno keyset 으로 CHUNK 건씩 끊어 PK 범위 UPDATE (긴 트랜잭션/락 방지)
+ * - QR 정리: /upload/ 파일이 남은 티켓만 CHUNK 건씩 조회 → 파일 삭제를 병렬 처리
+ *   → 성공 건은 ticket_code 를 렌더링 경로로 바꿔 다음 실행에서 다시 조회되지 않음
+ * - 여러 인스턴스가 동시에 돌지 않도록 Redisson 락으로 보호
+ */
+@Service
+@RequiredArgsConstructor
+public class TicketExpiryService {
+
+    private final RedissonClient redisson;
+    private final TicketsMapper ticketsMapper;
+    private final GameCatalogService gameCatalog;
+    private final FileService fileService;
+    private final WalletService walletService;
+    private final ReservationMapper reservationMapper;
+    private final ThreadPoolTaskExecutor fileCleanupExecutor;
+    private final TicketScanService ticketScanService;
+
+    private static final int CHUNK = 1000;          // UPDATE/SELECT 1회 처리 건수
+    private static final int DELETE_BATCH = 100;    // 파일 삭제 작업 1건당 파일 수
+    private static final long GRACE_MS = TimeUnit.DAYS.toMillis(2);   // high-water mark 뒤로 다시 보는 구간
+    private static final long SWEEP_MS = TimeUnit.DAYS.toMillis(1);   // 전체 점검 주기
+
+    /**
+     * 지난 경기 티켓 무효화 + QR 이미지 정리 스케줄러
+     * - 5분마다 실행(09~23시)
+     */
+    @Scheduled(cron = "0 */5 9-23 * * *", zone = "Asia/Seoul")
+    public void expireFormerGames() {
+        RLock lock = redisson.getLock(RedisKeys.TICKET_EXPIRY_LOCK);
+        if (!lock.tryLock()) return;
+        try {
+            RBucket<Long> hwmBucket = redisson.getBucket(RedisKeys.TICKET_EXPIRY_HWM, LongCodec.INSTANCE);
+            Long hwm = hwmBucket.get();
+            long now = System.currentTimeMillis();
+            long closedBefore = now - TicketScanService.UNLOAD_AFTER_MS; // 이 시각 전에 시작한 경기 = 입장 마감
+
+            Set<Integer> gnos = new LinkedHashSet<>(gameCatalog.gnosStartedBetween(
+                    hwm == null ? Long.MIN_VALUE : hwm - TicketScanService.UNLOAD_AFTER_MS - GRACE_MS, closedBefore));
+
+            RBucket<Long> sweepBucket = redisson.getBucket(RedisKeys.TICKET_EXPIRY_SWEEP, LongCodec.INSTANCE);
+            Long sweptAt = sweepBucket.get();
+            boolean sweep = sweptAt == null || now - sweptAt >= SWEEP_MS;
+            if (sweep) {
+                Set<Integer> closed = new HashSet<>(gameCatalog.expiredGnos(closedBefore));
+                for (int gno : ticketsMapper.findGnosWithValidTickets()) {
+                    if (closed.contains(gno)) gnos.add(gno);
+                }// for end
+            }// if end
+
+            int expired = 0, cleaned = 0;
+            for (int gno : gnos) {
+                if (ticketScanService.isGameLoaded(gno)) continue; // 적재 해제(1분 주기) 후 다음 실행에서 처리
+                int n = expireGame(gno);
+                if (n > 0) walletService.evict(reservationMapper.findMnosByGno(gno));
+                expired += n;
+                cleaned += cleanupQrImages(gno);
+            }// for end
+            // 모든 경기 처리 후에만 전진 → 중간 실패 시 다음 실행에서 같은 구간 재처리 (UPDATE/정리 모두 멱등)
+            hwmBucket.set(now);
+            if (sweep) sweepBucket.set(now);
+
+            if (expired > 0 || cleaned > 0) {
+                System.out.println("[TicketExpiry] 경기 " + gnos.size() + "건 처리: 만료 " + expired + "장, QR 파일 정리 " + cleaned + "장");
+            }
+        } catch (Exception e) {
+            System.out.println("[TicketExpiry] 처리 오류: " + e.getMessage());
+        } finally {
+            if (lock.isHeldByCurrentThread()) lock.unlock();
+        }// try end
+    }// func end
+
+    /**
+     * 경기 티켓 무효화 (tno keyset 청크)
+     *
+     * @param gno 경기번호
+     * @return 무효화된 티켓 수
+     */
+    int expireGame(int gno) {
+        int total = 0;
+        int after = 0;
+        while (true) {
+            List<Integer> tnos = ticketsMapper.findValidTnosByGno(gno, after, CHUNK);
+            if (tnos.isEmpty()) break;
+            int from = tnos.get(0);
+            int to = tnos.get(tnos.size() - 1);
+            total += ticketsMapper.expireTnoRange(gno, from, to);
+            if (tnos.size() < CHUNK) break;
+            after = to;
+        }// while end
+        return total;
+    }// func end
+
+    /**
+     * 경기의 기존 QR 이미지 파일 정리 (tno keyset 청크, 파일 삭제는 병렬)
+     * - 파일이 이미 없는 경우도 정리된 것으로 간주
+     *
+     * @param gno 경기번호
+     * @return 정리 표시된 티켓 수
+     */
+    int cleanupQrImages(int gno) {
+        int total = 0;
+        int after = 0;
+        while (true) {
+            List<Map<String, Object>> rows = ticketsMapper.findLegacyQrByGno(gno, after, CHUNK);
+            if (rows.isEmpty()) break;
+
+            List<CompletableFuture<List<Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i += DELETE_BATCH) {
+                List<Map<String, Object>> part = rows.subList(i, Math.min(rows.size(), i + DELETE_BATCH));
+                futures.add(CompletableFuture.supplyAsync(() -> deleteFiles(part), fileCleanupExecutor));
+            }// for end
+
+            List<Integer> done = new ArrayList<>(rows.size());
+            for (CompletableFuture<List<Integer>> f : futures) done.addAll(f.join());
+            if (!done.isEmpty()) total += ticketsMapper.markQrCleaned(done);
+
+            if (rows.size() < CHUNK) break;
+            after = ((Number) rows.get(rows.size() - 1).get("tno")).intValue();
+        }// while end
+        return total;
+    }// func end
+
+    // 파일 삭제 → 삭제됐거나 원래 없던 티켓의 tno
+    private List<Integer> deleteFiles(List<Map<String, Object>> rows) {
+        List<Integer> done = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            String path = String.valueOf(row.get("ticket_code"));
+            if (fileService.deleteQRImg(path) || !fileService.existsQRImg(path)) {
+                done.add(((Number) row.get("tno")).intValue());
+            }
+        }// for end
+        return done;
+    }// func end
+}// class end
@@ -0,0 +1,123 @@
+package phoenix.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import phoenix.model.mapper.TicketIssueQueueMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비동기 티켓 발급 파이프라인
+ * <p>
+ * 1. 예매 확정 트랜잭션: reservations insert + ticket_issue_queue 에 rno 적재 (enqueue)
+ * 2. 펌프(@Scheduled): 쉬는 워커 수만큼만 대기 건을 배치로 선점(claim) → 선점 후 바로 실행
+ * 3. 워커: TicketsService.issueBatch 로 일괄 발급 → 대기열 완료 처리(자기 token 행만) → 회원별 발급 알림
+ * - 실패 시 대기열로 되돌림 (MAX_ATTEMPTS 초과 시 failed), 워커 중단 건은 STALE_SEC 후 재선점
+ * - 재선점과 겹쳐도 tickets.rno UNIQUE + INSERT IGNORE 로 예매당 티켓 1장
+ */
+@Service
+@RequiredArgsConstructor
+public class TicketIssueService {
+
+    private final TicketIssueQueueMapper queueMapper;
+    private final TicketsService ticketsService;
+    private final ThreadPoolTaskExecutor ticketIssueExecutor;
+    private final NotificationDispatcher notificationDispatcher;
+    private final WalletService walletService;
+
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int STALE_SEC = 60;
+
+    // 선점 후 아직 끝나지 않은 배치 수 (실행 대기 포함)
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 발급 대기열 적재
+     * - 호출자의 트랜잭션에 참여 → 예매 insert 와 함께 커밋/롤백
+     *
+     * @param rnos 예매번호 목록
+     */
+    public void enqueue(List<Integer> rnos) {
+        if (rnos == null || rnos.isEmpty()) return;
+        queueMapper.enqueue(rnos);
+    }// func end
+
+    /**
+     * 발급 펌프
+     * - 쉬는 워커가 없으면 선점하지 않음 (대기 건은 DB에 그대로 남아 다음 주기에 처리)
+     * - 선점한 배치가 실행 대기열에서 STALE_SEC 을 넘겨 재선점되는 일이 없도록 큐 여유가 아닌 워커 수 기준
+     */
+    @Scheduled(fixedDelay = 300)
+    public void pump() {
+        try {
+            while (inFlight.get() < ticketIssueExecutor.getMaxPoolSize()) {
+                String token = UUID.randomUUID().toString();
+                if (queueMapper.claim(token, BATCH_SIZE, STALE_SEC) == 0) return;
+                inFlight.incrementAndGet();
+                try {
+                    ticketIssueExecutor.execute(() -> {
+                        try {
+                            issue(token);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }// try end
+                    });
+                } catch (RejectedExecutionException e) {
+                    inFlight.decrementAndGet();
+                    queueMapper.release(token, MAX_ATTEMPTS);
+                    return;
+                }// try end
+            }// while end
+        } catch (Exception e) {
+            System.out.println("[TicketIssue] 펌프 오류: " + e.getMessage());
+        }// try end
+    }// func end
+
+    /**
+     * 예매 취소 → 발급 대기열에서 제외
+     * - 호출자의 트랜잭션에 참여 (취소와 함께 커밋/롤백)
+     *
+     * @param rno 예매번호
+     */
+    public void cancel(int rno) {
+        queueMapper.cancel(rno);
+    }// func end
+
+    /** 완료 건 정리 (하루 지난 done 행) */
+    @Scheduled(cron = "0 30 4 * * *", zone = "Asia/Seoul")
+    public void purgeDone() {
+        while (queueMapper.purgeDone(1000) > 0) { /* 1000건씩 반복 */ }
+    }// func end
+
+    // 워커: 선점한 배치 1건 처리
+    private void issue(String token) {
+        List<Integer> rnos = queueMapper.findClaimed(token);
+        if (rnos.isEmpty()) return;
+        Map<Integer, Integer> issuedByMno;
+        try {
+            issuedByMno = ticketsService.issueBatch(rnos);
+            int done = queueMapper.markDone(token);
+            if (done < rnos.size()) {
+                System.out.println("[TicketIssue] 재선점된 배치 rnos=" + rnos.size() + " done=" + done);
+            }// if end
+        } catch (Exception e) {
+            System.out.println("[TicketIssue] 발급 실패(재시도 예정) rnos=" + rnos.size() + " | " + e.getMessage());
+            queueMapper.release(token, MAX_ATTEMPTS);
+            return;
+        }// try end
+        issuedByMno.keySet().forEach(walletService::changed);
+        issuedByMno.forEach(this::notifyReady);
+    }// func end
+
+    // 티켓 발급 완료 푸시 (미접속이면 알림함에 저장)
+    private void notifyReady(int mno, int count) {
+        notificationDispatcher.send(mno, "ticketReady", "티켓 " + count + "매가 발급되었습니다.");
+    }// func end
+}// class end
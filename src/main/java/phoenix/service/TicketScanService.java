@@ -0,0 +1,473 @@
+package phoenix.service;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RList;
+import org.redisson.api.RLock;
+import org.redisson.api.RScript;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import phoenix.model.dto.GameDto;
+import phoenix.model.mapper.TicketsMapper;
+import phoenix.util.RedisKeys;
+import phoenix.util.TicketCodes;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 입장 게이트 QR 스캔 (Redis 선적재 fast path)
+ * <p>
+ * - 경기 시작 PRELOAD_BEFORE_MS 전부터 해당 경기의 유효 티켓 UUID를 Redis에 적재
+ *   · scan:ticket:gno (hash uuid → gno) : 적재된 경기의 티켓 전체
+ *   · scan:valid:{gno} (set)            : 아직 사용하지 않은 티켓
+ * - 스캔 1회 = Lua 1회 (HGET → SREM → 성공 시 write-back 리스트 RPUSH) → 원자적 1회 사용
+ *   · 스크립트가 쓰는 키는 모두 KEYS 로 전달 (경기번호는 스캔 직전 hash 조회로 확인, 스크립트 안에서 재검증)
+ * - 경기별 락은 watchdog 갱신(lease 없는 lock) → 적재가 오래 걸려도 다른 적재/스캔과 겹치지 않음
+ * - DB 반영(valid=1→0)은 write-back 리스트를 배치로 비동기 처리
+ * - 적재되지 않은 경기/적재 후 발급된 티켓은 경기별 락 안에서 기존 DB 경로로 처리
+ *   (적재·추가·DB 경로가 같은 락을 쓰므로 Redis/DB 어느 쪽으로도 두 번 통과할 수 없음)
+ * - 유효 set 변경은 모두 같은 Lua 안에서 버전 증가 + 변경 로그(zset) 기록 → 오프라인 스캐너 델타 동기화
+ * - 인정된 스캔은 scan:winner:{gno} 에 "scannedAt|deviceId" 로 기록
+ *   (오프라인 중복 스캔은 더 이른 scannedAt, 같으면 작은 deviceId 가 승자 — judgeOfflineScan, 교체는 CAS Lua)
+ * - 입장 통계(경기/구역/분 단위 카운터)도 같은 Lua 안에서 HINCRBY (EntryStatsService 에서 조회)
+ * - 입장 마감(시작 UNLOAD_AFTER_MS 후)은 두 경로 공통: Redis 는 적재 해제, DB 경로는 마감 검사로 거절
+ *   → 티켓 만료(valid=0)는 적재 해제 이후 TicketExpiryService 가 처리 (적재 중 유효 set 과 DB 가 어긋나지 않음)
+ */
+@Service
+@RequiredArgsConstructor
+public class TicketScanService {
+
+    private final RedissonClient redisson;
+    private final TicketsMapper ticketsMapper;
+    private final GameCatalogService gameCatalog;
+    private final TicketCodes ticketCodes;
+    private final WalletService walletService;
+
+    private static final long PRELOAD_BEFORE_MS = TimeUnit.HOURS.toMillis(3);
+    /** 입장 마감 (경기 시작 후) — 이후 적재 해제, DB 경로도 거절, TicketExpiryService 가 티켓 만료 */
+    static final long UNLOAD_AFTER_MS           = TimeUnit.HOURS.toMillis(6);
+    private static final int  CHUNK = 500;
+
+    // 스캔 스크립트 공통 KEYS (경기별 키는 호출 전에 gno 로 만들어 전달, 스크립트 안에서 키 이름을 만들지 않음)
+    // 1 uuid→gno hash, 2 write-back list, 3 유효 set, 4 버전, 5 변경 로그, 6 승자 hash, 7 구역 hash, 8 누적 통계, 9 분당 통계
+
+    // 유효 set 에서 빠질 때 공통 기록: 버전 증가 + 변경 로그
+    private static final String LOG_REMOVE = """
+            local v = redis.call('INCR', KEYS[4])
+            redis.call('ZADD', KEYS[5], v, '-' .. ARGV[1])
+            """;
+
+    // 입장 통계: 누적(total, z:{zno}) + 분당(m:{분}, zm:{zno}:{분}), 7일 보관 / ARGV[n]: 분(epoch minute)
+    private static String statsInc(int n) {
+        return """
+              local z = redis.call('HGET', KEYS[7], ARGV[1]) or '0'
+              redis.call('HINCRBY', KEYS[8], 'total', 1)
+              redis.call('HINCRBY', KEYS[8], 'z:' .. z, 1)
+              redis.call('HINCRBY', KEYS[9], 'm:' .. ARGV[%1$d], 1)
+              redis.call('HINCRBY', KEYS[9], 'zm:' .. z .. ':' .. ARGV[%1$d], 1)
+              redis.call('EXPIRE', KEYS[8], 604800)
+              redis.call('EXPIRE', KEYS[9], 604800)
+            """.formatted(n);
+    }
+
+    // 온라인 스캔. 1: 사용 처리, 0: 이미 사용(또는 취소), -1: 적재되지 않은 티켓, -2: 경기 불일치(다시 조회)
+    // ARGV: uuid, gno, winnerValue, 분
+    private static final String SCAN_LUA = """
+            local gno = redis.call('HGET', KEYS[1], ARGV[1])
+            if not gno then return -1 end
+            if gno ~= ARGV[2] then return -2 end
+            if redis.call('SREM', KEYS[3], ARGV[1]) == 1 then
+              redis.call('RPUSH', KEYS[2], ARGV[1])
+              redis.call('HSET', KEYS[6], ARGV[1], ARGV[3])
+            """ + LOG_REMOVE + statsInc(4) + """
+              return 1
+            end
+            return 0
+            """;
+
+    // 오프라인 스캔 업로드 1단계: 아직 유효하면 사용 처리(ACCEPTED), 이미 사용됐으면 현재 승자값(USED)
+    // 승자 비교는 Java(judgeOfflineScan) → 교체는 WINNER_CAS_LUA
+    // ARGV: uuid, gno, "scannedAt|deviceId", 분
+    // 반환: {상태, 승자값}
+    private static final String UPLOAD_LUA = """
+            local gno = redis.call('HGET', KEYS[1], ARGV[1])
+            if not gno then return {'UNKNOWN', ''} end
+            if gno ~= ARGV[2] then return {'WRONG_GAME', ''} end
+            if redis.call('SREM', KEYS[3], ARGV[1]) == 1 then
+              redis.call('RPUSH', KEYS[2], ARGV[1])
+              redis.call('HSET', KEYS[6], ARGV[1], ARGV[3])
+            """ + LOG_REMOVE + statsInc(4) + """
+              return {'ACCEPTED', ARGV[3]}
+            end
+            return {'USED', redis.call('HGET', KEYS[6], ARGV[1]) or ''}
+            """;
+
+    // 승자 교체 (읽은 값 그대로일 때만). 반환: 교체 후(또는 바뀌어 있던) 승자값
+    // KEYS: winner hash / ARGV: uuid, expected, me
+    private static final String WINNER_CAS_LUA = """
+            local cur = redis.call('HGET', KEYS[1], ARGV[1]) or ''
+            if cur ~= ARGV[2] then return cur end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[3])
+            return ARGV[3]
+            """;
+
+    // 처음 보는 uuid만 hash + 유효 set 에 추가 (이미 hash 에 있으면 사용/취소된 것이므로 건드리지 않음)
+    // KEYS: hash, validSet, version, log, zoneHash / ARGV: gno, (uuid, zno)...
+    private static final String ADD_LUA = """
+            local added = 0
+            for i = 2, #ARGV, 2 do
+              if redis.call('HSETNX', KEYS[1], ARGV[i], ARGV[1]) == 1 then
+                redis.call('HSET', KEYS[5], ARGV[i], ARGV[i + 1])
+                redis.call('SADD', KEYS[2], ARGV[i])
+                local v = redis.call('INCR', KEYS[3])
+                redis.call('ZADD', KEYS[4], v, '+' .. ARGV[i])
+                added = added + 1
+              end
+            end
+            return added
+            """;
+
+    // 취소: 유효 set 에 있을 때만 제거 + 로그
+    // KEYS: validSet, version, log / ARGV: uuid
+    private static final String REVOKE_LUA = """
+            if redis.call('SREM', KEYS[1], ARGV[1]) == 1 then
+              local v = redis.call('INCR', KEYS[2])
+              redis.call('ZADD', KEYS[3], v, '-' .. ARGV[1])
+              return 1
+            end
+            return 0
+            """;
+
+    // ===== Redis Accessors =====
+    private RScript script()              { return redisson.getScript(StringCodec.INSTANCE); }
+    private RLock gameLock(int gno)       { return redisson.getLock("scan:lock:" + gno); }
+    private RSet<Integer> loadedGnos()    { return redisson.getSet(RedisKeys.SCAN_LOADED_GNOS); }
+    private boolean isLoaded(int gno)     { return redisson.getBucket(RedisKeys.keyScanLoaded(gno)).isExists(); }
+
+    /**
+     * QR 스캔 처리 (1회 사용)
+     *
+     * @param uuid 티켓 UUID
+     * @return { success: true/false, message: "..." }
+     */
+    public Map<String, Object> scan(String uuid) {
+        if (!ticketCodes.isValid(uuid)) return invalid(); // 위조 코드는 Redis/DB 조회 없이 거절
+
+        long r = evalScan(uuid);
+        if (r == 1) return used();
+        if (r == 0) return alreadyUsed();
+
+        // 적재되지 않은 티켓 → DB 경로
+        Map<String, Object> target = ticketsMapper.findScanTarget(uuid);
+        if (target == null) return invalid();
+        if (!Boolean.TRUE.equals(target.get("valid"))) return alreadyUsed();
+        int gno = ((Number) target.get("gno")).intValue();
+        if (isEntryClosed(gno, System.currentTimeMillis())) return entryClosed(); // Redis 경로(적재 해제)와 같은 마감
+
+        RLock lock = gameLock(gno);
+        try {
+            if (!lock.tryLock(3, TimeUnit.SECONDS)) { // 점유 후 watchdog 갱신
+                return Map.of("success", false, "message", "잠시 후 다시 스캔해 주세요.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of("success", false, "message", "잠시 후 다시 스캔해 주세요.");
+        }
+        try {
+            // 락 대기 중 적재되었을 수 있음
+            r = evalScan(uuid);
+            if (r == 1) return used();
+            if (r == 0) return alreadyUsed();
+
+            int updated = ticketsMapper.qrScanInfoUpdate(uuid);
+            if (updated == 1) {
+                walletService.evict(ticketsMapper.findMnosByUuids(List.of(uuid)));
+                recordEntry(gno, target.get("zno") == null ? 0 : ((Number) target.get("zno")).intValue());
+            }
+            if (isLoaded(gno)) {
+                // 적재된 경기에 뒤늦게 들어온 티켓 → 사용 표시만 (이후 추가되지 않도록)
+                redisson.getMap(RedisKeys.SCAN_TICKET_GAME, StringCodec.INSTANCE).fastPut(uuid, String.valueOf(gno));
+            }
+            return updated == 1 ? used() : alreadyUsed();
+        } finally {
+            lock.unlock();
+        }
+    }// func end
+
+    /**
+     * 적재된 경기에 새로 발급된 티켓 추가 (발급 트랜잭션 커밋 후)
+     *
+     * @param gno 경기번호
+     * @param uuids 신규 티켓 UUID → 구역번호
+     */
+    public void onIssued(int gno, Map<String, Integer> uuids) {
+        if (uuids == null || uuids.isEmpty()) return;
+        afterCommit(() -> {
+            if (!isLoaded(gno)) return;
+            RLock lock = gameLock(gno);
+            lock.lock(); // watchdog 갱신 (적재/해제와 같은 락)
+            try {
+                addValid(gno, uuids);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }// func end
+
+    /**
+     * 취소된 티켓을 유효 set에서 제거 (취소 트랜잭션 커밋 후)
+     *
+     * @param gno 경기번호
+     * @param uuid 티켓 UUID
+     */
+    public void revoke(int gno, String uuid) {
+        if (uuid == null) return;
+        afterCommit(() -> script().eval(RScript.Mode.READ_WRITE, REVOKE_LUA, RScript.ReturnType.INTEGER,
+                List.<Object>of(RedisKeys.keyScanValid(gno), RedisKeys.keyScanVersion(gno), RedisKeys.keyScanLog(gno)),
+                uuid));
+    }// func end
+
+    /**
+     * 경기별 적재/해제 스케줄러
+     * - 시작 3시간 전 ~ 시작 6시간 후: 적재
+     * - 그 이후: 해제 (hash 항목/유효 set/마커 삭제)
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void syncLoadedGames() {
+        long now = System.currentTimeMillis();
+        try {
+            for (GameDto g : gameCatalog.upcoming(now - UNLOAD_AFTER_MS, 20)) {
+                long startAt = GameCatalogService.startMillis(g);
+                if (startAt - PRELOAD_BEFORE_MS > now) break; // 시작순 정렬
+                if (!isLoaded(g.getGno())) preload(g.getGno());
+            }
+            for (Integer gno : loadedGnos().readAll()) {
+                if (gameCatalog.window(gno) == null || isEntryClosed(gno, now)) unload(gno);
+            }
+        } catch (Exception e) {
+            System.out.println("[TicketScan] 적재 동기화 오류: " + e.getMessage());
+        }
+    }// func end
+
+    /**
+     * 경기 유효 티켓 적재
+     *
+     * @param gno 경기번호
+     */
+    public void preload(int gno) {
+        RLock lock = gameLock(gno);
+        lock.lock(); // watchdog 갱신 → 적재가 길어져도 락이 먼저 풀리지 않음
+        try {
+            if (isLoaded(gno)) return;
+            List<Map<String, Object>> rows = ticketsMapper.findValidUuidsByGno(gno);
+            Map<String, Integer> chunk = new LinkedHashMap<>();
+            for (Map<String, Object> row : rows) {
+                chunk.put((String) row.get("ticket_uuid"), ((Number) row.get("zno")).intValue());
+                if (chunk.size() == CHUNK) { addValid(gno, chunk); chunk.clear(); }
+            }
+            addValid(gno, chunk);
+            // 적재 마커 값 = 적재 회차(epoch). 해제 후 다시 적재하면 버전이 0부터 시작하므로 스캐너는 회차로 구분
+            redisson.<String>getBucket(RedisKeys.keyScanLoaded(gno), StringCodec.INSTANCE)
+                    .set(String.valueOf(System.currentTimeMillis()), 2, TimeUnit.DAYS);
+            loadedGnos().add(gno);
+            System.out.println("[TicketScan] 경기 적재 gno=" + gno + " tickets=" + rows.size());
+        } finally {
+            lock.unlock();
+        }
+    }// func end
+
+    private void unload(int gno) {
+        RLock lock = gameLock(gno);
+        lock.lock(); // watchdog 갱신 → 적재가 길어져도 락이 먼저 풀리지 않음
+        try {
+            List<String> uuids = ticketsMapper.findUuidsByGno(gno);
+            var hash = redisson.getMap(RedisKeys.SCAN_TICKET_GAME, StringCodec.INSTANCE);
+            for (int i = 0; i < uuids.size(); i += CHUNK) {
+                hash.fastRemove(uuids.subList(i, Math.min(uuids.size(), i + CHUNK)).toArray());
+            }
+            redisson.getKeys().delete(RedisKeys.keyScanValid(gno), RedisKeys.keyScanLoaded(gno),
+                    RedisKeys.keyScanVersion(gno), RedisKeys.keyScanLog(gno), RedisKeys.keyScanWinner(gno),
+                    RedisKeys.keyScanZone(gno));
+            loadedGnos().remove(gno);
+            System.out.println("[TicketScan] 경기 적재 해제 gno=" + gno);
+        } finally {
+            lock.unlock();
+        }
+    }// func end
+
+    /**
+     * write-back: 스캔된 uuid를 배치로 DB 반영
+     * - LRANGE → UPDATE → LTRIM 순서라 중간 실패 시 다음 주기에 재처리 (UPDATE는 멱등)
+     * - 단일 처리자만 돌도록 락 사용
+     */
+    @Scheduled(fixedDelay = 500)
+    public void flushWriteback() {
+        RLock lock = redisson.getLock("scan:writeback:lock");
+        if (!lock.tryLock()) return;
+        try {
+            RList<String> list = redisson.getList(RedisKeys.SCAN_WRITEBACK, StringCodec.INSTANCE);
+            while (true) {
+                List<String> chunk = list.range(0, CHUNK - 1);
+                if (chunk.isEmpty()) break;
+                ticketsMapper.qrScanBatchUpdate(chunk);
+                walletService.evict(ticketsMapper.findMnosByUuids(chunk));
+                list.trim(chunk.size(), -1);
+                if (chunk.size() < CHUNK) break;
+            }
+        } catch (Exception e) {
+            System.out.println("[TicketScan] write-back 실패(재시도 예정): " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }// func end
+
+    /**
+     * 오프라인 스캐너가 올린 스캔 1건 반영 (멱등)
+     * - 아직 유효 → 사용 처리 후 ACCEPTED
+     * - 이미 사용됨 → 기존 승자보다 (scannedAt, deviceId) 가 앞서면 승자 교체 후 ACCEPTED, 아니면 REJECTED
+     * - 같은 스캔 재전송 → 같은 결과
+     *
+     * @return {상태, "scannedAt|deviceId"(승자, 없으면 빈 문자열)}
+     */
+    public List<String> applyOfflineScan(int gno, String uuid, long scannedAt, String deviceId) {
+        if (!ticketCodes.isValid(uuid)) return List.of("INVALID", "");
+        String me = winnerValue(scannedAt, deviceId);
+        List<Object> r = script().eval(RScript.Mode.READ_WRITE, UPLOAD_LUA, RScript.ReturnType.MULTI, scanKeys(gno),
+                uuid, String.valueOf(gno), me, String.valueOf(Math.max(0, scannedAt) / 60000));
+        String status = String.valueOf(r.get(0));
+        String cur = String.valueOf(r.get(1));
+        if (!"USED".equals(status)) return List.of(status, cur);
+
+        // 이미 사용된 티켓: 승자 비교 → 앞서면 CAS 교체, 그 사이 승자가 바뀌었으면 바뀐 값으로 다시 판정
+        // (승자는 더 앞선 값으로만 바뀌므로 반복 횟수는 동시 업로드 수 이내)
+        while (true) {
+            OfflineVerdict v = judgeOfflineScan(cur, me);
+            if (!v.replace()) return List.of(v.status(), v.winner());
+            String now = script().eval(RScript.Mode.READ_WRITE, WINNER_CAS_LUA, RScript.ReturnType.VALUE,
+                    List.<Object>of(RedisKeys.keyScanWinner(gno)), uuid, cur, me);
+            if (me.equals(now)) return List.of("ACCEPTED", me);
+            cur = now == null ? "" : now;
+        }
+    }// func end
+
+    /**
+     * 오프라인 중복 스캔 판정 (이미 사용된 티켓)
+     * - 승자 없음(취소 등으로 사용 처리됨) → REJECTED
+     * - 같은 스캔 재전송 → ACCEPTED (멱등)
+     * - (scannedAt, deviceId) 가 현재 승자보다 앞섬 → 승자 교체 후 ACCEPTED
+     * - 그 외 → REJECTED (현재 승자 반환)
+     *
+     * @param current 현재 승자값 (없으면 빈 문자열)
+     * @param me 업로드한 스캔의 승자값 (winnerValue)
+     */
+    static OfflineVerdict judgeOfflineScan(String current, String me) {
+        if (current == null || current.isEmpty()) return new OfflineVerdict("REJECTED", "", false);
+        if (me.equals(current)) return new OfflineVerdict("ACCEPTED", me, false);
+        if (me.compareTo(current) < 0) return new OfflineVerdict("ACCEPTED", me, true);
+        return new OfflineVerdict("REJECTED", current, false);
+    }// func end
+
+    /** 오프라인 스캔 판정 결과 (replace: 승자 교체 필요) */
+    record OfflineVerdict(String status, String winner, boolean replace) {}
+
+    /** 승자 비교값: 13자리 0패딩 epoch ms + "|" + deviceId (문자열 비교 = 시각 → 장치 순) */
+    public static String winnerValue(long scannedAt, String deviceId) {
+        return String.format("%013d", Math.max(0, scannedAt)) + "|" + deviceId;
+    }
+
+    public boolean isGameLoaded(int gno) {
+        return isLoaded(gno);
+    }
+
+    /** 입장 마감 여부 (경기 시작 + UNLOAD_AFTER_MS 이후) */
+    public boolean isEntryClosed(int gno, long nowMillis) {
+        GameCatalogService.SaleWindow w = gameCatalog.window(gno);
+        return w != null && nowMillis >= w.getStartAt() + UNLOAD_AFTER_MS;
+    }
+
+    // 경기 조회(HGET) 후 해당 경기 키로 스크립트 실행, 그 사이 경기가 바뀌었으면(-2) 다시 조회
+    private long evalScan(String uuid) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            String gno = redisson.<String, String>getMap(RedisKeys.SCAN_TICKET_GAME, StringCodec.INSTANCE).get(uuid);
+            if (gno == null) return -1;
+            long now = System.currentTimeMillis();
+            Long r = script().eval(RScript.Mode.READ_WRITE, SCAN_LUA, RScript.ReturnType.INTEGER,
+                    scanKeys(Integer.parseInt(gno)), uuid, gno, winnerValue(now, "online"), String.valueOf(now / 60000));
+            if (r == null) return -1;
+            if (r != -2) return r;
+        }
+        return -1;
+    }
+
+    // SCAN_LUA / UPLOAD_LUA 의 KEYS (순서 고정)
+    private static List<Object> scanKeys(int gno) {
+        return List.<Object>of(RedisKeys.SCAN_TICKET_GAME, RedisKeys.SCAN_WRITEBACK, RedisKeys.keyScanValid(gno),
+                RedisKeys.keyScanVersion(gno), RedisKeys.keyScanLog(gno), RedisKeys.keyScanWinner(gno),
+                RedisKeys.keyScanZone(gno), RedisKeys.keyScanStats(gno), RedisKeys.keyScanStatsMin(gno));
+    }
+
+    // DB 경로로 통과한 입장 통계 (Lua 경로와 같은 필드)
+    private void recordEntry(int gno, int zno) {
+        try {
+            long minute = System.currentTimeMillis() / 60000;
+            script().eval(RScript.Mode.READ_WRITE, """
+                    redis.call('HINCRBY', KEYS[1], 'total', 1)
+                    redis.call('HINCRBY', KEYS[1], 'z:' .. ARGV[1], 1)
+                    redis.call('HINCRBY', KEYS[2], 'm:' .. ARGV[2], 1)
+                    redis.call('HINCRBY', KEYS[2], 'zm:' .. ARGV[1] .. ':' .. ARGV[2], 1)
+                    redis.call('EXPIRE', KEYS[1], 604800)
+                    redis.call('EXPIRE', KEYS[2], 604800)
+                    return 1
+                    """, RScript.ReturnType.INTEGER,
+                    List.<Object>of(RedisKeys.keyScanStats(gno), RedisKeys.keyScanStatsMin(gno)),
+                    String.valueOf(zno), String.valueOf(minute));
+        } catch (Exception e) {
+            System.out.println("[TicketScan] 입장 통계 기록 실패: " + e.getMessage());
+        }
+    }
+
+    private void addValid(int gno, Map<String, Integer> uuids) {
+        if (uuids.isEmpty()) return;
+        List<Object> args = new ArrayList<>(uuids.size() * 2 + 1);
+        args.add(String.valueOf(gno));
+        uuids.forEach((uuid, zno) -> {
+            args.add(uuid);
+            args.add(String.valueOf(zno));
+        });
+        script().eval(RScript.Mode.READ_WRITE, ADD_LUA, RScript.ReturnType.INTEGER,
+                List.<Object>of(RedisKeys.SCAN_TICKET_GAME, RedisKeys.keyScanValid(gno),
+                        RedisKeys.keyScanVersion(gno), RedisKeys.keyScanLog(gno), RedisKeys.keyScanZone(gno)),
+                args.toArray());
+    }
+
+    // 트랜잭션 안이면 커밋 후, 아니면 즉시 실행
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        System.out.println("[TicketScan] 커밋 후 반영 실패: " + e.getMessage());
+                    }
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private static Map<String, Object> used()        { return Map.of("success", true, "message", "티켓 사용 완료"); }
+    private static Map<String, Object> alreadyUsed() { return Map.of("success", false, "message", "이미 사용된 티켓입니다."); }
+    private static Map<String, Object> invalid()     { return Map.of("success", false, "message", "유효하지 않은 QR 코드입니다."); }
+    private static Map<String, Object> entryClosed() { return Map.of("success", false, "message", "입장 시간이 지난 티켓입니다."); }
+}// class end
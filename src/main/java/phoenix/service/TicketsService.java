@@ -1,20 +1,28 @@
 package phoenix.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.transaction.annotation.Transactional;
 import phoenix.model.dto.TicketsDto;
+import phoenix.model.dto.WalletDto;
 import phoenix.model.mapper.TicketsMapper;
+import phoenix.util.TicketCodes;
 import org.springframework.stereotype.Service;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TicketsService {
     private final TicketsMapper ticketsMapper;
-    private final FileService fileService;
+    private final TicketScanService ticketScanService;
+    private final TicketCodes ticketCodes;
+    private final WalletService walletService;
 
     /**
      * 예약(rno)이 'reserved' 상태일 때만 QR 코드를 생성하여 티켓을 발급.
@@ -23,9 +31,10 @@ public class TicketsService {
      * 1. 예약/좌석/회원 정보 조회
      * 2. 예약 상태가 'reserved'인지 검증
      * 3. 기존 발급 티켓 여부 중복 확인
-     * 4. QR UUID 생성 → 스캔 URL 구성
-     * 5. QR 이미지 생성 및 저장 (FileService 활용)
-     * 6. DB에 신규 티켓 정보 저장
+     * 4. 티켓 코드 생성 (TicketCodes: 랜덤 60bit + HMAC 검증자, 충돌 시 재생성)
+     * 5. DB에 신규 티켓 정보 저장
+     *    - 이미지는 만들지 않음: ticket_code에는 /tickets/qr-image/{uuid} 경로만 저장하고
+     *      최초 조회 시 QrImageService가 렌더링 (확정 트랜잭션 안에서 이미지/디스크 작업 없음)
      * @Transactional: 읽기/쓰기 포함 트랜잭션 (DB 일관성 보장)
      *
      * @param rno 예매 고유번호
@@ -51,71 +60,110 @@ public class TicketsService {
             return false;
         }//if end
 
-        // 6자리 토큰 생성 (예: ab12f9)
-        String qrUuid = java.util.UUID.randomUUID()
-                .toString().replace("-", "")
-                .substring(0, 6);
+        //DB저장 (QR 이미지는 /tickets/qr-image/{uuid} 요청 시 생성)
+        for (int attempt = 1; ; attempt++) {
+            String qrUuid = ticketCodes.generate();
+            TicketsDto dto = new TicketsDto();
+            dto.setRno(rno);
+            dto.setTicket_code(QrImageService.imagePath(qrUuid));
+            dto.setValid(true);
+            dto.setTicket_uuid(qrUuid);
+            try {
+                ticketsMapper.ticketWrite(dto);
+                return true;
+            } catch (DuplicateKeyException e) {
+                // 같은 예매가 먼저 발급됨(rno UNIQUE) → 중복 발급 안 함
+                String issued = ticketsMapper.findTicketdedupe(rno);
+                if (issued != null && !issued.isEmpty()) return false;
+                // 코드 충돌(UNIQUE) → 새 코드로 재시도 (MySQL은 해당 문장만 롤백)
+                if (attempt >= 3) throw e;
+            }//catch end
+        }//for end
 
-        // QR코드 스캔 URL(도메인생기면 여기만 수정)
-        String baseUrl = "http://localhost:8080";
-        String qrUrl = baseUrl + "/tickets/qr?qr=" + qrUuid;
+    }//func end
 
-        // QR 이미지 파일 생성 및 저장
-        String imagePath = fileService.saveQRImg(qrUrl);
+    /**
+     * 티켓 일괄 발급 (TicketIssueService 워커에서 호출)
+     * <p>
+     * 절차:
+     * 1. 대상 예약 일괄 조회 (상태, 회원, 구역가격, 기존 티켓)
+     * 2. 'reserved' 이고 아직 티켓이 없는 예약만 골라 UUID 생성
+     * 3. 한 번의 INSERT IGNORE로 일괄 저장 (rno UNIQUE → 동시에 발급된 예매는 건너뜀)
+     * 4. 일부가 무시됐으면 실제 저장된 UUID만 집계
+     * - 코드 충돌(UNIQUE) 시 예외 → 트랜잭션 롤백 후 워커가 새 코드로 재시도
+     *
+     * @param rnos 예매번호 목록
+     * @return 회원별 발급 매수 (mno → count)
+     */
+    @Transactional
+    public Map<Integer, Integer> issueBatch(List<Integer> rnos) {
+        Map<Integer, Integer> issuedByMno = new HashMap<>();
+        if (rnos == null || rnos.isEmpty()) return issuedByMno;
 
-        //DB저장
-        TicketsDto dto = new TicketsDto();
-        dto.setRno(rno);
-        dto.setTicket_code(imagePath);
-        dto.setValid(true);
-        dto.setTicket_uuid(qrUuid);
-        ticketsMapper.ticketWrite(dto);
-        return true;
+        List<TicketsDto> batch = new ArrayList<>();
+        List<Map<String, Object>> targets = new ArrayList<>();
+        for (Map<String, Object> row : ticketsMapper.findIssueTargets(rnos)) {
+            if (!"reserved".equalsIgnoreCase(String.valueOf(row.get("reservation_status")))) continue;
+            if (row.get("tno") != null) continue; // 이미 발급됨
+
+            String qrUuid = ticketCodes.generate();
+            TicketsDto dto = new TicketsDto();
+            dto.setRno(((Number) row.get("rno")).intValue());
+            dto.setTicket_code(QrImageService.imagePath(qrUuid));
+            dto.setValid(true);
+            dto.setPrice(row.get("price") == null ? 0 : ((Number) row.get("price")).intValue());
+            dto.setTicket_uuid(qrUuid);
+            batch.add(dto);
+            targets.add(row);
+        }//for end
+        if (batch.isEmpty()) return issuedByMno;
+
+        // INSERT IGNORE: 다른 워커가 먼저 발급한 예매(rno UNIQUE)는 건너뜀 → 실제 저장분만 집계
+        int inserted = ticketsMapper.ticketWriteBatch(batch);
+        Set<String> stored = null;
+        Set<Integer> hasTicket = null;
+        if (inserted < batch.size()) {
+            stored = new HashSet<>();
+            hasTicket = new HashSet<>();
+            for (Map<String, Object> row : ticketsMapper.findTicketUuidsByRnos(rnos)) {
+                stored.add((String) row.get("ticket_uuid"));
+                hasTicket.add(((Number) row.get("rno")).intValue());
+            }//for end
+        }//if end
+
+        Map<Integer, Map<String, Integer>> uuidsByGno = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            TicketsDto dto = batch.get(i);
+            if (stored != null && !stored.contains(dto.getTicket_uuid())) {
+                // 예매에 티켓이 없는데 저장 안 됨 = 코드 충돌 → 롤백 후 워커가 새 코드로 재시도
+                if (!hasTicket.contains(dto.getRno())) throw new IllegalStateException("티켓 코드 충돌 rno=" + dto.getRno());
+                continue;
+            }//if end
+            Map<String, Object> row = targets.get(i);
+            issuedByMno.merge(((Number) row.get("mno")).intValue(), 1, Integer::sum);
+            uuidsByGno.computeIfAbsent(((Number) row.get("gno")).intValue(), k -> new LinkedHashMap<>())
+                    .put(dto.getTicket_uuid(), ((Number) row.get("zno")).intValue());
+        }//for end
 
+        // 입장 스캔 세트가 이미 적재된 경기면 커밋 후 추가
+        uuidsByGno.forEach(ticketScanService::onIssued);
+        return issuedByMno;
     }//func end
 
-    //티켓취소
+    //티켓취소 (입장 스캔 세트에서도 커밋 후 제거) - false: 아직 발급된 티켓 없음
     public boolean ticketCancel(int rno){
         boolean result = ticketsMapper.ticketCancel(rno);
+        for (Map<String, Object> row : ticketsMapper.findUuidGnoByRno(rno)) {
+            ticketScanService.revoke(((Number) row.get("gno")).intValue(), (String) row.get("ticket_uuid"));
+        }//for end
         return result;
     }//func end
 
-    /**
-     * QR 이미지 정리 스케줄러
-     * - 유효(valid=0) 상태인 티켓의 QR 이미지 파일만 물리적으로 삭제.
-     * - DB의 ticket_code 컬럼 값은 통계/로그 분석을 위해 유지.
-     * - 하루 최대 1,000개의 파일을 삭제하며, 예외 발생 시 개별 로그 출력.
-     */
-//    @Scheduled(cron = "0 * * * * *", zone = "Asia/Seoul")
-    public void QRImgDelete() {
-        final int DeleteCount = 1000; // 하루에 최대 1000개까지 QR이미지 삭제
-        while (true) {
-            List<String> imgDelete = ticketsMapper.QRImgDelete(DeleteCount);
-            if (imgDelete == null || imgDelete.isEmpty()) break;
-
-            int deleted = 0;
-            for (String qrDelete : imgDelete) {
-                if (qrDelete == null) continue;
-                try {
-                    //QR이미지 파일만 삭제
-                    if (fileService.deleteQRImg(qrDelete)) deleted++;
-                } catch (Exception e) {
-                    System.out.println("[QR 이미지 삭제 실패] " + qrDelete + " | " + e.getMessage());
-                }//catch end
-            }//for end
-            if (deleted > 0) {
-                System.out.println("[QR 이미지 삭제 수] " + deleted);
-            }//if end
-            break;
-        }//while end
-    }//func end
-
     /**
      * 회원별 티켓 QR payload 목록 조회
 
      * - 발급된 티켓의 이미지 경로, 유효상태, 가격 등의 정보를 반환
-     *
-     * @Transactional(readOnly = true): 읽기 전용 트랜잭션
+     * - 회원 지갑(Redis)에서 조회 (DB 조인 없음, WalletService 참고)
      *
      * @param mno 회원 고유번호
      * @param rno 예매 고유번호
@@ -124,46 +172,8 @@ public class TicketsService {
      * <연계 컨트롤러 예시>
      * GET /tickets/print?mno={mno}&rno={rno}
      */
-    @Transactional(readOnly = true)
-    public List<Map<String, Object>> findPayloads(int mno, int rno) {
-        return ticketsMapper.findPayloads(mno, rno);
-    }//func end
-
-    /**
-     * 지난 경기 티켓을 자동으로 무효화(valid=0) 처리하는 스케줄러
-     * - 매일 9시~23시 사이, 5분 주기로 실행되도록 설정 가능
-     * - 내부적으로 formerGameCSV()를 호출하여 처리
-     */
-
-    @Scheduled(cron = "0 */5 9-23 * * *", zone = "Asia/Seoul")
-    public void formerGame() {
-        try {
-            int updated = formerGameCSV();
-            if (updated > 0) {
-                System.out.println(" 티켓 만료 처리 완료 (valid 1 -> 0) : " + updated);
-            }//if end
-        } catch (Exception e) {
-            System.out.println("티켓 만료 처리 실패" + e);
-        }//catch end
-    }//func end
-
-    /**
-     * CSV의 경기 일정 파일을 기반으로 지난 경기(gno) 목록을 추출
-     * 해당 경기의 티켓 valid 값을 0으로 일괄 업데이트
-     *
-     * @Transactional: 일괄 업데이트 트랜잭션
-     *
-     * @return 실제로 업데이트된 행 수
-     */
-    @Transactional
-    public int formerGameCSV() {
-        List<Integer> expired = fileService.getExpiredGames(); // game.csv 호출
-        if (expired ==null || expired.isEmpty()) return 0 ;
-
-        String gnoListStr = expired.stream() //파이프형 라인(ex:[1,2,3,4,5]
-                .map(String::valueOf)   // 문자열변환
-                .collect(Collectors.joining(","));
-        return ticketsMapper.formerGame(gnoListStr);
+    public List<WalletDto.Ticket> findPayloads(int mno, int rno) {
+        return walletService.tickets(mno, rno);
     }//func end
 
     /**
@@ -173,50 +183,84 @@ public class TicketsService {
      * @return 예매 상세 정보 맵 (없을 경우 null)
      */
     public Map<String, Object> ticketUuidInfo(String uuid) {
-        if (uuid == null || uuid.isBlank()) return null;
+        if (!ticketCodes.isValid(uuid)) return null; // 위조/형식 오류는 DB 조회 없이 거절
         return ticketsMapper.ticketUuidInfo(uuid);
     }//func end
 
     /**
-     * QR 스캐너에서 티켓을 스캔했을 때 실행되는 로직
-     * <p>
-     * 절차:
-     * 1. UUID로 티켓 유효상태(valid) 조회
-     * 2. 이미 사용된 티켓(valid=false)이면 실패 응답
-     * 3. valid=1 → 0 업데이트 후 “사용 완료” 메시지 반환
+     * 관리자 페이지용 QR 사용 로그 (keyset 페이지)
+     * - 티켓별 회원 정보(이름, 연락처), 좌석, 구역, 사용 여부 등을 포함
+     * - size+1 건을 읽어 다음 페이지 존재 여부 판단 → nextCursor(마지막 tno) 반환
      *
-     * @param uuid 티켓 UUID
-     * @return QR 스캔 처리 결과(success/message)
+     * @param gno 경기번호 (null=전체)
+     * @param valid 유효상태 (null=전체)
+     * @param from 발급일 시작(포함)
+     * @param to 발급일 끝(포함)
+     * @param cursor 직전 페이지의 nextCursor (null=처음)
+     * @param size 페이지 크기 (1~500)
+     * @return { items: [...], nextCursor: tno | null }
      */
-    @Transactional
-    public Map<String, Object> qrScan(String uuid) {
-        Map<String, Object> ticket = ticketsMapper.qrScan(uuid);
-        if (ticket == null) {
-            return Map.of("success", false, "message", "유효하지 않은 QR 코드입니다.");
-        }
-
-        boolean valid = (Boolean) ticket.get("valid");
-        if (!valid) {
-            return Map.of("success", false, "message", "이미 사용된 티켓입니다.");
-        }
-
-        int updated = ticketsMapper.qrScanInfoUpdate(uuid);
-        if (updated == 1) {
-            return Map.of("success", true, "message", "티켓 사용 완료");
-        } else {
-            return Map.of("success", false, "message", "이미 사용된 티켓입니다.");
-        }
+    @Transactional(readOnly = true)
+    public Map<String, Object> adminScanLogPage(Integer gno, Boolean valid, LocalDate from, LocalDate to,
+                                                Integer cursor, int size) {
+        int limit = Math.max(1, Math.min(500, size));
+        List<Map<String, Object>> rows = ticketsMapper.adminScanLogPage(
+                gno, valid, startOf(from), startOf(to == null ? null : to.plusDays(1)), cursor, limit + 1);
+
+        Integer nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            nextCursor = ((Number) rows.get(limit - 1).get("tno")).intValue();
+        }//if end
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("items", rows);
+        result.put("nextCursor", nextCursor);
+        return result;
     }//func end
 
     /**
-     * 관리자 페이지용 QR 사용 로그 전체 조회
-     * - 티켓별 회원 정보(이름, 연락처), 좌석, 구역, 사용 여부 등을 포함
+     * 관리자 QR 사용 로그 CSV 내보내기 (스트리밍)
+     * - MyBatis Cursor 로 한 행씩 읽어 바로 쓰므로 메모리 사용량 일정
+     * - 컨트롤러의 StreamingResponseBody 에서 호출 (프록시를 거쳐 트랜잭션 안에서 커서 순회)
      *
-     * @return 전체 티켓 로그 리스트
+     * @param out 응답 스트림
      */
-    public List<Map<String, Object>> adminScanLog() {
-        List<Map<String, Object>> result = ticketsMapper.adminScanLog();
-        return result;
+    @Transactional(readOnly = true)
+    public void exportScanLogCsv(Integer gno, Boolean valid, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Writer w = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        w.write('\uFEFF'); // 엑셀 한글 깨짐 방지 BOM
+        w.write("tno,gno,mname,mphone,zname,seat_no,seat_label,seat_price,reservation_status,valid,issued_at\n");
+        try (Cursor<Map<String, Object>> rows = ticketsMapper.adminScanLogCursor(
+                gno, valid, startOf(from), startOf(to == null ? null : to.plusDays(1)), null)) {
+            int n = 0;
+            for (Map<String, Object> r : rows) {
+                w.write(csv(r.get("tno"))); w.write(',');
+                w.write(csv(r.get("gno"))); w.write(',');
+                w.write(csv(r.get("mname"))); w.write(',');
+                w.write(csv(r.get("mphone"))); w.write(',');
+                w.write(csv(r.get("zname"))); w.write(',');
+                w.write(csv(r.get("seat_no"))); w.write(',');
+                w.write(csv(r.get("seat_label"))); w.write(',');
+                w.write(csv(r.get("seat_price"))); w.write(',');
+                w.write(csv(r.get("reservation_status"))); w.write(',');
+                w.write(Boolean.TRUE.equals(r.get("valid")) ? "미사용" : "사용완료"); w.write(',');
+                w.write(csv(r.get("issued_at")));
+                w.write('\n');
+                if (++n % 1000 == 0) w.flush(); // 청크 단위로 내보냄
+            }//for end
+        }//try end
+        w.flush();
     }//func end
 
+    private static LocalDateTime startOf(LocalDate d) {
+        return d == null ? null : d.atStartOfDay();
+    }
+
+    // CSV 셀 (따옴표 이스케이프)
+    private static String csv(Object v) {
+        if (v == null) return "";
+        String s = String.valueOf(v);
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
 }//class end
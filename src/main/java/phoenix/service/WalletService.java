@@ -0,0 +1,198 @@
+package phoenix.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import phoenix.model.dto.ReservationsDto;
+import phoenix.model.dto.WalletDto.*;
+import phoenix.model.mapper.ReservationMapper;
+import phoenix.util.RedisKeys;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 회원 티켓 지갑 (예매 + 티켓 + 좌석 이름 + 경기 정보의 사전 계산 투영)
+ * <p>
+ * - 읽기: Redis wallet:{mno} GET 1회 (미스일 때만 조인 1회로 생성)
+ * - 변경(확정/취소/교환/발급): 커밋 후 버전 증가 + 즉시 재생성
+ * - 재생성은 읽기 시작 시점 버전과 같을 때만 저장 → 느린 재생성이 최신 지갑을 덮어쓰지 않음
+ * - 스캔/만료처럼 대량 변경은 삭제만 하고 다음 조회 때 재생성
+ * - 경기 정보(일정/결과/예매 가능 여부)는 저장본을 쓰지 않고 조회 때마다 현재 카탈로그(메모리)로 교체
+ *   → games.csv 재적재나 예매 마감이 24시간 TTL 동안 가려지지 않음
+ */
+@Service
+@RequiredArgsConstructor
+public class WalletService {
+
+    private final RedissonClient redisson;
+    private final ReservationMapper reservationMapper;
+    private final GameCatalogService gameCatalog;
+    private final SeatCsvService seatCsv;
+    private final ObjectMapper objectMapper;
+
+    private static final long TTL_SEC = 24 * 3600;
+
+    // KEYS[1]=wallet, KEYS[2]=ver / ARGV[1]=읽기 시작 버전, ARGV[2]=json, ARGV[3]=ttl
+    private static final String SET_IF_VERSION_LUA = """
+            local v = redis.call('GET', KEYS[2]) or '0'
+            if v ~= ARGV[1] then return 0 end
+            redis.call('SET', KEYS[1], ARGV[2], 'EX', tonumber(ARGV[3]))
+            return 1
+            """;
+
+    // KEYS[1]=wallet, KEYS[2]=ver
+    private static final String BUMP_LUA = """
+            redis.call('DEL', KEYS[1])
+            redis.call('INCR', KEYS[2])
+            redis.call('EXPIRE', KEYS[2], tonumber(ARGV[1]))
+            return 1
+            """;
+
+    /**
+     * 회원 지갑 조회
+     *
+     * @param mno 회원번호
+     * @return 지갑 (예매가 없으면 빈 entries)
+     */
+    public Wallet get(int mno) {
+        String json = redisson.<String>getBucket(RedisKeys.keyWallet(mno), StringCodec.INSTANCE).get();
+        if (json != null) {
+            try {
+                Wallet wallet = objectMapper.readValue(json, Wallet.class);
+                for (Entry e : wallet.getEntries()) e.setGame(gameCatalog.get(e.getReservation().getGno()));
+                return wallet;
+            } catch (Exception e) {
+                System.out.println("[Wallet] 역직렬화 실패 mno=" + mno + " → 재생성 | " + e.getMessage());
+            }// try end
+        }
+        return rebuild(mno);
+    }// func end
+
+    /**
+     * 예매의 티켓 목록 (지갑에서 조회)
+     *
+     * @param mno 회원번호
+     * @param rno 예매번호
+     * @return 티켓 목록 (없으면 빈 목록)
+     */
+    public List<Ticket> tickets(int mno, int rno) {
+        for (Entry e : get(mno).getEntries()) {
+            if (e.getReservation().getRno() == rno) return e.getTickets();
+        }
+        return List.of();
+    }// func end
+
+    /**
+     * 지갑 변경 알림 (확정/취소/교환/발급)
+     * - 트랜잭션 안이면 커밋 후, 아니면 즉시 버전 증가 + 재생성
+     *
+     * @param mno 회원번호
+     */
+    public void changed(int mno) {
+        afterCommit(() -> {
+            bump(mno);
+            rebuild(mno);
+        });
+    }// func end
+
+    /**
+     * 대량 변경 (스캔 반영/경기 만료) → 삭제만, 다음 조회 때 재생성
+     *
+     * @param mnos 회원번호 목록
+     */
+    public void evict(Collection<Integer> mnos) {
+        if (mnos == null) return;
+        for (int mno : mnos) bump(mno);
+    }// func end
+
+    // 조인 1회 → 지갑 생성, 읽기 시작 버전이 그대로일 때만 저장
+    private Wallet rebuild(int mno) {
+        String ver = redisson.<String>getBucket(RedisKeys.keyWalletVer(mno), StringCodec.INSTANCE).get();
+        List<Entry> entries = new ArrayList<>();
+        Entry cur = null;
+        for (Map<String, Object> row : reservationMapper.walletRows(mno)) {
+            int rno = num(row.get("rno"));
+            if (cur == null || cur.getReservation().getRno() != rno) {
+                ReservationsDto r = new ReservationsDto();
+                r.setRno(rno);
+                r.setMno(num(row.get("mno")));
+                r.setSno(num(row.get("sno")));
+                r.setGno(num(row.get("gno")));
+                r.setZno(num(row.get("zno")));
+                r.setReserved_at(row.get("reserved_at") == null ? null : String.valueOf(row.get("reserved_at")));
+                r.setStatus((String) row.get("status"));
+                r.setChannel((String) row.get("channel"));
+                cur = Entry.builder()
+                        .reservation(r)
+                        .game(gameCatalog.get(r.getGno()))
+                        .zoneName(seatCsv.getZoneName(r.getZno()))
+                        .seatName(seatCsv.getSeatName(r.getSno()))
+                        .tickets(new ArrayList<>())
+                        .build();
+                entries.add(cur);
+            }// if end
+            if (row.get("tno") != null) {
+                Object valid = row.get("valid");
+                cur.getTickets().add(Ticket.builder()
+                        .tno(num(row.get("tno")))
+                        .rno(rno)
+                        .gno(cur.getReservation().getGno())
+                        .ticket_code((String) row.get("ticket_code"))
+                        .ticket_uuid((String) row.get("ticket_uuid"))
+                        .issued_at((String) row.get("issued_at"))
+                        .valid(valid instanceof Boolean b ? b : num(valid) == 1)
+                        .price(num(row.get("price")))
+                        .build());
+            }// if end
+        }// for end
+
+        Wallet wallet = Wallet.builder().mno(mno).builtAt(System.currentTimeMillis()).entries(entries).build();
+        try {
+            redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, SET_IF_VERSION_LUA, RScript.ReturnType.INTEGER,
+                    List.<Object>of(RedisKeys.keyWallet(mno), RedisKeys.keyWalletVer(mno)),
+                    ver == null ? "0" : ver, objectMapper.writeValueAsString(wallet), String.valueOf(TTL_SEC));
+        } catch (Exception e) {
+            System.out.println("[Wallet] 저장 실패 mno=" + mno + " | " + e.getMessage());
+        }// try end
+        return wallet;
+    }// func end
+
+    private void bump(int mno) {
+        try {
+            redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, BUMP_LUA, RScript.ReturnType.INTEGER,
+                    List.<Object>of(RedisKeys.keyWallet(mno), RedisKeys.keyWalletVer(mno)), String.valueOf(TTL_SEC * 2));
+        } catch (Exception e) {
+            System.out.println("[Wallet] 무효화 실패 mno=" + mno + " | " + e.getMessage());
+        }// try end
+    }
+
+    private static int num(Object o) {
+        return o == null ? 0 : ((Number) o).intValue();
+    }
+
+    // 트랜잭션 중이면 커밋 후 실행, 아니면 즉시 실행
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        task.run();
+                    } catch (Exception e) {
+                        System.out.println("[Wallet] 커밋 후 갱신 실패: " + e.getMessage());
+                    }
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}// class end
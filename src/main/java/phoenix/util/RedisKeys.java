@@ -13,11 +13,45 @@ public class RedisKeys {
 
     // ===== Seats =====
     public static final String SEAT_HOLD_MAP = "seat:hold:map";
+    public static final String SEAT_HOLD_EXPIRY = "seat:hold:expiry"; // zset "gno:sno" → 홀드 만료 시각(ms), 만료 델타 발행용
     public static final String SEAT_SOLD_SET = "seat:sold:set";
+    public static final String SEAT_DELTA_TOPIC = "ws:seat:delta";   // pub/sub 좌석 상태 델타 프레임 (모든 노드로 중계)
 
     // ===== Senior counters (NEW) =====
     public static final String SENIOR_BOOKED_PREFIX = "senior:booked:%d:%d";
 
+    // ===== Gate QR scan =====
+    public static final String SCAN_TICKET_GAME  = "scan:ticket:gno";   // hash uuid → gno (적재된 경기 티켓 전체)
+    public static final String SCAN_VALID_PREFIX = "scan:valid:";       // set  scan:valid:{gno} → 미사용 uuid
+    public static final String SCAN_LOADED_PREFIX = "scan:loaded:";     // 적재 완료 마커
+    public static final String SCAN_LOADED_GNOS  = "scan:loaded:gnos";
+    public static final String SCAN_WRITEBACK    = "scan:writeback";    // list: DB 반영 대기 uuid
+    public static final String SCAN_VERSION_PREFIX = "scan:ver:";       // 유효 목록 버전 (스캐너 동기화)
+    public static final String SCAN_LOG_PREFIX   = "scan:log:";         // zset 변경 로그 (score=버전, member=+uuid/-uuid)
+    public static final String SCAN_WINNER_PREFIX = "scan:winner:";     // hash uuid → "scannedAt|deviceId" (인정된 스캔)
+    public static final String SCAN_ZONE_PREFIX  = "scan:zone:";        // hash scan:zone:{gno} uuid → zno (입장 통계용)
+    public static final String SCAN_STATS_PREFIX = "scan:stats:";       // hash total / z:{zno} 누적 입장 수
+    public static final String SCAN_STATS_MIN_PREFIX = "scan:stats:min:"; // hash m:{분} / zm:{zno}:{분} 분당 입장 수
+
+    // ===== Seat exchange =====
+    public static final String CHANGE_REQUEST_PREFIX = "change:request:"; // hash {from_rno} → to, dto(JSON)
+    public static final String CHANGE_SEAT_PREFIX    = "change:seat:";    // set  {to_rno} → from_rno (역인덱스)
+    public static final String EXCHANGE_INDEX_PREFIX = "exchange:idx:";   // hash {gno}:{zno} → rno → 교환 가능 예매 JSON
+    public static final String WS_MEMBER_TOPIC_PREFIX = "ws:member:";     // pub/sub {mno} → 접속 노드로 알림 중계
+
+    // ===== Notification inbox =====
+    public static final String INBOX_PREFIX        = "inbox:";          // stream {mno} → 알림 이력 (t=종류, m=메시지)
+    public static final String INBOX_CURSOR_PREFIX = "inbox:cursor:";   // string {mno} → 읽은 위치 (엔트리 id)
+
+    // ===== Ticket wallet =====
+    public static final String WALLET_PREFIX     = "wallet:";           // string wallet:{mno} → 지갑 JSON
+    public static final String WALLET_VER_PREFIX = "wallet:ver:";       // 변경 버전 (오래된 재생성 결과 덮어쓰기 방지)
+
+    // ===== Ticket expiry =====
+    public static final String TICKET_EXPIRY_HWM  = "ticket:expiry:hwm";  // 만료 처리 완료 시각(epoch ms)
+    public static final String TICKET_EXPIRY_SWEEP = "ticket:expiry:sweep"; // 유효 티켓 남은 지난 경기 전체 점검 시각(epoch ms)
+    public static final String TICKET_EXPIRY_LOCK = "ticket:expiry:lock";
+
     // helpers
     public static String keySemaphore(int gno){ return String.format(GATE_SEMAPHORE_PREFIX, gno); }
     public static String keyQueue(int gno){ return String.format(WAITING_QUEUE_PREFIX, gno); }
@@ -25,6 +59,26 @@ public class RedisKeys {
     public static String keyActiveSet(int gno){ return String.format(ACTIVE_SET_PREFIX, gno); }
     public static String keySession(int gno, int mno){ return String.format(SESSION_PREFIX, gno, mno); }
 
+    public static String keyChangeRequest(int fromRno){ return CHANGE_REQUEST_PREFIX + fromRno; }
+    public static String keyChangeSeat(int toRno){ return CHANGE_SEAT_PREFIX + toRno; }
+    public static String keyExchangeIndex(int gno, int zno){ return EXCHANGE_INDEX_PREFIX + gno + ":" + zno; }
+
+    public static String keyInbox(int mno){ return INBOX_PREFIX + mno; }
+    public static String keyInboxCursor(int mno){ return INBOX_CURSOR_PREFIX + mno; }
+    public static String topicMember(int mno){ return WS_MEMBER_TOPIC_PREFIX + mno; }
+
+    public static String keyWallet(int mno){ return WALLET_PREFIX + mno; }
+    public static String keyWalletVer(int mno){ return WALLET_VER_PREFIX + mno; }
+
+    public static String keyScanValid(int gno){ return SCAN_VALID_PREFIX + gno; }
+    public static String keyScanZone(int gno){ return SCAN_ZONE_PREFIX + gno; }
+    public static String keyScanStats(int gno){ return SCAN_STATS_PREFIX + gno; }
+    public static String keyScanStatsMin(int gno){ return SCAN_STATS_MIN_PREFIX + gno; }
+    public static String keyScanLoaded(int gno){ return SCAN_LOADED_PREFIX + gno; }
+    public static String keyScanVersion(int gno){ return SCAN_VERSION_PREFIX + gno; }
+    public static String keyScanLog(int gno){ return SCAN_LOG_PREFIX + gno; }
+    public static String keyScanWinner(int gno){ return SCAN_WINNER_PREFIX + gno; }
+
     // NEW
     public static String keySeniorBooked(int mno, int gno) { return String.format(SENIOR_BOOKED_PREFIX, mno, gno); }
 }
@@ -0,0 +1,104 @@
+package phoenix.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.regex.Pattern;
+
+/**
+ * 티켓 코드(ticket_uuid) 생성/검증
+ * <p>
+ * 형식: Crockford base32 16자 = 랜덤 12자(60bit) + HMAC-SHA256 검증 4자(20bit)
+ * - URL/QR 에 그대로 넣을 수 있는 대문자+숫자 (I, L, O, U 제외)
+ * - 60bit 랜덤 → 1천만 장 발급 시 충돌 확률 ≈ 4×10^-5 (생일 문제: n²/2^61)
+ * - 검증 4자는 서버 비밀키로만 만들 수 있으므로 위조 코드는 DB/Redis 조회 전에 거절 (통과 확률 1/2^20)
+ * - 기존 6자리 hex 코드는 phoenix.ticket.accept-legacy=true 인 동안 형식만 확인하고 허용
+ */
+@Component
+public class TicketCodes {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int RANDOM_LEN = 12;
+    private static final int CHECK_LEN = 4;
+    public static final int CODE_LEN = RANDOM_LEN + CHECK_LEN;
+    private static final Pattern LEGACY = Pattern.compile("^[0-9a-f]{6}$");
+
+    private static final boolean[] IN_ALPHABET = new boolean[128];
+    static {
+        for (char c : ALPHABET) IN_ALPHABET[c] = true;
+    }
+
+    @Value("${phoenix.ticket.code-secret:${jwt.secret}}")
+    private String secret;
+
+    @Value("${phoenix.ticket.accept-legacy:true}")
+    private boolean acceptLegacy;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Mac 은 스레드 안전하지 않으므로 스레드별 인스턴스
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(() -> {
+        try {
+            Mac m = Mac.getInstance("HmacSHA256");
+            m.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return m;
+        } catch (Exception e) {
+            throw new IllegalStateException("티켓 코드 HMAC 초기화 실패", e);
+        }
+    });
+
+    /**
+     * 신규 티켓 코드 생성
+     *
+     * @return 16자 코드 (예: 7K2M9QXD4TB8H3NC)
+     */
+    public String generate() {
+        long bits = random.nextLong();
+        char[] code = new char[CODE_LEN];
+        for (int i = 0; i < RANDOM_LEN; i++) {
+            code[i] = ALPHABET[(int) (bits & 31)];
+            bits >>>= 5;
+        }
+        writeCheck(code);
+        return new String(code);
+    }// func end
+
+    /**
+     * 형식 + 검증자 확인 (DB/Redis 조회 없이 위조 코드 거절)
+     *
+     * @param code 티켓 코드
+     * @return 유효한 형식이면 true
+     */
+    public boolean isValid(String code) {
+        if (code == null) return false;
+        if (code.length() != CODE_LEN) {
+            return acceptLegacy && LEGACY.matcher(code).matches();
+        }
+        for (int i = 0; i < CODE_LEN; i++) {
+            char c = code.charAt(i);
+            if (c >= 128 || !IN_ALPHABET[c]) return false;
+        }
+        char[] expected = code.toCharArray();
+        writeCheck(expected);
+        return MessageDigest.isEqual(
+                code.substring(RANDOM_LEN).getBytes(StandardCharsets.US_ASCII),
+                new String(expected, RANDOM_LEN, CHECK_LEN).getBytes(StandardCharsets.US_ASCII));
+    }// func end
+
+    // code[0..RANDOM_LEN) 의 HMAC 상위 20bit → code[RANDOM_LEN..) 4자
+    private void writeCheck(char[] code) {
+        Mac m = mac.get();
+        for (int i = 0; i < RANDOM_LEN; i++) m.update((byte) code[i]);
+        byte[] h = m.doFinal();
+        int v = ((h[0] & 0xFF) << 12) | ((h[1] & 0xFF) << 4) | ((h[2] & 0xFF) >>> 4);
+        for (int i = CODE_LEN - 1; i >= RANDOM_LEN; i--) {
+            code[i] = ALPHABET[v & 31];
+            v >>>= 5;
+        }
+    }
+}// class end
@@ -7,11 +7,17 @@ import com.google.zxing.MultiFormatWriter;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 @Component
 public class TicketsQR {
 
@@ -42,4 +48,126 @@ public class TicketsQR {
         }//catch end
     }//func end
 
+    // ===== 1-bit PNG 직접 인코딩 (배치 렌더링용) =====
+
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.CHARACTER_SET, "UTF-8",
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.L);
+    private static final int QUIET_ZONE = 4;   // QRCodeWriter 기본 여백(모듈 수)
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    // 스레드별 재사용 버퍼 (Deflater/CRC32/행 버퍼는 스레드 안전하지 않음)
+    private static final ThreadLocal<PngBuffers> BUFFERS = ThreadLocal.withInitial(PngBuffers::new);
+
+    private static final class PngBuffers {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        final CRC32 crc = new CRC32();
+        byte[] raw = new byte[0];       // 필터 바이트 + 행 데이터
+        byte[] packed = new byte[0];    // 압축 결과
+        byte[] row = new byte[0];       // 모듈 1행을 확대한 픽셀 행
+
+        byte[] raw(int n)    { if (raw.length < n) raw = new byte[n]; return raw; }
+        byte[] packed(int n) { if (packed.length < n) packed = new byte[n]; return packed; }
+        byte[] growPacked()  { packed = Arrays.copyOf(packed, Math.max(64, packed.length * 2)); return packed; } // 압축분 유지
+        byte[] row(int n)    { if (row.length < n) row = new byte[n]; return row; }
+    }
+
+    /**
+     * QR 코드 PNG 생성 (1-bit 그레이스케일, ImageIO/BufferedImage 미사용)
+     * - ZXing Encoder 결과(모듈 행렬)를 QRCodeWriter 와 같은 배율/여백으로 확대해 바로 PNG 행으로 기록
+     * - 인코딩 힌트는 공유, 압축기/CRC/행 버퍼는 스레드별 재사용 → 티켓당 할당은 결과 배열 정도
+     * - 픽셀 결과는 TicketQrCode 와 동일 (흑/백만 사용하므로 1-bit 로 무손실)
+     *
+     * @param text QR 내용
+     * @param size 가로·세로 최소 크기 (픽셀)
+     * @return PNG 바이트
+     */
+    public static byte[] TicketQrPng(String text, int size) {
+        return TicketQrPng(text, size, 0);
+    }//func end
+
+    // packedCapacity: 압축 버퍼 최소 크기 (0 이하 = 원본 크기 + 64, 테스트에서 버퍼 확장 경로 확인용)
+    static byte[] TicketQrPng(String text, int size, int packedCapacity) {
+        ByteMatrix modules;
+        try {
+            modules = Encoder.encode(text, ErrorCorrectionLevel.L, HINTS).getMatrix();
+        } catch (Exception e) {
+            throw new RuntimeException("QR 생성 실패", e);
+        }//catch end
+
+        // QRCodeWriter.renderResult 와 같은 배치
+        int inputW = modules.getWidth() + QUIET_ZONE * 2;
+        int inputH = modules.getHeight() + QUIET_ZONE * 2;
+        int outW = Math.max(size, inputW);
+        int outH = Math.max(size, inputH);
+        int multiple = Math.min(outW / inputW, outH / inputH);
+        int left = (outW - modules.getWidth() * multiple) / 2;
+        int top = (outH - modules.getHeight() * multiple) / 2;
+
+        PngBuffers buf = BUFFERS.get();
+        int stride = (outW + 7) >>> 3;
+        int rowLen = stride + 1;
+        byte[] raw = buf.raw(rowLen * outH);
+        byte[] row = buf.row(stride);
+
+        for (int y = 0; y < outH; y++) {
+            int mY = y - top;
+            int off = y * rowLen;
+            raw[off] = 0; // filter: None
+            if (mY < 0 || mY >= modules.getHeight() * multiple) {
+                // 여백 행: 전부 흰색(1)
+                Arrays.fill(raw, off + 1, off + rowLen, (byte) 0xFF);
+                continue;
+            }
+            if (mY % multiple == 0) {
+                // 모듈 행이 바뀔 때만 픽셀 행 계산, 나머지는 복사
+                Arrays.fill(row, 0, stride, (byte) 0xFF);
+                int my = mY / multiple;
+                for (int mx = 0; mx < modules.getWidth(); mx++) {
+                    if (modules.get(mx, my) != 1) continue;
+                    int x0 = left + mx * multiple;
+                    for (int x = x0; x < x0 + multiple; x++) {
+                        row[x >>> 3] &= (byte) ~(0x80 >>> (x & 7)); // 검정 = 0
+                    }
+                }
+            }
+            System.arraycopy(row, 0, raw, off + 1, stride);
+        }//for end
+
+        Deflater deflater = buf.deflater;
+        deflater.reset();
+        deflater.setInput(raw, 0, rowLen * outH);
+        deflater.finish();
+        byte[] packed = buf.packed(packedCapacity > 0 ? packedCapacity : rowLen * outH + 64);
+        int packedLen = 0;
+        while (!deflater.finished()) {
+            if (packedLen == packed.length) packed = buf.growPacked();
+            packedLen += deflater.deflate(packed, packedLen, packed.length - packedLen);
+        }//while end
+
+        ByteBuffer out = ByteBuffer.allocate(PNG_SIGNATURE.length + (12 + 13) + (12 + packedLen) + 12);
+        out.put(PNG_SIGNATURE);
+        int ihdr = out.position();
+        out.putInt(13).put((byte) 'I').put((byte) 'H').put((byte) 'D').put((byte) 'R')
+                .putInt(outW).putInt(outH)
+                .put((byte) 1)      // bit depth
+                .put((byte) 0)      // color type: grayscale
+                .put((byte) 0).put((byte) 0).put((byte) 0);
+        putCrc(out, ihdr, buf.crc);
+        int idat = out.position();
+        out.putInt(packedLen).put((byte) 'I').put((byte) 'D').put((byte) 'A').put((byte) 'T').put(packed, 0, packedLen);
+        putCrc(out, idat, buf.crc);
+        int iend = out.position();
+        out.putInt(0).put((byte) 'I').put((byte) 'E').put((byte) 'N').put((byte) 'D');
+        putCrc(out, iend, buf.crc);
+        return out.array();
+    }//func end
+
+    // 청크 타입~데이터 구간의 CRC 기록 (start = 길이 필드 위치)
+    private static void putCrc(ByteBuffer out, int start, CRC32 crc) {
+        crc.reset();
+        crc.update(out.array(), start + 4, out.position() - start - 4);
+        out.putInt((int) crc.getValue());
+    }
+
 }//class end
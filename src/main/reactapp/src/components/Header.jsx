@@ -29,19 +29,64 @@ const Header = () => {
     wsRef.current = socket;
 
     socket.onopen = () => {
-      socket.send(JSON.stringify({ type: "login", mno: user.mno }));
+      // 회원 확인은 서버가 처리 (handshake 때 보낸 로그인 세션 쿠키 기준)
+      socket.send(JSON.stringify({ type: "login" }));
     };
 
+    const notify = (text) =>
+      toast.info(`${text}`, {
+        position: "bottom-right",
+        autoClose: 5000,
+        theme: "colored",
+        onClick: () => navigate("/mypage")
+      });
+
+    // 받은 알림까지 읽음 처리 (다음 접속 때 다시 오지 않도록)
+    const ack = (id) => {
+      if (id && socket.readyState === WebSocket.OPEN) socket.send(JSON.stringify({ type: "inbox:ack", id }));
+    };
+
+    // 미확인 알림(inbox)을 다 받기 전에는 실시간 알림을 읽음 처리하지 않음
+    // → 읽음 위치가 아직 못 받은 미확인 알림을 건너뛰지 않도록, 다 받은 뒤 한 번에 처리
+    let inboxDone = false;
+    let inboxCount = 0;
+    let inboxLast = null;
+    let lastLiveId = null;
+    const seen = new Set(); // 같은 알림이 inbox 페이지와 실시간으로 두 번 오는 경우 중복 제거
+
     socket.onmessage = (event) => {
       try {
         const data = JSON.parse(event.data);
+        if (data?.type === "login") {
+          if (!data.ok) console.log("[Header] WebSocket 로그인 실패", data.reason);
+          return;
+        }
+        if (data?.type === "inbox") {
+          // 읽지 않은 알림 (오래된 순, more=false 인 프레임까지 페이지로 이어서 옴)
+          const list = (Array.isArray(data.items) ? data.items : []).filter((a) => !seen.has(a.id));
+          list.forEach((a) => seen.add(a.id));
+          if (list.length > 0) {
+            setMessage((prev) => [...prev, ...list]);
+            inboxCount += list.length;
+            inboxLast = list[list.length - 1];
+            ack(list[list.length - 1].id); // 페이지는 읽음 위치부터 이어지므로 마지막 id 까지 처리
+          }
+          if (data.more) return;
+          inboxDone = true;
+          if (inboxCount === 1) notify(inboxLast.message);
+          else if (inboxCount > 1) notify(`새 알림 ${inboxCount}건`);
+          if (lastLiveId) ack(lastLiveId); // 받는 중에 온 실시간 알림
+          return;
+        }
+        if (data?.type === "inbox:history") return;
+        if (data?.id) {
+          if (seen.has(data.id)) return;
+          seen.add(data.id);
+        }
         setMessage((prev) => [...prev, data]);
-        toast.info(`${typeof data === "string" ? data : data.message}`, {
-          position: "bottom-right",
-          autoClose: 5000,
-          theme: "colored",
-          onClick: () => navigate("/mypage")
-        });
+        notify(typeof data === "string" ? data : data.message);
+        if (inboxDone) ack(data?.id);
+        else if (data?.id) lastLiveId = data.id;
       } catch (e) {
         console.log("수신 파싱 오류", e);
       }
@@ -81,9 +81,9 @@ export default function reservationFind( props ){
     }// func end
 
     // [4] 교환요청 수락
-    const acceptChange = async (from_rno) => {
+    const acceptChange = async (from_rno, idem_key) => {
         try{
-            const response = await axios.post(`http://localhost:8080/seat/accept`,{} , { params : {rno : from_rno}, withCredentials: true });
+            const response = await axios.post(`http://localhost:8080/seat/accept`,{} , { params : {rno : from_rno, key : idem_key}, withCredentials: true });
             if(response.data){
                 alert('좌석이 교환되었습니다');
                 await getAllRequest();
@@ -121,6 +121,8 @@ export default function reservationFind( props ){
                 const response = await axios.post(`http://localhost:8080/seat/change`,obj , { withCredentials: true });
                 if(response.data == 1){
                     alert('좌석교환 신청을 완료하였습니다.');
+                }else if(response.data == 3){
+                    alert('교환 상대가 연결되어 좌석 교환이 바로 완료되었습니다.');
                 }else if(response.data == 2){
                     alert('현재 요청이 많아 잠시후 다시 시도해주세요.');
                 }else{
@@ -425,7 +427,7 @@ export default function reservationFind( props ){
                                 size="md"
                                 variant="outlined"
                                 color="success"
-                                onClick={() => acceptChange(ex?.from_rno)}
+                                onClick={() => acceptChange(ex?.from_rno, ex?.idem_key)}
                             >
                                 수락
                             </Button>
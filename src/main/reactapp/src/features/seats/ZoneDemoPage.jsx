@@ -138,6 +138,40 @@ export default function ZoneDemoPage() {
   }, [gno, znoNum, seatsMeta, authHeaders]);
   useEffect(() => { loadStatus(); }, [loadStatus]);
 
+  // ───────── 좌석 상태 실시간 델타 (WebSocket binary) ─────────
+  // 프레임: [kind:1B=0x01][gno:4B][N × ((sno<<2)|state):4B], state 0 AVAILABLE / 1 HELD / 2 SOLD / 3 BLOCKED
+  useEffect(() => {
+    if (!Number.isInteger(Number(gno)) || seatsMeta.length === 0) return;
+    const mine = new Set(seatsMeta.map((s) => Number(s.sno)));
+    const STATES = ["AVAILABLE", "HELD", "SOLD", "BLOCKED"];
+
+    const socket = new WebSocket(API.replace(/^http/, "ws") + "/socket");
+    socket.binaryType = "arraybuffer";
+    socket.onopen = () => socket.send(JSON.stringify({ type: "seat:subscribe", gno: Number(gno) }));
+    socket.onmessage = (event) => {
+      if (!(event.data instanceof ArrayBuffer)) return;
+      const view = new DataView(event.data);
+      if (view.byteLength < 5 || view.getUint8(0) !== 0x01 || view.getInt32(1) !== Number(gno)) return;
+      const patch = {};
+      for (let off = 5; off + 4 <= view.byteLength; off += 4) {
+        const v = view.getInt32(off);
+        const sno = v >>> 2;
+        if (mine.has(sno)) patch[String(sno)] = STATES[v & 3];
+      }
+      if (Object.keys(patch).length === 0) return;
+      setStatusBySno((prev) => {
+        const next = { ...prev };
+        for (const [k, st] of Object.entries(patch)) {
+          // 내 홀드는 HELD 로 덮어쓰지 않음
+          if (st === "HELD" && prev[k] === "HELD_BY_ME") continue;
+          next[k] = st;
+        }
+        return next;
+      });
+    };
+    return () => { try { socket.close(); } catch {} };
+  }, [gno, seatsMeta]);
+
   // ───────── 전역 hold 동기화(신규, 최소 변경) ─────────
   const [globalHeldSnos, setGlobalHeldSnos] = useState([]);
   const syncGlobalHeld = useCallback(async () => {
@@ -11,6 +11,7 @@ export default function TicketLog() {
   const [status, setStatus] = useState("ALL");
   const [valid, setValid] = useState("ALL");
   const [error, setError] = useState("");
+  const [nextCursor, setNextCursor] = useState(null);
 
   useEffect(() => {
     let ignore = false;
@@ -18,16 +19,22 @@ export default function TicketLog() {
       await fetchData(); // ✅ 사전 admin 체크 없이 바로 요청
     })();
     return () => { ignore = true; };
-  }, []);
+  }, [valid]); // 사용여부 필터는 서버 조회 조건 → 바뀌면 처음부터 다시
 
-  const fetchData = async () => {
+  // cursor 없으면 처음부터, 있으면 이어서(더 보기)
+  const fetchData = async (cursor = null) => {
     setLoading(true);
     setError("");
     try {
       // axiosInstance에 baseURL/withCredentials/Authorization 인터셉터가 있다고 가정
-      const res = await api.get("/tickets/ticketLog");
-      if (res.status === 200 && Array.isArray(res.data)) {
-        setRows(res.data);
+      const params = { size: 200 };
+      if (cursor != null) params.cursor = cursor;
+      if (valid === "UNUSED") params.valid = true;
+      if (valid === "USED") params.valid = false;
+      const res = await api.get("/tickets/ticketLog", { params });
+      if (res.status === 200 && Array.isArray(res.data?.items)) {
+        setRows((prev) => (cursor != null ? [...prev, ...res.data.items] : res.data.items));
+        setNextCursor(res.data.nextCursor ?? null);
       } else {
         setError(`목록 조회 실패: ${res.status}`);
       }
@@ -79,16 +86,13 @@ export default function TicketLog() {
       : <span style={{ ...base, background: "#d1e7dd" }}>✅ 사용 완료</span>;
   };
 
-  const exportCSV = () => {
-    const cols = ["mname","mphone","zname","seat_no","seat_label","seat_price","reservation_status","valid"];
-    const header = cols.join(",");
-    const body = filtered.map(r => [
-      r.mname ?? "", r.mphone ?? "", r.zname ?? "", r.seat_no ?? "",
-      r.seat_label ?? "", r.seat_price ?? "", r.reservation_status ?? "",
-      (r.valid ? "미사용" : "사용완료")
-    ].map(v => `"${String(v).replace(/"/g, '""')}"`).join(",")).join("\n");
-    const blob = new Blob([header + "\n" + body], { type: "text/csv;charset=utf-8;" });
-    const url = URL.createObjectURL(blob);
+  // 서버 스트리밍 내보내기 (전체 건)
+  const exportCSV = async () => {
+    const params = {};
+    if (valid === "UNUSED") params.valid = true;
+    if (valid === "USED") params.valid = false;
+    const res = await api.get("/tickets/ticketLog/export", { params, responseType: "blob" });
+    const url = URL.createObjectURL(res.data);
     const a = document.createElement("a");
     a.href = url; a.download = "ticket_log.csv"; a.click();
     URL.revokeObjectURL(url);
@@ -120,7 +124,7 @@ export default function TicketLog() {
           <option value="USED">사용완료만</option>
         </select>
         <div style={{ textAlign: "right" }}>
-          <button onClick={fetchData} style={{ padding: "8px 12px", marginRight: 8, borderRadius: 8 }}>새로고침</button>
+          <button onClick={() => fetchData()} style={{ padding: "8px 12px", marginRight: 8, borderRadius: 8 }}>새로고침</button>
           <button onClick={exportCSV} style={{ padding: "8px 12px", borderRadius: 8 }}>CSV</button>
         </div>
       </div>
@@ -165,6 +169,14 @@ export default function TicketLog() {
           </tbody>
         </table>
       </div>
+
+      {nextCursor != null && (
+        <div style={{ textAlign: "center", marginTop: 12 }}>
+          <button onClick={() => fetchData(nextCursor)} disabled={loading} style={{ padding: "8px 16px", borderRadius: 8 }}>
+            더 보기
+          </button>
+        </div>
+      )}
     </div>
   );
 }
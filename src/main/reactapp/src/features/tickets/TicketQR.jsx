@@ -17,6 +17,8 @@ function toImgSrc(code) {
   // 3) 서버 정적 경로 처리
   // "/upload/..." 는 8080으로 강제
   if (code.startsWith("/upload/")) return `http://localhost:8080${code}`;
+  // "/tickets/qr-image/..." (요청 시 생성되는 QR) 도 8080
+  if (code.startsWith("/tickets/qr-image/")) return `http://localhost:8080${code}`;
 
   // 그 외 절대/상대 경로는 그대로 허용
   if (code.startsWith("/")) return code;
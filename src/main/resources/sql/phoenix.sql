@@ -68,6 +68,7 @@ CREATE TABLE reservations (
   reserved_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   status      ENUM('reserved','cancelled') NOT NULL DEFAULT 'reserved',
   channel     ENUM('general','senior') NOT NULL DEFAULT 'general',
+  version     INT NOT NULL DEFAULT 0,   -- 좌석 변경/취소마다 +1 (교환 시 낙관적 검증)
   CONSTRAINT fk_res_mno FOREIGN KEY (mno) REFERENCES members(mno),
   CONSTRAINT fk_res_sno FOREIGN KEY (sno) REFERENCES seats(sno)
 );
@@ -75,6 +76,9 @@ CREATE TABLE reservations (
 CREATE INDEX idx_res_gno_status_channel ON reservations(gno, status, channel);
 CREATE INDEX idx_res_mno_gno ON reservations(mno, gno);
 CREATE INDEX idx_res_sno_gno ON reservations(sno, gno);
+-- 관리자 QR 사용 이력 gno 필터: reservations 쪽 컬럼(gno, rno, mno, sno, status)은 이 인덱스만으로 읽음
+-- (회원/좌석/구역 이름·가격은 각 테이블 PK 조회, 페이지 건수만큼만 발생)
+CREATE INDEX idx_res_gno_rno ON reservations(gno, rno, mno, sno, status);
 
 -- ---------------------- 티켓 테이블 ----------------------
 CREATE TABLE tickets (
@@ -87,7 +91,28 @@ CREATE TABLE tickets (
   ticket_uuid VARCHAR(20) unique not null ,
   CONSTRAINT fk_tickets_rno FOREIGN KEY (rno) REFERENCES reservations(rno)
 );
-CREATE INDEX idx_tickets_rno ON tickets(rno);
+-- 예매당 티켓 1장 (발급 워커 재선점과 겹쳐도 중복 발급 불가, INSERT IGNORE 기준)
+CREATE UNIQUE INDEX idx_tickets_rno ON tickets(rno);
+-- 관리자 QR 사용 이력 keyset 페이지/내보내기: valid 필터 + tno 역순
+-- tickets 쪽 컬럼(tno, rno, valid, issued_at)만 인덱스로 읽음 — 쿼리 전체 커버링은 아님
+-- (조인한 members/seats/zones 컬럼은 행마다 PK 조회, valid 필터가 없으면 PK(tno) 역순 스캔 사용)
+CREATE INDEX idx_tickets_valid_tno ON tickets(valid, tno, rno, issued_at);
+CREATE INDEX idx_tickets_issued_tno ON tickets(issued_at, tno);
+
+-- ---------------------- 티켓 발급 대기열 ----------------------
+-- 예매 확정 트랜잭션에서 rno 적재 → TicketIssueService 워커가 배치 발급
+CREATE TABLE ticket_issue_queue (
+  qno         BIGINT AUTO_INCREMENT PRIMARY KEY,
+  rno         INT NOT NULL UNIQUE,
+  status      ENUM('pending','processing','done','failed') NOT NULL DEFAULT 'pending',
+  attempts    INT NOT NULL DEFAULT 0,
+  claim_token VARCHAR(36) NULL,
+  created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+  claimed_at  TIMESTAMP NULL,
+  CONSTRAINT fk_tiq_rno FOREIGN KEY (rno) REFERENCES reservations(rno)
+);
+CREATE INDEX idx_tiq_status_qno ON ticket_issue_queue(status, qno);
+CREATE INDEX idx_tiq_claim_token ON ticket_issue_queue(claim_token);
 
 -- ---------------------- 예매 교환 테이블 ----------------------
 CREATE TABLE reservation_exchanges (
@@ -97,6 +122,7 @@ CREATE TABLE reservation_exchanges (
   status      ENUM('pending','approved','rejected') NOT NULL DEFAULT 'pending',
   requested_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
   responded_at TIMESTAMP NULL,
+  idem_key    VARCHAR(36) NULL UNIQUE, -- 교환요청별 멱등키 (같은 요청은 한 번만 기록)
   CONSTRAINT fk_ex_from FOREIGN KEY (from_rno) REFERENCES reservations(rno),
   CONSTRAINT fk_ex_to   FOREIGN KEY (to_rno)   REFERENCES reservations(rno)
 );
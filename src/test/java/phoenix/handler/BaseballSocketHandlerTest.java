@@ -0,0 +1,156 @@
+package phoenix.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import phoenix.model.dto.MembersDto;
+import phoenix.model.dto.SocketFrameDto.Alarm;
+import phoenix.security.JwtUtil;
+import phoenix.security.LoginHandshakeInterceptor;
+import phoenix.service.MembersService;
+import phoenix.service.NotificationInboxService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 알림 웹소켓 로그인 흐름
+ * - handshake(세션 로그인 회원) → {"type":"login"} → LoginAck ok → 읽지 않은 알림 inbox 프레임
+ * - 미확인 알림이 한 페이지를 넘으면 more=false 프레임까지 이어서 전송
+ */
+class BaseballSocketHandlerTest {
+
+    private static final int MNO = 7;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private NotificationInboxService inbox;
+    private MembersService membersService;
+    private RTopic topic;
+    private BaseballSocketHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        inbox = mock(NotificationInboxService.class);
+        membersService = mock(MembersService.class);
+        topic = mock(RTopic.class);
+        RedissonClient redisson = mock(RedissonClient.class);
+        when(redisson.getTopic(anyString(), any(Codec.class))).thenReturn(topic);
+        when(topic.addListener(eq(String.class), any())).thenReturn(1);
+
+        handler = new BaseballSocketHandler(inbox, redisson, new SimpleMeterRegistry(), objectMapper, mock(JwtUtil.class));
+        ReflectionTestUtils.setField(handler, "sendTimeLimitMs", 5000);
+        ReflectionTestUtils.setField(handler, "bufferSizeLimit", 512 * 1024);
+        handler.init();
+    }
+
+    // handshake 인터셉터로 세션 속성을 채운 웹소켓 세션 (보낸 프레임은 sent 에 쌓임)
+    private WebSocketSession connect(MembersDto loginMember, List<JsonNode> sent) throws Exception {
+        when(membersService.getLoginMember()).thenReturn(loginMember);
+        Map<String, Object> attributes = new HashMap<>();
+        boolean accepted = new LoginHandshakeInterceptor(membersService).beforeHandshake(null, null, handler, attributes);
+        assertThat(accepted).isTrue();
+
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s1");
+        when(session.getAttributes()).thenReturn(attributes);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(inv -> {
+            WebSocketMessage<?> m = inv.getArgument(0);
+            sent.add(objectMapper.readTree((String) m.getPayload()));
+            return null;
+        }).when(session).sendMessage(any());
+
+        handler.afterConnectionEstablished(session);
+        return session;
+    }
+
+    private static MembersDto member(String status) {
+        MembersDto m = new MembersDto();
+        m.setMno(MNO);
+        m.setMid("user7");
+        m.setStatus(status);
+        return m;
+    }
+
+    @Test
+    void sessionLoginAcksAndSendsInbox() throws Exception {
+        when(inbox.unread(eq(MNO), isNull(), anyInt()))
+                .thenReturn(List.of(new Alarm("1-0", null, "예매가 확정되었습니다.", 1L, null)));
+        List<JsonNode> sent = new ArrayList<>();
+        WebSocketSession session = connect(member("active"), sent);
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"login\"}"));
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(0).path("type").asText()).isEqualTo("login");
+        assertThat(sent.get(0).path("ok").asBoolean()).isTrue();
+        assertThat(sent.get(1).path("type").asText()).isEqualTo("inbox");
+        assertThat(sent.get(1).path("items").get(0).path("id").asText()).isEqualTo("1-0");
+        assertThat(sent.get(1).path("more").asBoolean()).isFalse();
+        verify(topic).addListener(eq(String.class), any());
+
+        // 연결 종료 시 회원 토픽 구독 해제
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+        verify(topic).removeListener(1);
+    }
+
+    @Test
+    void unreadBacklogIsPagedUntilEmpty() throws Exception {
+        List<Alarm> first = new ArrayList<>();
+        for (int i = 1; i <= NotificationInboxService.MAX_PAGE; i++) first.add(new Alarm(i + "-0", null, "m" + i, (long) i, null));
+        String lastOfFirst = first.get(first.size() - 1).id();
+        when(inbox.unread(eq(MNO), isNull(), anyInt())).thenReturn(first);
+        when(inbox.unread(eq(MNO), eq(lastOfFirst), anyInt()))
+                .thenReturn(List.of(new Alarm("101-0", null, "m101", 101L, null)));
+        List<JsonNode> sent = new ArrayList<>();
+        WebSocketSession session = connect(member("active"), sent);
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"login\"}"));
+
+        assertThat(sent).hasSize(3);
+        assertThat(sent.get(1).path("items").size()).isEqualTo(NotificationInboxService.MAX_PAGE);
+        assertThat(sent.get(1).path("more").asBoolean()).isTrue();
+        assertThat(sent.get(2).path("items").get(0).path("id").asText()).isEqualTo("101-0");
+        assertThat(sent.get(2).path("more").asBoolean()).isFalse();
+    }
+
+    @Test
+    void anonymousHandshakeLoginFails() throws Exception {
+        List<JsonNode> sent = new ArrayList<>();
+        WebSocketSession session = connect(null, sent);
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"login\"}"));
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).path("ok").asBoolean()).isFalse();
+        verify(topic, never()).addListener(eq(String.class), any());
+        verifyNoInteractions(inbox);
+    }
+
+    @Test
+    void withdrawnMemberIsNotLoggedIn() throws Exception {
+        List<JsonNode> sent = new ArrayList<>();
+        WebSocketSession session = connect(member("withdrawn"), sent);
+
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"login\"}"));
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).path("ok").asBoolean()).isFalse();
+    }
+}
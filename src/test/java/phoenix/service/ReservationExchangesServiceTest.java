@@ -0,0 +1,114 @@
+package phoenix.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import phoenix.model.dto.ReservationExchangesDto;
+import phoenix.model.dto.ReservationsDto;
+import phoenix.model.mapper.ReservationExchangeMapper;
+import phoenix.model.mapper.ReservationMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 교환 요청 수락
+ * - 검증 실패는 false (예외 없음)
+ * - 성립할 수 없는 요청(취소된 예매)은 복구하지 않고, 응답자가 아닌 회원의 수락은 요청을 그대로 복구
+ * - 멱등키 재시도는 응답자 본인일 때만 성공
+ */
+class ReservationExchangesServiceTest {
+
+    private static final int FROM_RNO = 1, TO_RNO = 2, FROM_MNO = 10, TO_MNO = 20;
+
+    private ReservationExchangeMapper exchangeMapper;
+    private ReservationMapper reservationMapper;
+    private RedisService redisService;
+    private ReservationsService reservationsService;
+    private NotificationDispatcher notificationDispatcher;
+    private ReservationExchangesService service;
+
+    @BeforeEach
+    void setUp() {
+        exchangeMapper = mock(ReservationExchangeMapper.class);
+        reservationMapper = mock(ReservationMapper.class);
+        redisService = mock(RedisService.class);
+        reservationsService = mock(ReservationsService.class);
+        notificationDispatcher = mock(NotificationDispatcher.class);
+        service = new ReservationExchangesService(exchangeMapper, reservationMapper, redisService,
+                reservationsService, notificationDispatcher, mock(ExchangeMatchService.class));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static ReservationExchangesDto request() {
+        return new ReservationExchangesDto(0, FROM_RNO, TO_RNO, "PENDING", "2026-01-01 00:00:00", null,
+                FROM_MNO, 100, 0, "key-1");
+    }
+
+    private static ReservationsDto reservation(int rno, int mno, int sno, String status) {
+        ReservationsDto r = new ReservationsDto();
+        r.setRno(rno);
+        r.setMno(mno);
+        r.setSno(sno);
+        r.setGno(1);
+        r.setZno(3);
+        r.setStatus(status);
+        return r;
+    }
+
+    // 트랜잭션 커밋 (검증 실패 false 반환은 예외가 아니므로 커밋됨)
+    private static void commit() {
+        for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+            s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+
+    @Test
+    void cancelledReservationReturnsFalseAndDropsRequest() {
+        when(redisService.takeRequest(FROM_RNO)).thenReturn(request());
+        when(reservationMapper.lockForExchange(List.of(FROM_RNO, TO_RNO))).thenReturn(List.of(
+                reservation(FROM_RNO, FROM_MNO, 100, "cancelled"), reservation(TO_RNO, TO_MNO, 200, "reserved")));
+
+        assertThat(service.acceptChange(TO_MNO, FROM_RNO, "key-1")).isFalse();
+        commit();
+
+        verify(redisService, never()).saveRequest(any());
+        verify(reservationsService, never()).reserveSwap(any(), any());
+        verifyNoInteractions(notificationDispatcher);
+    }
+
+    @Test
+    void foreignCallerReturnsFalseAndRestoresRequest() {
+        when(redisService.takeRequest(FROM_RNO)).thenReturn(request());
+        when(reservationMapper.lockForExchange(List.of(FROM_RNO, TO_RNO))).thenReturn(List.of(
+                reservation(FROM_RNO, FROM_MNO, 100, "reserved"), reservation(TO_RNO, TO_MNO, 200, "reserved")));
+
+        assertThat(service.acceptChange(99, FROM_RNO, "key-1")).isFalse();
+        commit();
+
+        verify(redisService).saveRequest(argThat(d -> d.getFrom_rno() == FROM_RNO && "PENDING".equals(d.getStatus())));
+        verify(reservationsService, never()).reserveSwap(any(), any());
+    }
+
+    @Test
+    void retryIsAppliedOnlyForTheResponder() {
+        ReservationExchangesDto done = request();
+        done.setStatus("approved");
+        when(redisService.takeRequest(FROM_RNO)).thenReturn(null);
+        when(exchangeMapper.findByIdemKey("key-1")).thenReturn(done);
+        when(reservationMapper.reserveInfo(TO_RNO)).thenReturn(reservation(TO_RNO, TO_MNO, 100, "reserved"));
+
+        assertThat(service.acceptChange(TO_MNO, FROM_RNO, "key-1")).isTrue();
+        assertThat(service.acceptChange(99, FROM_RNO, "key-1")).isFalse();
+    }
+}
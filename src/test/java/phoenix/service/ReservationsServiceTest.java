@@ -0,0 +1,91 @@
+package phoenix.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import phoenix.model.dto.ReservationsDto;
+import phoenix.model.mapper.ReservationMapper;
+import phoenix.model.mapper.TicketsMapper;
+import phoenix.util.TicketCodes;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 티켓 발급 전(대기열 pending/processing/failed) 예매 취소
+ * - 티켓 행이 없어도 취소 성공 + 대기열 행 정리
+ * - 이후 워커가 같은 예매를 발급하려 해도 cancelled 라 건너뜀
+ */
+class ReservationsServiceTest {
+
+    private static final int RNO = 11;
+    private static final int MNO = 7;
+
+    private ReservationMapper reservationMapper;
+    private TicketsMapper ticketsMapper;
+    private TicketIssueService ticketIssueService;
+    private TicketsService ticketsService;
+    private ReservationsService service;
+
+    @BeforeEach
+    void setUp() {
+        reservationMapper = mock(ReservationMapper.class);
+        ticketsMapper = mock(TicketsMapper.class);
+        ticketIssueService = mock(TicketIssueService.class);
+        ticketsService = new TicketsService(ticketsMapper, mock(TicketScanService.class),
+                mock(TicketCodes.class), mock(WalletService.class));
+        service = new ReservationsService(reservationMapper, mock(FileService.class), ticketsService,
+                mock(SeatLockService.class), mock(WalletService.class), mock(ExchangeIndexService.class),
+                ticketIssueService);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static ReservationsDto reservation(String status) {
+        ReservationsDto dto = new ReservationsDto();
+        dto.setRno(RNO);
+        dto.setMno(MNO);
+        dto.setGno(1);
+        dto.setSno(100);
+        dto.setStatus(status);
+        return dto;
+    }
+
+    @Test
+    void cancelBeforeIssueSucceeds() {
+        when(reservationMapper.reserveInfo(RNO)).thenReturn(reservation("reserved"));
+        when(reservationMapper.reserveCancel(RNO, MNO)).thenReturn(true);
+        when(ticketsMapper.ticketCancel(RNO)).thenReturn(false); // 티켓 행 없음
+        when(ticketsMapper.findUuidGnoByRno(RNO)).thenReturn(List.of());
+
+        assertThat(service.reserveCancle(RNO, MNO)).isTrue();
+        verify(ticketIssueService).cancel(RNO);
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+    }
+
+    @Test
+    void issueAfterCancelIsSkipped() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("rno", RNO);
+        row.put("mno", MNO);
+        row.put("gno", 1);
+        row.put("zno", 3);
+        row.put("reservation_status", "cancelled");
+        row.put("price", 10_000);
+        row.put("tno", null);
+        when(ticketsMapper.findIssueTargets(List.of(RNO))).thenReturn(List.of(row));
+
+        assertThat(ticketsService.issueBatch(List.of(RNO))).isEmpty();
+        verify(ticketsMapper, never()).ticketWriteBatch(anyList());
+    }
+}
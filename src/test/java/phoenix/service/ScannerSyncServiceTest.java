@@ -0,0 +1,160 @@
+package phoenix.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import phoenix.model.dto.ScannerSyncDto.*;
+import phoenix.model.mapper.TicketsMapper;
+import phoenix.util.TicketCodes;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 오프라인 스캐너 2대가 같은 티켓을 각각 스캔한 뒤 업로드하는 경우
+ * - 실제 TicketScanService.applyOfflineScan → judgeOfflineScan 으로 승자 판정
+ * - Redis 는 스크립트가 하는 기본 연산만 메모리로 대신함
+ *   (UPLOAD: 유효 set SREM 성공 시 승자 기록 / 실패 시 현재 승자 HGET, CAS: 기대값 일치 시 HSET)
+ */
+class ScannerSyncServiceTest {
+
+    private static final int GNO = 1;
+    private static final String UUID = "T-0001";
+
+    private final Set<String> valid = new HashSet<>();
+    private final Map<String, String> winners = new HashMap<>();
+    private String racingWinner; // 다음 CAS 직전에 다른 업로드가 기록한 승자 (동시 업로드 재현)
+    private ScannerSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        valid.clear();
+        winners.clear();
+        valid.add(UUID);
+        racingWinner = null;
+
+        RScript script = mock(RScript.class);
+        doAnswer(inv -> redis(inv.getArgument(2), inv.getRawArguments()))
+                .when(script).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(Object[].class));
+        RedissonClient redisson = mock(RedissonClient.class);
+        when(redisson.getScript(StringCodec.INSTANCE)).thenReturn(script);
+        TicketCodes ticketCodes = mock(TicketCodes.class);
+        when(ticketCodes.isValid(anyString())).thenReturn(true);
+
+        TicketScanService ticketScanService = new TicketScanService(redisson, mock(TicketsMapper.class),
+                mock(GameCatalogService.class), ticketCodes, mock(WalletService.class));
+        service = new ScannerSyncService(mock(RedissonClient.class), ticketScanService);
+    }
+
+    // MULTI = UPLOAD_LUA (ARGV: uuid, gno, me, 분), VALUE = WINNER_CAS_LUA (ARGV: uuid, expected, me)
+    private Object redis(RScript.ReturnType type, Object[] raw) {
+        Object[] argv = (Object[]) raw[4];
+        String uuid = (String) argv[0];
+        if (type == RScript.ReturnType.MULTI) {
+            String me = (String) argv[2];
+            if (valid.remove(uuid)) {
+                winners.put(uuid, me);
+                return List.of("ACCEPTED", me);
+            }
+            return List.of("USED", winners.getOrDefault(uuid, ""));
+        }
+        if (racingWinner != null) {
+            winners.put(uuid, racingWinner);
+            racingWinner = null;
+        }
+        String cur = winners.getOrDefault(uuid, "");
+        if (!cur.equals(argv[1])) return cur;
+        winners.put(uuid, (String) argv[2]);
+        return argv[2];
+    }
+
+    private ScanResult upload(String deviceId, long scannedAt) {
+        ScanUploadReq req = ScanUploadReq.builder()
+                .deviceId(deviceId)
+                .scans(List.of(ScanItem.builder().uuid(UUID).scannedAt(scannedAt).build()))
+                .build();
+        List<ScanResult> results = service.upload(GNO, req);
+        assertThat(results).hasSize(1);
+        return results.get(0);
+    }
+
+    @Test
+    void earlierScanWinsWhenUploadedFirst() {
+        ScanResult a = upload("gate-A", 1_000L);
+        ScanResult b = upload("gate-B", 2_000L);
+
+        assertThat(a.getStatus()).isEqualTo("ACCEPTED");
+        assertThat(b.getStatus()).isEqualTo("REJECTED");
+        assertThat(b.getWinnerDevice()).isEqualTo("gate-A");
+        assertThat(b.getWinnerScannedAt()).isEqualTo(1_000L);
+    }
+
+    @Test
+    void earlierScanWinsWhenUploadedLast() {
+        ScanResult b = upload("gate-B", 2_000L);
+        ScanResult a = upload("gate-A", 1_000L);
+
+        // 늦게 올라와도 먼저 스캔한 쪽이 승자로 교체됨
+        assertThat(b.getStatus()).isEqualTo("ACCEPTED");
+        assertThat(a.getStatus()).isEqualTo("ACCEPTED");
+        assertThat(a.getWinnerDevice()).isEqualTo("gate-A");
+        assertThat(winners.get(UUID)).isEqualTo(TicketScanService.winnerValue(1_000L, "gate-A"));
+
+        // 진 쪽이 다시 올리면 최종 승자 기준으로 REJECTED
+        ScanResult retry = upload("gate-B", 2_000L);
+        assertThat(retry.getStatus()).isEqualTo("REJECTED");
+        assertThat(retry.getWinnerDevice()).isEqualTo("gate-A");
+    }
+
+    @Test
+    void sameInstantIsBrokenByDeviceId() {
+        ScanResult b = upload("gate-B", 1_000L);
+        ScanResult a = upload("gate-A", 1_000L);
+
+        assertThat(b.getStatus()).isEqualTo("ACCEPTED");
+        assertThat(a.getStatus()).isEqualTo("ACCEPTED");
+        assertThat(upload("gate-B", 1_000L).getStatus()).isEqualTo("REJECTED");
+        assertThat(winners.get(UUID)).isEqualTo(TicketScanService.winnerValue(1_000L, "gate-A"));
+    }
+
+    @Test
+    void resendingTheWinningScanIsIdempotent() {
+        ScanResult first = upload("gate-A", 1_000L);
+        ScanResult again = upload("gate-A", 1_000L);
+
+        assertThat(first.getStatus()).isEqualTo("ACCEPTED");
+        assertThat(again.getStatus()).isEqualTo("ACCEPTED");
+        assertThat(again.getWinnerScannedAt()).isEqualTo(1_000L);
+        assertThat(valid).isEmpty();
+    }
+
+    @Test
+    void usedTicketWithoutWinnerIsRejected() {
+        valid.clear(); // 취소 등으로 유효 set 에서 빠졌고 승자 기록 없음
+        ScanResult r = upload("gate-A", 1_000L);
+
+        assertThat(r.getStatus()).isEqualTo("REJECTED");
+        assertThat(r.getWinnerDevice()).isNull();
+    }
+
+    @Test
+    void winnerChangedDuringCompareIsJudgedAgain() {
+        upload("gate-B", 2_000L);
+        // gate-A 가 gate-B 를 이기고 교체하려는 사이 gate-C(더 이른 스캔)가 먼저 교체
+        racingWinner = TicketScanService.winnerValue(500L, "gate-C");
+        ScanResult a = upload("gate-A", 1_000L);
+
+        assertThat(a.getStatus()).isEqualTo("REJECTED");
+        assertThat(a.getWinnerDevice()).isEqualTo("gate-C");
+        assertThat(winners.get(UUID)).isEqualTo(TicketScanService.winnerValue(500L, "gate-C"));
+    }
+}
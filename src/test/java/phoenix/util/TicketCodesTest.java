@@ -0,0 +1,96 @@
+package phoenix.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 티켓 코드 생성/검증
+ * - 기본 테스트: 형식, 검증자, 위조 거절
+ * - @Tag("slow"): 1천만 장 충돌 검사, 생성 속도 측정 (./gradlew slowTest)
+ */
+class TicketCodesTest {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    private TicketCodes codes;
+
+    @BeforeEach
+    void setUp() {
+        codes = new TicketCodes();
+        ReflectionTestUtils.setField(codes, "secret", "test-ticket-code-secret");
+        ReflectionTestUtils.setField(codes, "acceptLegacy", true);
+    }
+
+    @Test
+    void generatedCodeIsValid() {
+        for (int i = 0; i < 1_000; i++) {
+            String code = codes.generate();
+            assertThat(code).hasSize(TicketCodes.CODE_LEN).matches("[0-9A-HJKMNP-TV-Z]+");
+            assertThat(codes.isValid(code)).isTrue();
+        }
+    }
+
+    @Test
+    void tamperedCodeIsRejected() {
+        String code = codes.generate();
+        char c = code.charAt(0);
+        String tampered = (c == '0' ? '1' : '0') + code.substring(1);
+        assertThat(codes.isValid(tampered)).isFalse();
+        assertThat(codes.isValid(code.toLowerCase())).isFalse();
+        assertThat(codes.isValid(null)).isFalse();
+    }
+
+    @Test
+    void legacyCodeFollowsFlag() {
+        assertThat(codes.isValid("a1b2c3")).isTrue();
+        ReflectionTestUtils.setField(codes, "acceptLegacy", false);
+        assertThat(codes.isValid("a1b2c3")).isFalse();
+    }
+
+    /** 1천만 장 발급 시 랜덤 60bit 부분 충돌 없음 (기대 충돌 수 ≈ 4×10^-5) */
+    @Test
+    @Tag("slow")
+    void tenMillionCodesDoNotCollide() {
+        int n = 10_000_000;
+        long[] randomParts = new long[n]; // 문자열 대신 60bit 값으로 보관 (≈ 80MB)
+        for (int i = 0; i < n; i++) randomParts[i] = randomPart(codes.generate());
+        Arrays.sort(randomParts);
+        int collisions = 0;
+        for (int i = 1; i < n; i++) {
+            if (randomParts[i] == randomParts[i - 1]) collisions++;
+        }
+        assertThat(collisions).isZero();
+    }
+
+    /** 생성 속도 (HMAC 포함) — 발급 배치 크기 대비 병목이 아닌지 확인용 */
+    @Test
+    @Tag("slow")
+    void generationRate() {
+        for (int i = 0; i < 50_000; i++) codes.generate(); // 워밍업
+
+        int n = 500_000;
+        long start = System.nanoTime();
+        int sink = 0;
+        for (int i = 0; i < n; i++) sink += codes.generate().charAt(0);
+        long elapsed = System.nanoTime() - start;
+
+        double perSec = n / (elapsed / 1e9);
+        System.out.printf("[TicketCodesTest] generate: %,d codes in %d ms (%,.0f/s, %.2f us/code) sink=%d%n",
+                n, elapsed / 1_000_000, perSec, elapsed / 1e3 / n, sink);
+        // 경기 1회 최대 발급량(수만 장)을 1초 안에 만들 수 있는 수준
+        assertThat(perSec).isGreaterThan(50_000);
+    }
+
+    // 앞 12자(랜덤 부분) → 60bit 값
+    private static long randomPart(String code) {
+        long v = 0;
+        for (int i = 0; i < 12; i++) v = (v << 5) | ALPHABET.indexOf(code.charAt(i));
+        return v;
+    }
+}
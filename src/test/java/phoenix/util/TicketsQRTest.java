@@ -0,0 +1,102 @@
+package phoenix.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * QR PNG 렌더링
+ * - TicketQrPng(1-bit 직접 인코딩) 픽셀이 TicketQrCode(ImageIO) 와 같은지
+ * - 압축 버퍼가 모자라 늘어나도 PNG 가 깨지지 않는지
+ * - @Tag("slow"): 두 방식의 렌더링 속도 비교 (./gradlew slowTest)
+ */
+class TicketsQRTest {
+
+    private static final String TEXT = "http://localhost:8080/tickets/qr?qr=7K2M9QXD4TB8H3NC";
+    private static final int SIZE = 200;
+
+    @Test
+    void pngMatchesImageIoPixels() throws IOException {
+        BufferedImage expected = ImageIO.read(new ByteArrayInputStream(TicketsQR.TicketQrCode(TEXT, SIZE)));
+        BufferedImage actual = ImageIO.read(new ByteArrayInputStream(TicketsQR.TicketQrPng(TEXT, SIZE)));
+
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertThat(actual.getRGB(x, y) & 0xFFFFFF)
+                        .as("pixel (%d, %d)", x, y)
+                        .isEqualTo(expected.getRGB(x, y) & 0xFFFFFF);
+            }
+        }
+    }
+
+    @Test
+    void packedBufferGrowthKeepsCompressedBytes() throws Exception {
+        // 스레드별 버퍼를 새로 쓰도록 새 스레드에서 작은 압축 버퍼(16B)로 시작 → 여러 번 확장
+        ExecutorService fresh = Executors.newSingleThreadExecutor();
+        byte[] grown;
+        try {
+            grown = CompletableFuture.supplyAsync(() -> TicketsQR.TicketQrPng(TEXT, 800, 16), fresh).get();
+        } finally {
+            fresh.shutdown();
+        }
+        BufferedImage expected = ImageIO.read(new ByteArrayInputStream(TicketsQR.TicketQrCode(TEXT, 800)));
+        BufferedImage actual = ImageIO.read(new ByteArrayInputStream(grown));
+
+        assertThat(actual).isNotNull();
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        assertThat(rgb(actual)).isEqualTo(rgb(expected));
+    }
+
+    private static int[] rgb(BufferedImage img) {
+        int[] px = img.getRGB(0, 0, img.getWidth(), img.getHeight(), null, 0, img.getWidth());
+        for (int i = 0; i < px.length; i++) px[i] &= 0xFFFFFF;
+        return px;
+    }
+
+    /** 같은 조건(200px, 티켓 URL)에서 장당 렌더링 시간 비교 */
+    @Test
+    @Tag("slow")
+    void pngIsFasterThanImageIo() {
+        int warmup = 2_000;
+        int n = 20_000;
+        for (int i = 0; i < warmup; i++) {
+            TicketsQR.TicketQrCode(text(i), SIZE);
+            TicketsQR.TicketQrPng(text(i), SIZE);
+        }
+
+        long imageIo = time(n, true);
+        long png = time(n, false);
+        System.out.printf("[TicketsQRTest] %,d QR x %dpx: TicketQrCode %.1f us/QR, TicketQrPng %.1f us/QR (x%.2f)%n",
+                n, SIZE, imageIo / 1e3 / n, png / 1e3 / n, (double) imageIo / png);
+        assertThat(png).isLessThan(imageIo);
+    }
+
+    private static long time(int n, boolean imageIo) {
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            byte[] b = imageIo ? TicketsQR.TicketQrCode(text(i), SIZE) : TicketsQR.TicketQrPng(text(i), SIZE);
+            bytes += b.length;
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(bytes).isPositive();
+        return elapsed;
+    }
+
+    // 매번 다른 내용 (같은 입력 반복으로 인한 최적화 방지)
+    private static String text(int i) {
+        return TEXT.substring(0, TEXT.length() - 6) + String.format("%06d", i % 1_000_000);
+    }
+}